@@ -0,0 +1,13 @@
+package sac;
+
+/**
+ * Enumeration of eviction policies for bounded caches (e.g. StateFunctionCache). With LRU, the least recently used
+ * entry is evicted. With CLOCK (second chance approximation of LRU), entries are swept cyclically and the first one not
+ * used since the previous sweep is evicted; hits then cost no reordering of entries.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public enum CacheEvictionPolicy {
+	LRU, CLOCK
+}
@@ -14,9 +14,14 @@ public final class Identifier implements Comparable<Identifier> {
 	private static IdentifierType type = IdentifierType.HASH_CODE;
 
 	/**
-	 * Actual id.
+	 * Actual id for HASH_CODE type (kept as primitive), or hash code of actual id for STRING type.
 	 */
-	private Object id = null;
+	private int hashId;
+
+	/**
+	 * Actual id for STRING type (null for HASH_CODE type).
+	 */
+	private String stringId = null;
 
 	/**
 	 * Creates new identifier for given state.
@@ -24,7 +29,12 @@ public final class Identifier implements Comparable<Identifier> {
 	 * @param state to be identified
 	 */
 	public Identifier(State state) {
-		id = (type == IdentifierType.HASH_CODE) ? Integer.valueOf(state.hashCode()) : state.toString();
+		if (type == IdentifierType.HASH_CODE)
+			hashId = state.hashCode();
+		else {
+			stringId = state.toString();
+			hashId = stringId.hashCode();
+		}
 	}
 
 	/**
@@ -53,9 +63,9 @@ public final class Identifier implements Comparable<Identifier> {
 	@Override
 	public int compareTo(Identifier otherIdentifier) {
 		if (type == IdentifierType.HASH_CODE)
-			return ((Integer) id).compareTo((Integer) otherIdentifier.id);
+			return (hashId < otherIdentifier.hashId) ? -1 : ((hashId == otherIdentifier.hashId) ? 0 : 1);
 		else
-			return ((String) id).compareTo((String) otherIdentifier.id);
+			return stringId.compareTo(otherIdentifier.stringId);
 	}
 
 	/*
@@ -67,9 +77,9 @@ public final class Identifier implements Comparable<Identifier> {
 	public boolean equals(Object otherIdentifier) {
 		Identifier otherIdentifier2 = (Identifier) otherIdentifier;
 		if (type == IdentifierType.HASH_CODE)
-			return ((Integer) id).equals((Integer) otherIdentifier2.id);
+			return hashId == otherIdentifier2.hashId;
 		else
-			return ((String) id).equals((String) otherIdentifier2.id);
+			return (hashId == otherIdentifier2.hashId) && stringId.equals(otherIdentifier2.stringId);
 	}
 
 	/*
@@ -79,7 +89,7 @@ public final class Identifier implements Comparable<Identifier> {
 	 */
 	@Override
 	public String toString() {
-		return id.toString();
+		return (stringId != null) ? stringId : String.valueOf(hashId);
 	}
 
 	/*
@@ -89,7 +99,23 @@ public final class Identifier implements Comparable<Identifier> {
 	 */
 	@Override
 	public int hashCode() {
-		int result = (type == IdentifierType.HASH_CODE) ? ((Integer) id).intValue() : ((String) id).hashCode();
-		return result;
+		return hashId;
+	}
+
+	/**
+	 * Returns 64-bit hash code of this identifier. For STRING type it is calculated (FNV-1a) from actual id, for
+	 * HASH_CODE type it is a spread of the 32-bit hash code (hence carries no more information).
+	 * 
+	 * @return 64-bit hash code
+	 */
+	public long longHashCode() {
+		if (stringId == null)
+			return (hashId & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L;
+		long hash = 0xCBF29CE484222325L;
+		for (int i = 0; i < stringId.length(); i++) {
+			hash ^= stringId.charAt(i);
+			hash *= 0x100000001B3L;
+		}
+		return hash;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package sac;
+
+/**
+ * State codec able to encode states into single long numbers (64 bits). Meant for problems with small states (e.g.
+ * 8-puzzle, 15-puzzle), so that states can be kept in containers of primitive longs instead of objects. Encoding must
+ * be canonical and exact, i.e. equal states are given equal keys and different states are given different keys.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public interface LongStateCodec extends StateCodec {
+
+	/**
+	 * Encodes given state into a long number (key).
+	 * 
+	 * @param state reference to state to be encoded
+	 * @return key of state
+	 */
+	public long encodeAsLong(State state);
+
+	/**
+	 * Decodes a new state object from given long number (only the content of state is restored, not its parent, depth
+	 * or costs).
+	 * 
+	 * @param key key of state
+	 * @return reference to decoded state
+	 */
+	public State decodeFromLong(long key);
+}
@@ -0,0 +1,20 @@
+package sac;
+
+/**
+ * State codec encoding states as k-of-n partial permutations, i.e. codes of length k consisting of distinct elements
+ * of {0, 1, ..., n-1}. Meant for abstractions of permutation problems (subproblems), e.g. positions of a pattern of k
+ * tiles of sliding puzzle, where all states agreeing on the pattern share one code (see
+ * sac.graph.ClosedSetAsPermutationRankBitArray).
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public interface PartialPermutationStateCodec extends StateCodec {
+
+	/**
+	 * Returns number n of elements, which codes (partial permutations) are chosen from.
+	 * 
+	 * @return number of elements
+	 */
+	public int getElementsCount();
+}
\ No newline at end of file
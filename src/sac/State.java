@@ -100,6 +100,15 @@ public interface State extends Comparable<State>, Graphvizable {
 	 * 
 	 * @param h value of heuristics to be set
 	 */
+	public void setH(double h);
+
+	/**
+	 * Explicitly sets the value of heuristics for this state (boxed variant, kept for source compatibility of callers;
+	 * null makes the heuristics be calculated again on the next call of getH()). Note that direct implementations of
+	 * this interface (not extending StateImpl) must provide both variants of setH(...).
+	 * 
+	 * @param h value of heuristics to be set or null
+	 */
 	public void setH(Double h);
 
 	/**
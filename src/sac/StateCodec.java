@@ -0,0 +1,29 @@
+package sac;
+
+/**
+ * Compact binary form of search states. Meant to be implemented for particular problems whenever states are to be
+ * kept outside of objects (e.g. on disk, in off-heap buffers, or in encoded form inside containers). Encoding must be
+ * canonical, i.e. equal states must always be given equal codes.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public interface StateCodec {
+
+	/**
+	 * Encodes given state into an array of bytes.
+	 * 
+	 * @param state reference to state to be encoded
+	 * @return code of state
+	 */
+	public byte[] encode(State state);
+
+	/**
+	 * Decodes a new state object from given array of bytes (only the content of state is restored, not its parent,
+	 * depth or costs).
+	 * 
+	 * @param code code of state
+	 * @return reference to decoded state
+	 */
+	public State decode(byte[] code);
+}
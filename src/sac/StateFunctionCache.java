@@ -0,0 +1,447 @@
+package sac;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded memoization cache in front of a state function (typically a heuristic), meant to share calculations across
+ * many searches in a long-running process (e.g. many instances of sliding puzzle with the same goal, or many TSP tours
+ * on the same map). Values are keyed by codes of states given by a state codec (see StateCodec), hence the wrapped
+ * function must depend on the content of state only (not on its path). Codes are exact (unlike hash codes of
+ * identifiers), so different states never share a value; codes of a LongStateCodec are kept as long numbers, other
+ * codes as byte arrays. Keys are calculated afresh on each call, so that the cache stays valid for states mutated in
+ * place. The cache is split into independently synchronized segments, so it is safe for concurrent searches. Usage:
+ * <code>StateImpl.setHFunction(new StateFunctionCache(new SomeHFunction(), new SomeStateCodec(), capacity, policy))</code>.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class StateFunctionCache extends StateFunction {
+
+	/**
+	 * Default capacity (total number of memorized values).
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 20;
+
+	/**
+	 * Number of segments (power of two).
+	 */
+	private static final int SEGMENTS_COUNT = 16;
+
+	/**
+	 * Wrapped (actual) state function.
+	 */
+	private StateFunction function;
+
+	/**
+	 * State codec providing keys.
+	 */
+	private StateCodec stateCodec;
+
+	/**
+	 * Eviction policy.
+	 */
+	private CacheEvictionPolicy evictionPolicy;
+
+	/**
+	 * Segments of cache.
+	 */
+	private Segment[] segments;
+
+	/**
+	 * Number of hits.
+	 */
+	private AtomicLong hitsCount = new AtomicLong();
+
+	/**
+	 * Number of misses.
+	 */
+	private AtomicLong missesCount = new AtomicLong();
+
+	/**
+	 * Segment of cache (synchronized from outside).
+	 */
+	private static abstract class Segment {
+
+		/**
+		 * Returns memorized value for given key, or null if absent.
+		 * 
+		 * @param key key
+		 * @return memorized value or null
+		 */
+		abstract Double get(Object key);
+
+		/**
+		 * Memorizes value for given key (evicting some other entry if needed).
+		 * 
+		 * @param key key
+		 * @param value value to be memorized
+		 */
+		abstract void put(Object key, double value);
+
+		/**
+		 * Returns number of memorized values.
+		 * 
+		 * @return number of memorized values
+		 */
+		abstract int size();
+
+		/**
+		 * Removes all memorized values.
+		 */
+		abstract void clear();
+	}
+
+	/**
+	 * Segment with LRU eviction (linked hash map in access order).
+	 */
+	private static class LRUSegment extends Segment {
+
+		/**
+		 * Entries in access order.
+		 */
+		private LinkedHashMap<Object, Double> map;
+
+		/**
+		 * Creates new segment of given capacity.
+		 * 
+		 * @param capacity capacity of segment
+		 */
+		@SuppressWarnings("serial")
+		LRUSegment(final int capacity) {
+			map = new LinkedHashMap<Object, Double>(16, 0.75f, true) {
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
+				 */
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Object, Double> eldest) {
+					return size() > capacity;
+				}
+			};
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.StateFunctionCache.Segment#get(java.lang.Object)
+		 */
+		@Override
+		Double get(Object key) {
+			return map.get(key);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.StateFunctionCache.Segment#put(java.lang.Object, double)
+		 */
+		@Override
+		void put(Object key, double value) {
+			map.put(key, Double.valueOf(value));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.StateFunctionCache.Segment#size()
+		 */
+		@Override
+		int size() {
+			return map.size();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.StateFunctionCache.Segment#clear()
+		 */
+		@Override
+		void clear() {
+			map.clear();
+		}
+	}
+
+	/**
+	 * Segment with CLOCK eviction (cyclic buffer of entries with reference bits, indexed by hash map).
+	 */
+	private static class CLOCKSegment extends Segment {
+
+		/**
+		 * Keys in buffer.
+		 */
+		private Object[] keys;
+
+		/**
+		 * Values in buffer.
+		 */
+		private double[] values;
+
+		/**
+		 * Reference bits (set on hits, cleared by sweeping hand).
+		 */
+		private boolean[] referenced;
+
+		/**
+		 * Positions of keys in buffer.
+		 */
+		private HashMap<Object, Integer> positions = new HashMap<Object, Integer>();
+
+		/**
+		 * Number of occupied positions of buffer.
+		 */
+		private int size = 0;
+
+		/**
+		 * Position of sweeping hand.
+		 */
+		private int hand = 0;
+
+		/**
+		 * Creates new segment of given capacity.
+		 * 
+		 * @param capacity capacity of segment
+		 */
+		CLOCKSegment(int capacity) {
+			keys = new Object[capacity];
+			values = new double[capacity];
+			referenced = new boolean[capacity];
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.StateFunctionCache.Segment#get(java.lang.Object)
+		 */
+		@Override
+		Double get(Object key) {
+			Integer position = positions.get(key);
+			if (position == null)
+				return null;
+			referenced[position] = true;
+			return Double.valueOf(values[position]);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.StateFunctionCache.Segment#put(java.lang.Object, double)
+		 */
+		@Override
+		void put(Object key, double value) {
+			Integer existing = positions.get(key);
+			if (existing != null) {
+				values[existing] = value;
+				referenced[existing] = true;
+				return;
+			}
+			int position;
+			if (size < keys.length)
+				position = size++;
+			else {
+				// sweeping (second chance for referenced entries)
+				while (referenced[hand]) {
+					referenced[hand] = false;
+					hand = (hand + 1) % keys.length;
+				}
+				position = hand;
+				hand = (hand + 1) % keys.length;
+				positions.remove(keys[position]);
+			}
+			keys[position] = key;
+			values[position] = value;
+			referenced[position] = false;
+			positions.put(key, position);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.StateFunctionCache.Segment#size()
+		 */
+		@Override
+		int size() {
+			return size;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.StateFunctionCache.Segment#clear()
+		 */
+		@Override
+		void clear() {
+			positions.clear();
+			for (int i = 0; i < size; i++)
+				keys[i] = null;
+			size = 0;
+			hand = 0;
+		}
+	}
+
+	/**
+	 * Creates new cache in front of given state function.
+	 * 
+	 * @param function wrapped (actual) state function
+	 * @param stateCodec state codec providing keys
+	 * @param capacity capacity of cache (total number of memorized values)
+	 * @param evictionPolicy eviction policy
+	 */
+	public StateFunctionCache(StateFunction function, StateCodec stateCodec, int capacity, CacheEvictionPolicy evictionPolicy) {
+		if (stateCodec == null)
+			throw new IllegalArgumentException("StateFunctionCache requires a state codec.");
+		this.function = function;
+		this.stateCodec = stateCodec;
+		this.evictionPolicy = evictionPolicy;
+		int segmentCapacity = Math.max(1, (capacity + SEGMENTS_COUNT - 1) / SEGMENTS_COUNT);
+		segments = new Segment[SEGMENTS_COUNT];
+		for (int i = 0; i < SEGMENTS_COUNT; i++)
+			segments[i] = (evictionPolicy == CacheEvictionPolicy.CLOCK) ? new CLOCKSegment(segmentCapacity) : new LRUSegment(segmentCapacity);
+	}
+
+	/**
+	 * Creates new cache of default capacity and LRU eviction in front of given state function.
+	 * 
+	 * @param function wrapped (actual) state function
+	 * @param stateCodec state codec providing keys
+	 */
+	public StateFunctionCache(StateFunction function, StateCodec stateCodec) {
+		this(function, stateCodec, DEFAULT_CAPACITY, CacheEvictionPolicy.LRU);
+	}
+
+	/**
+	 * Returns key for given state: its code as a long number for a LongStateCodec, its code wrapped in a byte buffer
+	 * (compared by content) otherwise.
+	 * 
+	 * @param state reference to state
+	 * @return key of state
+	 */
+	private Object key(State state) {
+		if (stateCodec instanceof LongStateCodec)
+			return Long.valueOf(((LongStateCodec) stateCodec).encodeAsLong(state));
+		return ByteBuffer.wrap(stateCodec.encode(state));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.StateFunction#calculate(sac.State)
+	 */
+	@Override
+	public double calculate(State state) {
+		Object key = key(state);
+		Segment segment = segmentFor(key);
+		Double value;
+		synchronized (segment) {
+			value = segment.get(key);
+		}
+		if (value != null) {
+			hitsCount.incrementAndGet();
+			return value.doubleValue();
+		}
+		missesCount.incrementAndGet();
+		double calculated = function.calculate(state); // outside of lock (concurrent misses may calculate twice)
+		synchronized (segment) {
+			segment.put(key, calculated);
+		}
+		return calculated;
+	}
+
+	/**
+	 * Returns segment responsible for given key.
+	 * 
+	 * @param key key
+	 * @return segment for key
+	 */
+	private Segment segmentFor(Object key) {
+		int hash = key.hashCode() * 0x9E3779B9; // spreading keys (e.g. codes of neighbouring states) over segments
+		return segments[hash >>> (32 - Integer.numberOfTrailingZeros(SEGMENTS_COUNT))];
+	}
+
+	/**
+	 * Returns wrapped (actual) state function.
+	 * 
+	 * @return wrapped state function
+	 */
+	public StateFunction getFunction() {
+		return function;
+	}
+
+	/**
+	 * Returns state codec providing keys.
+	 * 
+	 * @return state codec
+	 */
+	public StateCodec getStateCodec() {
+		return stateCodec;
+	}
+
+	/**
+	 * Returns eviction policy.
+	 * 
+	 * @return eviction policy
+	 */
+	public CacheEvictionPolicy getEvictionPolicy() {
+		return evictionPolicy;
+	}
+
+	/**
+	 * Returns number of memorized values.
+	 * 
+	 * @return number of memorized values
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments)
+			synchronized (segment) {
+				size += segment.size();
+			}
+		return size;
+	}
+
+	/**
+	 * Returns number of hits (calls answered from cache).
+	 * 
+	 * @return number of hits
+	 */
+	public long getHitsCount() {
+		return hitsCount.get();
+	}
+
+	/**
+	 * Returns number of misses (calls passed to wrapped function).
+	 * 
+	 * @return number of misses
+	 */
+	public long getMissesCount() {
+		return missesCount.get();
+	}
+
+	/**
+	 * Returns ratio of hits to all calls (0 if there were no calls).
+	 * 
+	 * @return hit rate
+	 */
+	public double getHitRate() {
+		long hits = hitsCount.get();
+		long all = hits + missesCount.get();
+		return (all > 0) ? ((double) hits) / all : 0.0;
+	}
+
+	/**
+	 * Removes all memorized values and resets hits and misses counters (e.g. when the goal or map changes).
+	 */
+	public void clear() {
+		for (Segment segment : segments)
+			synchronized (segment) {
+				segment.clear();
+			}
+		hitsCount.set(0);
+		missesCount.set(0);
+	}
+}
@@ -23,7 +23,7 @@ public abstract class StateImpl implements State {
 	protected State parent = null;
 
 	/**
-	 * List of references to this state's children.
+	 * List of references to this state's children. Remains null until the first call of getChildren().
 	 */
 	protected List<? extends State> children = null;
 
@@ -33,9 +33,9 @@ public abstract class StateImpl implements State {
 	protected double depth = 0;
 
 	/**
-	 * The heuristics - estimated distance to the solution state. Remains null until the first call of getH().
+	 * The heuristics - estimated distance to the solution state. Remains NaN until the first call of getH().
 	 */
-	protected Double h = null;
+	protected double h = Double.NaN;
 
 	/**
 	 * Name of the move that led to generating this state.
@@ -48,13 +48,12 @@ public abstract class StateImpl implements State {
 	protected static StateFunction hFunction = null;
 
 	/**
-	 * Constructor for this abstract class. Sets reference to parent to null, and initializes children as an empty list
-	 * (linked list).
+	 * Constructor for this abstract class. Sets reference to parent to null. The list of children is allocated lazily
+	 * (on first call of getChildren()).
 	 */
 	public StateImpl() {
 		// construction of identifier is postponed until first call of getIdentifier()
 		this.parent = null;
-		this.children = new LinkedList<State>();
 	}
 
 	/*
@@ -121,6 +120,8 @@ public abstract class StateImpl implements State {
 	 */
 	@Override
 	public List<? extends State> getChildren() {
+		if (children == null)
+			children = new LinkedList<State>();
 		return children;
 	}
 
@@ -205,21 +206,31 @@ public abstract class StateImpl implements State {
 	 */
 	@Override
 	public final double getH() {
-		if (h == null)
-			h = Double.valueOf(hFunction.calculate(this));
+		if (Double.isNaN(h))
+			h = hFunction.calculate(this);
 		return h;
 	}
 
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see sac.State#setH(Double)
+	 * @see sac.State#setH(double)
 	 */
 	@Override
-	public final void setH(Double h) {
+	public final void setH(double h) {
 		this.h = h;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.State#setH(java.lang.Double)
+	 */
+	@Override
+	public final void setH(Double h) {
+		this.h = (h != null) ? h : Double.NaN;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -227,8 +238,7 @@ public abstract class StateImpl implements State {
 	 */
 	@Override
 	public final void refreshH() {
-		h = null;
-		hFunction.calculate(this);
+		h = hFunction.calculate(this);
 	}
 	
 	/*
@@ -14,6 +14,7 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -1056,16 +1057,152 @@ public class Checkers extends GameStateImpl {
 	public List<GameState> generateChildren() {
 		List<String> moves = getPossibleMoves();
 		List<GameState> children = new LinkedList<GameState>();
-		for (String move : moves) {
-			Checkers child = new Checkers(this);
-			child.makeMove(move, true);
-			child.setMoveName(move);
-			children.add(child);
-
-		}
+		for (String move : moves)
+			children.add(generateChild(move));
 		return children;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameStateImpl#generateChildrenLazily()
+	 */
+	@Override
+	public Iterator<GameState> generateChildrenLazily() {
+		final Iterator<String> movesIterator = getPossibleMoves().iterator();
+		return new Iterator<GameState>() {
+
+			@Override
+			public boolean hasNext() {
+				return movesIterator.hasNext();
+			}
+
+			@Override
+			public GameState next() {
+				return generateChild(movesIterator.next());
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameStateImpl#generateChildrenInStages(java.lang.String)
+	 */
+	@Override
+	public Iterator<GameState> generateChildrenInStages(final String hashMoveName) {
+		final List<String> moves = getPossibleMoves();
+		return new Iterator<GameState>() {
+
+			/**
+			 * Is the hash move still to be tried.
+			 */
+			private boolean hashMovePending = (hashMoveName != null) && (moves.contains(hashMoveName));
+
+			/**
+			 * Iterator over remaining moves (prepared only when needed).
+			 */
+			private Iterator<String> remainingMovesIterator = null;
+
+			/**
+			 * Prepares (if needed) and returns iterator over remaining moves: captures (mandatory, hence exclusive) or
+			 * quiet moves ordered by descending scores.
+			 * 
+			 * @return iterator over remaining moves
+			 */
+			private Iterator<String> remainingMovesIterator() {
+				if (remainingMovesIterator == null) {
+					List<String> remainingMoves = new ArrayList<String>(moves);
+					if (hashMoveName != null)
+						remainingMoves.remove(hashMoveName);
+					if (!hasSomeKillMoves)
+						Collections.sort(remainingMoves, new Comparator<String>() {
+
+							/*
+							 * (non-Javadoc)
+							 * 
+							 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+							 */
+							@Override
+							public int compare(String move1, String move2) {
+								return quietMoveScore(move2) - quietMoveScore(move1);
+							}
+						});
+					remainingMovesIterator = remainingMoves.iterator();
+				}
+				return remainingMovesIterator;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return (hashMovePending) || (remainingMovesIterator().hasNext());
+			}
+
+			@Override
+			public GameState next() {
+				if (hashMovePending) {
+					hashMovePending = false;
+					return generateChild(hashMoveName);
+				}
+				return generateChild(remainingMovesIterator().next());
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameStateImpl#generatePassChild()
+	 */
+	@Override
+	public GameState generatePassChild() {
+		Checkers child = new Checkers(this);
+		child.setWhiteTurnNow(!isWhiteTurnNow());
+		child.refresh();
+		return child;
+	}
+
+	/**
+	 * Returns a cheap score of a quiet move (calculated without making the move): promotions first, then pawn moves by
+	 * rows advanced towards promotion, then king moves.
+	 * 
+	 * @param move string representation of a move
+	 * @return score of move
+	 */
+	private int quietMoveScore(String move) {
+		StringTokenizer tokenizer = new StringTokenizer(move.toUpperCase(), MOVE_SEPARATOR);
+		BoardLocation from = BoardLocation.stringToLocation(tokenizer.nextToken());
+		BoardLocation to = BoardLocation.stringToLocation(tokenizer.nextToken());
+		int piece = pieceAt(from);
+		if ((piece != WHITE_PAWN) && (piece != BLACK_PAWN))
+			return 0;
+		int rowsAdvanced = (piece == WHITE_PAWN) ? to.getY() : n + 1 - to.getY();
+		return (rowsAdvanced == n) ? 2 * n : rowsAdvanced;
+	}
+
+	/**
+	 * Generates a child by applying given move to a copy of this state.
+	 * 
+	 * @param move string representation of a move
+	 * @return child state
+	 */
+	private Checkers generateChild(String move) {
+		Checkers child = new Checkers(this);
+		child.makeMove(move, true);
+		child.setMoveName(move);
+		return child;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
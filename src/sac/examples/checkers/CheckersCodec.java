@@ -0,0 +1,84 @@
+package sac.examples.checkers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import sac.State;
+import sac.StateCodec;
+
+/**
+ * State codec for checkers. The code of a state consists of one byte for the turn (1 - white, 0 - black) followed by
+ * the board packed as 4 bits per square (piece constants, squares ordered as board locations are, i.e. column after
+ * column). The encoding does not depend on the order of pieces within lists of locations, decoded states have the
+ * lists sorted.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class CheckersCodec implements StateCodec {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.StateCodec#encode(sac.State)
+	 */
+	@Override
+	public byte[] encode(State state) {
+		Checkers checkers = (Checkers) state;
+		byte[] code = new byte[1 + (Checkers.n * Checkers.n + 1) / 2];
+		code[0] = (byte) (checkers.isWhiteTurnNow() ? 1 : 0);
+		put(code, checkers.getWhitePawns(), Checkers.WHITE_PAWN);
+		put(code, checkers.getWhiteKings(), Checkers.WHITE_KING);
+		put(code, checkers.getBlackPawns(), Checkers.BLACK_PAWN);
+		put(code, checkers.getBlackKings(), Checkers.BLACK_KING);
+		return code;
+	}
+
+	/**
+	 * Puts given kind of piece into packed board at given locations.
+	 * 
+	 * @param code code being built
+	 * @param locations locations of pieces
+	 * @param piece piece constant
+	 */
+	private static void put(byte[] code, List<BoardLocation> locations, int piece) {
+		for (BoardLocation location : locations) {
+			int square = (location.getX() - 1) * Checkers.n + (location.getY() - 1);
+			code[1 + square / 2] |= (byte) (piece << (4 * (square % 2)));
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.StateCodec#decode(byte[])
+	 */
+	@Override
+	public State decode(byte[] code) {
+		List<BoardLocation> whitePawns = new ArrayList<BoardLocation>();
+		List<BoardLocation> whiteKings = new ArrayList<BoardLocation>();
+		List<BoardLocation> blackPawns = new ArrayList<BoardLocation>();
+		List<BoardLocation> blackKings = new ArrayList<BoardLocation>();
+		for (int square = 0; square < Checkers.n * Checkers.n; square++) {
+			int piece = (code[1 + square / 2] >>> (4 * (square % 2))) & 0xF;
+			if (piece == Checkers.NO_PIECE)
+				continue;
+			BoardLocation location = new BoardLocation(square / Checkers.n + 1, square % Checkers.n + 1);
+			switch (piece) {
+			case Checkers.WHITE_PAWN:
+				whitePawns.add(location);
+				break;
+			case Checkers.WHITE_KING:
+				whiteKings.add(location);
+				break;
+			case Checkers.BLACK_PAWN:
+				blackPawns.add(location);
+				break;
+			case Checkers.BLACK_KING:
+				blackKings.add(location);
+				break;
+			}
+		}
+		return new Checkers(whitePawns, whiteKings, blackPawns, blackKings, code[0] == 1);
+	}
+}
@@ -35,6 +35,8 @@ import sac.game.AlphaBetaPruning;
 import sac.game.GameSearchAlgorithm;
 import sac.game.GameSearchConfigurator;
 import sac.game.GameState;
+import sac.game.LazySMP;
+import sac.game.MTDf;
 import sac.game.MinMax;
 import sac.game.Scout;
 
@@ -145,12 +147,18 @@ public class CheckersGame {
 		algorithmsMapForWhite.clear();
 		algorithmsMapForBlack.clear();
 		algorithmsMapForWhite.put("alfa-beta pruning", new AlphaBetaPruning());
+		algorithmsMapForWhite.put("alfa-beta pruning (lazy smp)", new LazySMP(new AlphaBetaPruning()));
 		algorithmsMapForWhite.put("min-max", new MinMax());
+		algorithmsMapForWhite.put("mtd(f)", new MTDf());
 		algorithmsMapForWhite.put("scout", new Scout());
+		algorithmsMapForWhite.put("scout (lazy smp)", new LazySMP(new Scout()));
 		algorithmsMapForWhite.put("human", null);
 		algorithmsMapForBlack.put("alfa-beta pruning", new AlphaBetaPruning());
+		algorithmsMapForBlack.put("alfa-beta pruning (lazy smp)", new LazySMP(new AlphaBetaPruning()));
 		algorithmsMapForBlack.put("min-max", new MinMax());
+		algorithmsMapForBlack.put("mtd(f)", new MTDf());
 		algorithmsMapForBlack.put("scout", new Scout());
+		algorithmsMapForBlack.put("scout (lazy smp)", new LazySMP(new Scout()));
 		algorithmsMapForBlack.put("human", null);
 	}
 
@@ -158,9 +166,13 @@ public class CheckersGame {
 		GameSearchAlgorithm algorithmWhite = algorithmsMapForWhite.get(algorithmWhiteAsString);
 		GameSearchAlgorithm algorithmBlack = algorithmsMapForBlack.get(algorithmBlackAsString);
 		if (algorithmBlack != null) {
+			if (configuratorBlack.getStateCodecClassName() == null)
+				configuratorBlack.setStateCodecClassName(CheckersCodec.class.getName()); // for parallel searches
 			algorithmBlack.setConfigurator(configuratorBlack);
 		}
 		if (algorithmWhite != null) {
+			if (configuratorWhite.getStateCodecClassName() == null)
+				configuratorWhite.setStateCodecClassName(CheckersCodec.class.getName()); // for parallel searches
 			algorithmWhite.setConfigurator(configuratorWhite);
 		}
 
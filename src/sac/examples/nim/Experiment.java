@@ -0,0 +1,157 @@
+package sac.examples.nim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import sac.game.GameState;
+import sac.game.TranspositionTableAsArray;
+import sac.game.TranspositionTableAsLocklessArray;
+import sac.game.TranspositionTableReplacementScheme;
+
+/**
+ * Stress check of lockless transposition table (see TranspositionTableAsLocklessArray). Writer threads keep putting
+ * exact values of Nim states into a table of only two entries (so that nearly all writes collide), while reader
+ * threads keep checking that every value found for a state is the very value written for it. Afterwards a torn entry
+ * (value slot from a write that did not complete) is forged by hand: the lockless table must reject it, whereas the
+ * plain array table is shown to accept it. The duration in seconds may be given as the first argument (by default: 3).
+ * Ends with exit code 1 if any corrupted entry is returned.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class Experiment {
+
+	/**
+	 * Lockless table giving access to its slots, for forging torn entries.
+	 */
+	private static class ForgingLocklessArray extends TranspositionTableAsLocklessArray {
+
+		/**
+		 * Creates new lockless table of minimal capacity.
+		 */
+		private ForgingLocklessArray() {
+			super(0, TranspositionTableReplacementScheme.ALWAYS_REPLACE);
+		}
+
+		/**
+		 * Overwrites only the value slot of the entry of given state, as a write interrupted after that slot would.
+		 * 
+		 * @param gameState reference to game state
+		 * @param value value of the interrupted write
+		 */
+		private void tearValue(GameState gameState, double value) {
+			entries[position(key(gameState), 0) + VALUE_OFFSET] = Double.doubleToRawLongBits(value);
+		}
+	}
+
+	/**
+	 * Plain array table giving access to its slots, for forging torn entries.
+	 */
+	private static class ForgingArray extends TranspositionTableAsArray {
+
+		/**
+		 * Creates new array table of minimal capacity.
+		 */
+		private ForgingArray() {
+			super(0, TranspositionTableReplacementScheme.ALWAYS_REPLACE);
+		}
+
+		/**
+		 * Overwrites only the value slot of the entry of given state, as a write interrupted after that slot would.
+		 * 
+		 * @param gameState reference to game state
+		 * @param value value of the interrupted write
+		 */
+		private void tearValue(GameState gameState, double value) {
+			entries[position(key(gameState), 0) + VALUE_OFFSET] = Double.doubleToRawLongBits(value);
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		long duration = 1000L * ((args.length > 0) ? Integer.parseInt(args[0]) : 3);
+		int writersCount = 4;
+		int readersCount = 4;
+
+		// states with three piles of up to three elements, expected value of each state is its index
+		final List<GameState> states = new ArrayList<GameState>();
+		for (int a = 0; a <= 3; a++)
+			for (int b = 0; b <= 3; b++)
+				for (int c = 0; c <= 3; c++)
+					states.add(new NimState(Arrays.asList(a, b, c), true));
+		for (int i = 0; i < states.size(); i++)
+			for (int j = 0; j < i; j++)
+				if (states.get(i).getIdentifier().equals(states.get(j).getIdentifier()))
+					throw new IllegalStateException("Identifiers of states " + states.get(i) + " and " + states.get(j) + " collide.");
+
+		final ForgingLocklessArray table = new ForgingLocklessArray();
+		final AtomicBoolean stop = new AtomicBoolean(false);
+		final AtomicLong writesCount = new AtomicLong(0);
+		final AtomicLong hitsCount = new AtomicLong(0);
+		final AtomicLong corruptedCount = new AtomicLong(0);
+		System.out.println("Stress check of " + table + " with " + writersCount + " writers and " + readersCount + " readers for " + (duration / 1000)
+				+ " s...");
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < writersCount + readersCount; t++) {
+			final boolean writer = (t < writersCount);
+			final Random random = new Random(t);
+			threads.add(new Thread(new Runnable() {
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					long count = 0;
+					while (!stop.get()) {
+						int index = random.nextInt(states.size());
+						GameState state = states.get(index);
+						if (writer) {
+							table.putOrUpdate(state, (double) index, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+							count++;
+						} else {
+							Double value = table.get(state, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+							if (value != null) {
+								count++;
+								if (value != index)
+									corruptedCount.incrementAndGet();
+							}
+						}
+					}
+					(writer ? writesCount : hitsCount).addAndGet(count);
+				}
+			}));
+		}
+		for (Thread thread : threads)
+			thread.start();
+		Thread.sleep(duration);
+		stop.set(true);
+		for (Thread thread : threads)
+			thread.join();
+		System.out.println("Writes: " + writesCount.get() + ", verified hits: " + hitsCount.get() + ", corrupted entries returned: " + corruptedCount.get());
+
+		// torn entries forged by hand
+		GameState state = states.get(1);
+		ForgingLocklessArray locklessTable = new ForgingLocklessArray();
+		locklessTable.putOrUpdate(state, 1.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+		locklessTable.tearValue(state, 2.0);
+		Double locklessValue = locklessTable.get(state, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+		ForgingArray plainTable = new ForgingArray();
+		plainTable.putOrUpdate(state, 1.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+		plainTable.tearValue(state, 2.0);
+		Double plainValue = plainTable.get(state, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+		System.out.println("Torn entry found by lockless table: " + locklessValue + " (expected: null), by plain table: " + plainValue);
+
+		if ((corruptedCount.get() > 0) || (locklessValue != null)) {
+			System.out.println("FAILED.");
+			System.exit(1);
+		}
+		System.out.println("Passed.");
+	}
+}
\ No newline at end of file
@@ -35,7 +35,9 @@ import org.eclipse.swt.widgets.Text;
 import sac.game.AlphaBetaPruning;
 import sac.game.GameSearchAlgorithm;
 import sac.game.GameSearchConfigurator;
+import sac.game.MTDf;
 import sac.game.MinMax;
+import sac.game.RootSplit;
 import sac.game.Scout;
 
 /**
@@ -144,11 +146,19 @@ public class NimGame {
 		algorithmsMapForBlack.clear();
 		algorithmsMapForWhite.put("alfa-beta pruning", new AlphaBetaPruning());
 		algorithmsMapForWhite.put("min-max", new MinMax());
+		algorithmsMapForWhite.put("mtd(f)", new MTDf());
 		algorithmsMapForWhite.put("scout", new Scout());
+		algorithmsMapForWhite.put("alfa-beta pruning (root split)", new RootSplit(new AlphaBetaPruning()));
+		algorithmsMapForWhite.put("min-max (root split)", new RootSplit(new MinMax()));
+		algorithmsMapForWhite.put("scout (root split)", new RootSplit(new Scout()));
 		algorithmsMapForWhite.put("human", null);
 		algorithmsMapForBlack.put("alfa-beta pruning", new AlphaBetaPruning());
 		algorithmsMapForBlack.put("min-max", new MinMax());
+		algorithmsMapForBlack.put("mtd(f)", new MTDf());
 		algorithmsMapForBlack.put("scout", new Scout());
+		algorithmsMapForBlack.put("alfa-beta pruning (root split)", new RootSplit(new AlphaBetaPruning()));
+		algorithmsMapForBlack.put("min-max (root split)", new RootSplit(new MinMax()));
+		algorithmsMapForBlack.put("scout (root split)", new RootSplit(new Scout()));
 		algorithmsMapForBlack.put("human", null);
 	}
 
@@ -0,0 +1,65 @@
+package sac.examples.nim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import sac.State;
+import sac.StateCodec;
+
+/**
+ * State codec for Nim. The code of a state consists of one byte for the turn (1 - white, 0 - black) followed by sizes
+ * of successive piles, each written as a variable-length quantity (7 bits per byte).
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class NimStateCodec implements StateCodec {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.StateCodec#encode(sac.State)
+	 */
+	@Override
+	public byte[] encode(State state) {
+		NimState nimState = (NimState) state;
+		List<Integer> piles = nimState.getPiles();
+		byte[] buffer = new byte[1 + 5 * piles.size()];
+		int length = 0;
+		buffer[length++] = (byte) (nimState.isWhiteTurnNow() ? 1 : 0);
+		for (int pile : piles) {
+			while ((pile & ~0x7F) != 0) {
+				buffer[length++] = (byte) ((pile & 0x7F) | 0x80);
+				pile >>>= 7;
+			}
+			buffer[length++] = (byte) pile;
+		}
+		byte[] code = new byte[length];
+		System.arraycopy(buffer, 0, code, 0, length);
+		return code;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.StateCodec#decode(byte[])
+	 */
+	@Override
+	public State decode(byte[] code) {
+		List<Integer> piles = new ArrayList<Integer>();
+		int index = 1;
+		while (index < code.length) {
+			int pile = 0;
+			int shift = 0;
+			while (true) {
+				int b = code[index++] & 0xFF;
+				pile |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+					break;
+				shift += 7;
+			}
+			piles.add(pile);
+		}
+		return new NimState(piles, code[0] == 1);
+	}
+}
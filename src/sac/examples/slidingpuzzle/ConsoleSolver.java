@@ -12,7 +12,9 @@ import sac.StateFunction;
 import sac.graph.AStar;
 import sac.graph.GraphSearchConfigurator;
 import sac.graph.GraphSearchAlgorithm;
+import sac.graph.GraphSearchServer;
 import sac.graph.GraphState;
+import sac.graph.SolutionsCache;
 import sac.graphviz.GraphSearchGraphvizer;
 
 /**
@@ -30,6 +32,9 @@ public class ConsoleSolver {
 	public static final String COMMAND_LINE_PARAMETER_CONFIGURATOR_FILEPATH = "-c";
 	public static final String COMMAND_LINE_PARAMETER_GRAPHVIZ_OUTPUT_FILEPATH = "-g";
 	public static final String COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT = "-gWithContent";
+	public static final String COMMAND_LINE_PARAMETER_CACHE_FILEPATH = "-cache";
+	public static final String COMMAND_LINE_PARAMETER_SERVER = "-server";
+	public static final String COMMAND_LINE_PARAMETER_WORKERS = "-workers";
 
 	@SuppressWarnings("unchecked")
 	public static void main(String[] args) throws Exception {
@@ -47,6 +52,11 @@ public class ConsoleSolver {
 				+ " - output path to .dot file in Graphviz format, representing graph that was searched");
 		System.out.println(COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT
 				+ " - true/false flag stating if points in Graphviz graph should be drawn with a content or no");
+		System.out.println(COMMAND_LINE_PARAMETER_CACHE_FILEPATH
+				+ " - path to file with cache of solutions (solved instances are memorized there and answered from it when repeated)");
+		System.out.println(COMMAND_LINE_PARAMETER_SERVER
+				+ " - server mode: 'stdin' or a port number of localhost socket, to read sliding puzzles of the same size as the given one (one per line) and respond with solutions");
+		System.out.println(COMMAND_LINE_PARAMETER_WORKERS + " - number of workers solving instances concurrently in server mode (default: number of processors)");
 		System.out.println("---------------------------------------------------------------------------------------------------------------------------");
 
 		Map<String, String> parameters = new HashMap<String, String>();
@@ -148,12 +158,70 @@ public class ConsoleSolver {
 		if (parameters.get(COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT) != null)
 			graphvizPointsWithContent = Boolean.valueOf(parameters.get(COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT));
 
+		// server mode (instances read from standard input or localhost socket, one per line)
+		if (parameters.get(COMMAND_LINE_PARAMETER_SERVER) != null) {
+			final int size = SlidingPuzzle.N; // size fixed for all instances (static in SlidingPuzzle)
+			int workersCount = (parameters.get(COMMAND_LINE_PARAMETER_WORKERS) != null) ? Integer.valueOf(parameters.get(COMMAND_LINE_PARAMETER_WORKERS))
+					: Runtime.getRuntime().availableProcessors();
+			GraphSearchServer server = new GraphSearchServer(algorithm.getClass().getName(), configurator, new GraphSearchServer.InstanceParser() {
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see sac.graph.GraphSearchServer.InstanceParser#parse(java.lang.String)
+				 */
+				@Override
+				public GraphState parse(String line) throws Exception {
+					StringTokenizer tokenizer = new StringTokenizer(line, ",");
+					if (tokenizer.countTokens() != size)
+						throw new IllegalArgumentException("expected " + size + " comma-separated elements");
+					byte[] table = new byte[size];
+					int i = 0;
+					while (tokenizer.hasMoreTokens())
+						table[i++] = Byte.valueOf(tokenizer.nextToken().trim());
+					return new SlidingPuzzle(table);
+				}
+			}, workersCount);
+			System.out.println("SERVER MODE (PUZZLE SIZE: " + size + ", WORKERS: " + workersCount + ").");
+			if (parameters.get(COMMAND_LINE_PARAMETER_SERVER).equals("stdin")) {
+				server.serve(System.in, System.out);
+				server.shutdown();
+			} else
+				server.serve(Integer.valueOf(parameters.get(COMMAND_LINE_PARAMETER_SERVER)));
+			System.out.println("ALL DONE.");
+			return;
+		}
+
 		System.out.println("SLIDING PUZZLE TO SOLVE:");
 		System.out.println(slidingPuzzle);
 
 		System.out.println("ALGORITHM: " + algorithm.getClass().getName() + ".");
 		System.out.println("HEURISTICS: " + heuristics.getClass().getName() + ".");
 
+		// solutions cache
+		SolutionsCache cache = null;
+		String cacheKey = null;
+		if (parameters.get(COMMAND_LINE_PARAMETER_CACHE_FILEPATH) != null) {
+			try {
+				cache = new SolutionsCache(parameters.get(COMMAND_LINE_PARAMETER_CACHE_FILEPATH));
+			} catch (Exception e) {
+				System.out.println("SPECIFIED CACHE FILE CANNOT BE READ OR WRITTEN.");
+				return;
+			}
+			cacheKey = SolutionsCache.key(algorithm.getClass().getName(), heuristics.getClass().getName(), slidingPuzzle.toString());
+			long lookupStartTime = System.nanoTime();
+			SolutionsCache.Entry entry = cache.get(cacheKey);
+			if (entry != null) {
+				System.out.println("SOLUTION FOUND IN CACHE (LOOKUP TIME: " + ((System.nanoTime() - lookupStartTime) / 1000) + " us).");
+				System.out.println("PATH LENGTH (INCLUDING TERMINAL STATES): " + (entry.getMoves().size() + 1) + ".");
+				System.out.println("PATH AS SEQUENCE OF MOVES: " + entry.getMoves() + ".");
+				System.out.println("PATH COST: " + entry.getCost() + ".");
+				cache.close();
+				System.out.println("ALL DONE.");
+				return;
+			}
+		}
+
 		System.out.println("SOLVING...");
 		
 		algorithm.execute();
@@ -174,6 +242,12 @@ public class ConsoleSolver {
 			System.out.println("PATH AS SEQUENCE OF MOVES: " + solution.getMovesAlongPath() + ".");
 		}
 
+		if (cache != null) {
+			if (!algorithm.getSolutions().isEmpty())
+				cache.put(cacheKey, algorithm.getSolutions().get(0));
+			cache.close();
+		}
+
 		if (graphvizFilepath != null)
 			GraphSearchGraphvizer.go(algorithm, graphvizFilepath, (graphvizPointsWithContent), true);
 
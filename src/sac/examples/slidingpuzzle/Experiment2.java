@@ -0,0 +1,74 @@
+package sac.examples.slidingpuzzle;
+
+import sac.graph.AStar;
+import sac.graph.ClosedSetAsHashMap;
+import sac.graph.ClosedSetAsLongHashTable;
+import sac.graph.ClosedSetAsLongHashTableCompact;
+import sac.graph.ClosedSetAsPermutationRankBitArray;
+import sac.graph.ClosedSetAsTreeMap;
+import sac.graph.GraphSearchConfigurator;
+import sac.stats.Stats;
+import sac.stats.StatsBarChart;
+import sac.stats.StatsCategory;
+import sac.stats.StatsOperationType;
+
+/**
+ * Comparative experiment for sliding puzzle problem over closed set implementations: 50 random 8-puzzle problems
+ * solved by A* (manhattan heuristic) with closed set as: HashMap, TreeMap, long hash table, compact long hash table
+ * and permutation rank bit array (the latter three are given SlidingPuzzleCodec as state codec). After execution a
+ * plot with comparison of durations is generated and saved at the current folder.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class Experiment2 {
+
+	@SuppressWarnings("rawtypes")
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Starting...");
+		long t1 = System.currentTimeMillis();
+
+		Stats stats = new Stats();
+		SlidingPuzzle.setHFunction(new HFunctionManhattan());
+
+		// loop over random sliding puzzle problems
+		for (int i = 0; i < 50; i++) {
+			SlidingPuzzle puzzle = new SlidingPuzzle((byte) 3);
+			puzzle.shuffle((Math.random() > 0.5) ? 1000 : 1001); // even or odd number of shuffling moves
+
+			// loop over different closed set implementations
+			Class[] closedSetClasses = { ClosedSetAsHashMap.class, ClosedSetAsTreeMap.class, ClosedSetAsLongHashTable.class,
+					ClosedSetAsLongHashTableCompact.class, ClosedSetAsPermutationRankBitArray.class };
+			for (Class closedSetClass : closedSetClasses) {
+				GraphSearchConfigurator configurator = new GraphSearchConfigurator();
+				configurator.setClosedSetClassName(closedSetClass.getName());
+				configurator.setStateCodecClassName(SlidingPuzzleCodec.class.getName());
+				AStar astar = new AStar(new SlidingPuzzle(puzzle), configurator);
+
+				// search
+				astar.execute();
+
+				// register current single run in stats object
+				stats.addEntries(astar, i, closedSetClass);
+			}
+		}
+
+		long t2 = System.currentTimeMillis();
+		System.out.println("Experiment total time [s]: " + (0.001 * (t2 - t1)));
+
+		// sliding puzzle - duration over closed sets (bar chart)
+		StatsBarChart statsBarChart = new StatsBarChart(stats, "sliding puzzle - duration", "closed set", "time [ms]");
+		statsBarChart.setValue("A*", "HM", StatsOperationType.MEAN, StatsCategory.GRAPH_SEARCH_DURATION_TIME.toString(), null, ClosedSetAsHashMap.class);
+		statsBarChart.setValue("A*", "TM", StatsOperationType.MEAN, StatsCategory.GRAPH_SEARCH_DURATION_TIME.toString(), null, ClosedSetAsTreeMap.class);
+		statsBarChart.setValue("A*", "LHT", StatsOperationType.MEAN, StatsCategory.GRAPH_SEARCH_DURATION_TIME.toString(), null,
+				ClosedSetAsLongHashTable.class);
+		statsBarChart.setValue("A*", "LHTC", StatsOperationType.MEAN, StatsCategory.GRAPH_SEARCH_DURATION_TIME.toString(), null,
+				ClosedSetAsLongHashTableCompact.class);
+		statsBarChart.setValue("A*", "PRBA", StatsOperationType.MEAN, StatsCategory.GRAPH_SEARCH_DURATION_TIME.toString(), null,
+				ClosedSetAsPermutationRankBitArray.class);
+		statsBarChart.saveAsJPEG("./sliding_puzzle_closed_sets_duration.jpg");
+
+		System.out.println("Charts done.");
+	}
+}
@@ -0,0 +1,71 @@
+package sac.examples.slidingpuzzle;
+
+import java.lang.management.ManagementFactory;
+
+import sac.graph.AStar;
+
+/**
+ * Allocation profiling check for graph search: random 15-puzzle problems are solved by A* (manhattan heuristic) and
+ * the number of bytes allocated by the searching thread (measured via com.sun.management.ThreadMXBean) is divided by
+ * the number of expansions (closed states). The fixed cost of a search (initial capacities of open and closed sets),
+ * measured on an already solved puzzle, is subtracted first. The check passes if the bytes allocated per expansion
+ * stay within MAX_BYTES_PER_EXPANSION, ends with exit code 1 otherwise. The first problem warms up the JVM and is not
+ * counted.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class Experiment3 {
+
+	/**
+	 * Bound on bytes allocated per expansion (the new state with its board, identifier and entries in open and closed
+	 * sets).
+	 */
+	public static final long MAX_BYTES_PER_EXPANSION = 1024;
+
+	public static void main(String[] args) throws Exception {
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		SlidingPuzzle.setHFunction(new HFunctionManhattan());
+
+		// fixed cost of a search
+		long fixedBytes = Long.MAX_VALUE;
+		for (int i = 0; i < 3; i++) {
+			AStar astar = new AStar(new SlidingPuzzle(4));
+			long bytes1 = threadMXBean.getThreadAllocatedBytes(threadId);
+			astar.execute();
+			long bytes2 = threadMXBean.getThreadAllocatedBytes(threadId);
+			fixedBytes = Math.min(fixedBytes, bytes2 - bytes1);
+		}
+		System.out.println("Fixed bytes per search: " + fixedBytes);
+
+		long totalBytes = 0;
+		long totalExpansions = 0;
+		for (int i = 0; i <= 10; i++) {
+			SlidingPuzzle puzzle = new SlidingPuzzle(4);
+			puzzle.shuffle(60);
+			AStar astar = new AStar(puzzle);
+
+			long bytes1 = threadMXBean.getThreadAllocatedBytes(threadId);
+			astar.execute();
+			long bytes2 = threadMXBean.getThreadAllocatedBytes(threadId);
+
+			long bytes = Math.max(0, bytes2 - bytes1 - fixedBytes);
+			int expansions = astar.getClosedStatesCount();
+			System.out.println("Problem " + i + ": expansions: " + expansions + ", bytes per expansion: " + (bytes / Math.max(1, expansions))
+					+ ((i == 0) ? " (warm-up)" : ""));
+			if (i > 0) {
+				totalBytes += bytes;
+				totalExpansions += expansions;
+			}
+		}
+
+		long bytesPerExpansion = totalBytes / Math.max(1, totalExpansions);
+		System.out.println("Mean bytes per expansion: " + bytesPerExpansion + " (bound: " + MAX_BYTES_PER_EXPANSION + ")");
+		if (bytesPerExpansion > MAX_BYTES_PER_EXPANSION) {
+			System.out.println("FAILED.");
+			System.exit(1);
+		}
+		System.out.println("Passed.");
+	}
+}
\ No newline at end of file
@@ -1,21 +1,23 @@
 package sac.examples.slidingpuzzle;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 
 import sac.graph.GraphState;
 import sac.graph.GraphStateImpl;
+import sac.graph.ReversibleGraphState;
 
 /**
- * Sliding puzzle state.
+ * Sliding puzzle state. Implements ReversibleGraphState with four operators: moves of the empty element to the right
+ * (R), left (L), down (D) and up (U).
  * 
  * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>) <br>
  * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
  */
-public class SlidingPuzzle extends GraphStateImpl {
+public class SlidingPuzzle extends GraphStateImpl implements ReversibleGraphState {
 
 	/**
 	 * Size of the puzzle (one side of the board).
@@ -37,6 +39,11 @@ public class SlidingPuzzle extends GraphStateImpl {
 	 */
 	protected byte[] board;
 
+	/**
+	 * Names of operators (moves of the empty element): R, L, D, U. The operator undoing operator k is k ^ 1.
+	 */
+	private static final String[] OPERATORS_NAMES = { "R", "L", "D", "U" };
+
 	/**
 	 * Creates new instance of the sliding puzzle.
 	 * 
@@ -129,22 +136,79 @@ public class SlidingPuzzle extends GraphStateImpl {
 
 	@Override
 	public List<GraphState> generateChildren() {
-		List<GraphState> list = new LinkedList<GraphState>();
-		Iterator<Byte> it = getPossibleMoves().listIterator();
-		while (it.hasNext()) {
-			SlidingPuzzle child = new SlidingPuzzle(this);
-			child.makeMove(it.next());
-			String moveName = "D";
-			if (this.emptyIndex - 1 == child.emptyIndex)
-				moveName = "L";
-			else if (this.emptyIndex + 1 == child.emptyIndex)
-				moveName = "R";
-			else if (this.emptyIndex - n == child.emptyIndex)
-				moveName = "U";
-			child.setMoveName(moveName);
-			list.add(child);
+		List<GraphState> children = new ArrayList<GraphState>(4);
+		generateChildren(children);
+		return children;
+	}
+
+	@Override
+	public void generateChildren(List<GraphState> children) {
+		// moves checked in the same order as in getPossibleMoves(), but without allocating a list of moves
+		if ((emptyIndex % n) + 1 < n)
+			addChild(children, (byte) (emptyIndex + 1), "R");
+		if ((emptyIndex % n) - 1 >= 0)
+			addChild(children, (byte) (emptyIndex - 1), "L");
+		if (emptyIndex + n < N)
+			addChild(children, (byte) (emptyIndex + n), "D");
+		if (emptyIndex - n >= 0)
+			addChild(children, (byte) (emptyIndex - n), "U");
+	}
+
+	/**
+	 * Adds to given list a child of this sliding puzzle obtained by a move of the empty element to a new position.
+	 * 
+	 * @param children list to which the child is added
+	 * @param newEmptyIndex new index for the empty position
+	 * @param moveName name of the move
+	 */
+	private void addChild(List<GraphState> children, byte newEmptyIndex, String moveName) {
+		SlidingPuzzle child = new SlidingPuzzle(this);
+		child.makeMove(newEmptyIndex);
+		child.setMoveName(moveName);
+		children.add(child);
+	}
+
+	@Override
+	public int getMaxNumberOfOperators() {
+		return OPERATORS_NAMES.length;
+	}
+
+	@Override
+	public int getOperators(int[] operators) {
+		// the same order as in generateChildren(...)
+		int count = 0;
+		if ((emptyIndex % n) + 1 < n)
+			operators[count++] = 0;
+		if ((emptyIndex % n) - 1 >= 0)
+			operators[count++] = 1;
+		if (emptyIndex + n < N)
+			operators[count++] = 2;
+		if (emptyIndex - n >= 0)
+			operators[count++] = 3;
+		return count;
+	}
+
+	@Override
+	public int applyOperator(int operator) {
+		switch (operator) {
+		case 0:
+			makeMove((byte) (emptyIndex + 1));
+			break;
+		case 1:
+			makeMove((byte) (emptyIndex - 1));
+			break;
+		case 2:
+			makeMove((byte) (emptyIndex + n));
+			break;
+		default:
+			makeMove((byte) (emptyIndex - n));
 		}
-		return list;
+		return operator ^ 1;
+	}
+
+	@Override
+	public String getOperatorName(int operator) {
+		return OPERATORS_NAMES[operator];
 	}
 
 	@Override
@@ -0,0 +1,66 @@
+package sac.examples.slidingpuzzle;
+
+import sac.LongStateCodec;
+import sac.State;
+
+/**
+ * State codec for sliding puzzle. The code of a state is its board (one byte per position, row after row), hence it is
+ * a permutation of {0, 1, ..., N-1}. For puzzles up to 4 x 4, states can also be encoded as long keys (4 bits per
+ * position, position 0 at the lowest bits).
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class SlidingPuzzleCodec implements LongStateCodec {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.StateCodec#encode(sac.State)
+	 */
+	@Override
+	public byte[] encode(State state) {
+		return ((SlidingPuzzle) state).board.clone();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.StateCodec#decode(byte[])
+	 */
+	@Override
+	public State decode(byte[] code) {
+		return new SlidingPuzzle(code);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.LongStateCodec#encodeAsLong(sac.State)
+	 */
+	@Override
+	public long encodeAsLong(State state) {
+		byte[] board = ((SlidingPuzzle) state).board;
+		if (board.length > 16)
+			throw new IllegalArgumentException("Sliding puzzles larger than 4 x 4 cannot be encoded as long keys.");
+		long key = 0L;
+		for (int i = board.length - 1; i >= 0; i--)
+			key = (key << 4) | board[i];
+		return key;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.LongStateCodec#decodeFromLong(long)
+	 */
+	@Override
+	public State decodeFromLong(long key) {
+		byte[] board = new byte[SlidingPuzzle.N];
+		for (int i = 0; i < board.length; i++) {
+			board[i] = (byte) (key & 0xF);
+			key >>>= 4;
+		}
+		return new SlidingPuzzle(board);
+	}
+}
@@ -0,0 +1,110 @@
+package sac.examples.slidingpuzzle;
+
+import sac.PartialPermutationStateCodec;
+import sac.State;
+
+/**
+ * Pattern state codec for sliding puzzle, meant for subproblems (abstractions) where only a pattern of chosen tiles
+ * matters and all states agreeing on their positions are treated as one. The code of a state consists of positions of
+ * the pattern tiles, hence it is a k-of-N partial permutation (k - number of pattern tiles). By default (constructor
+ * without arguments) the pattern is the fringe: the empty tile and tiles of the first row and of the first column of
+ * the solution (7 tiles of 15-puzzle, 16!/9! = 57657600 codes). Decoded states have the other tiles placed in
+ * increasing order at the remaining positions.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class SlidingPuzzlePatternCodec implements PartialPermutationStateCodec {
+
+	/**
+	 * Tiles of pattern (null for the fringe pattern, determined on first use).
+	 */
+	private byte[] tiles = null;
+
+	/**
+	 * Creates new pattern codec with the fringe pattern.
+	 */
+	public SlidingPuzzlePatternCodec() {
+	}
+
+	/**
+	 * Creates new pattern codec with given pattern.
+	 * 
+	 * @param tiles tiles of pattern (0 for the empty tile)
+	 */
+	public SlidingPuzzlePatternCodec(byte... tiles) {
+		this.tiles = tiles.clone();
+	}
+
+	/**
+	 * Returns tiles of pattern (determining the fringe pattern for the current size of puzzle if needed).
+	 * 
+	 * @return tiles of pattern
+	 */
+	public byte[] getTiles() {
+		if (tiles == null) {
+			byte[] fringe = new byte[2 * SlidingPuzzle.n - 1];
+			int k = 0;
+			for (byte tile = 0; tile < SlidingPuzzle.N; tile++)
+				if ((tile < SlidingPuzzle.n) || (tile % SlidingPuzzle.n == 0))
+					fringe[k++] = tile;
+			tiles = fringe;
+		}
+		return tiles;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.PartialPermutationStateCodec#getElementsCount()
+	 */
+	@Override
+	public int getElementsCount() {
+		return SlidingPuzzle.N;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.StateCodec#encode(sac.State)
+	 */
+	@Override
+	public byte[] encode(State state) {
+		byte[] board = ((SlidingPuzzle) state).board;
+		byte[] tiles = getTiles();
+		byte[] code = new byte[tiles.length];
+		for (int j = 0; j < tiles.length; j++)
+			for (byte i = 0; i < board.length; i++)
+				if (board[i] == tiles[j]) {
+					code[j] = i;
+					break;
+				}
+		return code;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.StateCodec#decode(byte[])
+	 */
+	@Override
+	public State decode(byte[] code) {
+		byte[] tiles = getTiles();
+		byte[] board = new byte[SlidingPuzzle.N];
+		boolean[] occupied = new boolean[board.length];
+		boolean[] placed = new boolean[board.length];
+		for (int j = 0; j < tiles.length; j++) {
+			board[code[j]] = tiles[j];
+			occupied[code[j]] = true;
+			placed[tiles[j]] = true;
+		}
+		byte tile = 0;
+		for (int i = 0; i < board.length; i++)
+			if (!occupied[i]) {
+				while (placed[tile])
+					tile++;
+				board[i] = tile++;
+			}
+		return new SlidingPuzzle(board);
+	}
+}
\ No newline at end of file
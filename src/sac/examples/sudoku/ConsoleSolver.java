@@ -13,7 +13,9 @@ import sac.examples.slidingpuzzle.SlidingPuzzle;
 import sac.graph.BestFirstSearch;
 import sac.graph.GraphSearchConfigurator;
 import sac.graph.GraphSearchAlgorithm;
+import sac.graph.GraphSearchServer;
 import sac.graph.GraphState;
+import sac.graph.SolutionsCache;
 import sac.graphviz.GraphSearchGraphvizer;
 
 /**
@@ -30,6 +32,9 @@ public class ConsoleSolver {
 	public static final String COMMAND_LINE_PARAMETER_CONFIGURATOR_FILEPATH = "-c";
 	public static final String COMMAND_LINE_PARAMETER_GRAPHVIZ_OUTPUT_FILEPATH = "-g";
 	public static final String COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT = "-gWithContent";
+	public static final String COMMAND_LINE_PARAMETER_CACHE_FILEPATH = "-cache";
+	public static final String COMMAND_LINE_PARAMETER_SERVER = "-server";
+	public static final String COMMAND_LINE_PARAMETER_WORKERS = "-workers";
 
 	@SuppressWarnings("unchecked")
 	public static void main(String[] args) throws Exception {
@@ -46,6 +51,11 @@ public class ConsoleSolver {
 				+ " - output path to .dot file in Graphviz format representing graph that was searched");
 		System.out.println(COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT
 				+ " - true/false flag stating if points in Graphviz graph should be drawn with a content or no");
+		System.out.println(COMMAND_LINE_PARAMETER_CACHE_FILEPATH
+				+ " - path to file with cache of solutions (solved instances are memorized there and answered from it when repeated)");
+		System.out.println(COMMAND_LINE_PARAMETER_SERVER
+				+ " - server mode: 'stdin' or a port number of localhost socket, to read sudokus of the same size as the given one (one per line) and respond with solutions");
+		System.out.println(COMMAND_LINE_PARAMETER_WORKERS + " - number of workers solving instances concurrently in server mode (default: number of processors)");
 		System.out.println("---------------------------------------------------------------------------------------------------------------------------");
 
 		Map<String, String> parameters = new HashMap<String, String>();
@@ -134,12 +144,66 @@ public class ConsoleSolver {
 		if (parameters.get(COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT) != null)
 			graphvizPointsWithContent = Boolean.valueOf(parameters.get(COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT));
 
+		// server mode (instances read from standard input or localhost socket, one per line)
+		if (parameters.get(COMMAND_LINE_PARAMETER_SERVER) != null) {
+			final int size = Sudoku.n; // size fixed for all instances (static in Sudoku)
+			int workersCount = (parameters.get(COMMAND_LINE_PARAMETER_WORKERS) != null) ? Integer.valueOf(parameters.get(COMMAND_LINE_PARAMETER_WORKERS))
+					: Runtime.getRuntime().availableProcessors();
+			GraphSearchServer server = new GraphSearchServer(BestFirstSearch.class.getName(), configurator, new GraphSearchServer.InstanceParser() {
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see sac.graph.GraphSearchServer.InstanceParser#parse(java.lang.String)
+				 */
+				@Override
+				public GraphState parse(String line) throws Exception {
+					StringTokenizer tokenizer = new StringTokenizer(line, ",");
+					if (tokenizer.countTokens() != size * size * size * size)
+						throw new IllegalArgumentException("expected " + (size * size * size * size) + " comma-separated elements");
+					return new Sudoku(size, line);
+				}
+			}, workersCount);
+			System.out.println("SERVER MODE (SUDOKU SIZE: " + size + ", WORKERS: " + workersCount + ").");
+			if (parameters.get(COMMAND_LINE_PARAMETER_SERVER).equals("stdin")) {
+				server.serve(System.in, System.out);
+				server.shutdown();
+			} else
+				server.serve(Integer.valueOf(parameters.get(COMMAND_LINE_PARAMETER_SERVER)));
+			System.out.println("ALL DONE.");
+			return;
+		}
+
 		System.out.println("SUDOKU TO SOLVE:");
 		System.out.println(sudoku);		
 		
 		GraphSearchAlgorithm algorithm = new BestFirstSearch(sudoku, configurator);
 		
 		System.out.println("HEURISTICS: " + heuristics.getClass().getName() + ".");
+		// solutions cache (only the first solution is memorized)
+		SolutionsCache cache = null;
+		String cacheKey = null;
+		if ((parameters.get(COMMAND_LINE_PARAMETER_CACHE_FILEPATH) != null) && (configurator.getWantedNumberOfSolutions() == 1)) {
+			try {
+				cache = new SolutionsCache(parameters.get(COMMAND_LINE_PARAMETER_CACHE_FILEPATH));
+			} catch (Exception e) {
+				System.out.println("SPECIFIED CACHE FILE CANNOT BE READ OR WRITTEN.");
+				return;
+			}
+			cacheKey = SolutionsCache.key(algorithm.getClass().getName(), heuristics.getClass().getName(), sudoku.toString());
+			long lookupStartTime = System.nanoTime();
+			SolutionsCache.Entry entry = cache.get(cacheKey);
+			if (entry != null) {
+				System.out.println("SOLUTION FOUND IN CACHE (LOOKUP TIME: " + ((System.nanoTime() - lookupStartTime) / 1000) + " us).");
+				System.out.println("PATH LENGTH (INCLUDING TERMINAL STATES): " + (entry.getMoves().size() + 1) + ".");
+				System.out.println("PATH AS SEQUENCE OF MOVES: " + entry.getMoves() + ".");
+				System.out.println("PATH COST: " + entry.getCost() + ".");
+				cache.close();
+				System.out.println("ALL DONE.");
+				return;
+			}
+		}
+
 		System.out.println("SOLVING...");
 		
 		algorithm.execute();
@@ -162,6 +226,12 @@ public class ConsoleSolver {
 			}
 		}
 
+		if (cache != null) {
+			if (!algorithm.getSolutions().isEmpty())
+				cache.put(cacheKey, algorithm.getSolutions().get(0));
+			cache.close();
+		}
+
 		if (graphvizFilepath != null)
 			GraphSearchGraphvizer.go(algorithm, graphvizFilepath, (graphvizPointsWithContent), true);
 
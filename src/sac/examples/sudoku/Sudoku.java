@@ -2,8 +2,11 @@ package sac.examples.sudoku;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.SortedSet;
 import java.util.StringTokenizer;
 import java.util.TreeSet;
@@ -130,18 +133,66 @@ public class Sudoku extends GraphStateImpl {
 			return children; // discrepancy or solution
 		if (theH > 0) {
 			for (byte possibility : possibilities) {
-				Sudoku child = new Sudoku(this);
-				child.board[minI][minJ] = possibility;
-				if (child.isAdmissible(minI, minJ)) {
-					child.emptyCells = emptyCells - 1;
-					child.setMoveName("(" + (minI + 1) + "," + (minJ + 1) + "):=" + possibility);
+				Sudoku child = generateChild(possibility);
+				if (child != null)
 					children.add(child);
-				}
 			}
 		}
 		return children;
 	}
 
+	@Override
+	public Iterator<GraphState> generateChildrenLazily() {
+		double theH = getH(); // pre-calculations (as in generateChildren())
+		if ((minRemainingPossibilities == 0) || (theH <= 0))
+			return Collections.<GraphState> emptyList().iterator();
+		final Iterator<Byte> possibilitiesIterator = possibilities.iterator();
+		return new Iterator<GraphState>() {
+
+			/**
+			 * Next admissible child (null until looked for).
+			 */
+			private Sudoku next = null;
+
+			@Override
+			public boolean hasNext() {
+				while ((next == null) && (possibilitiesIterator.hasNext()))
+					next = generateChild(possibilitiesIterator.next());
+				return next != null;
+			}
+
+			@Override
+			public GraphState next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				Sudoku child = next;
+				next = null;
+				return child;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Generates a child by putting given possibility into the 'minimum cell'.
+	 * 
+	 * @param possibility number to be put
+	 * @return child, or null if it is not admissible
+	 */
+	private Sudoku generateChild(byte possibility) {
+		Sudoku child = new Sudoku(this);
+		child.board[minI][minJ] = possibility;
+		if (!child.isAdmissible(minI, minJ))
+			return null;
+		child.emptyCells = emptyCells - 1;
+		child.setMoveName("(" + (minI + 1) + "," + (minJ + 1) + "):=" + possibility);
+		return child;
+	}
+
 	@Override
 	public boolean isSolution() {
 		return (emptyCells == 0);
@@ -0,0 +1,44 @@
+package sac.examples.sudoku;
+
+import sac.State;
+import sac.StateCodec;
+
+/**
+ * State codec for sudoku. The code of a state is its board (one byte per cell, row after row, 0 for empty cells).
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class SudokuCodec implements StateCodec {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.StateCodec#encode(sac.State)
+	 */
+	@Override
+	public byte[] encode(State state) {
+		Sudoku sudoku = (Sudoku) state;
+		byte[] code = new byte[Sudoku.N * Sudoku.N];
+		for (int i = 0; i < Sudoku.N; i++)
+			System.arraycopy(sudoku.board[i], 0, code, i * Sudoku.N, Sudoku.N);
+		return code;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.StateCodec#decode(byte[])
+	 */
+	@Override
+	public State decode(byte[] code) {
+		Sudoku sudoku = new Sudoku(Sudoku.n);
+		for (int i = 0; i < Sudoku.N; i++)
+			for (int j = 0; j < Sudoku.N; j++) {
+				sudoku.board[i][j] = code[i * Sudoku.N + j];
+				if (sudoku.board[i][j] > 0)
+					sudoku.emptyCells--;
+			}
+		return sudoku;
+	}
+}
@@ -2,12 +2,17 @@ package sac.examples.tsp;
 
 import java.lang.reflect.Constructor;
 import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.StringTokenizer;
 
 import sac.graph.AStar;
 import sac.graph.GraphSearchConfigurator;
 import sac.graph.GraphSearchAlgorithm;
+import sac.graph.GraphSearchServer;
 import sac.graph.GraphState;
+import sac.graph.SolutionsCache;
 import sac.graphviz.GraphSearchGraphvizer;
 
 /**
@@ -26,6 +31,9 @@ public class ConsoleSolver {
 	public static final String COMMAND_LINE_PARAMETER_CONFIGURATOR_FILEPATH = "-c";
 	public static final String COMMAND_LINE_PARAMETER_GRAPHVIZ_OUTPUT_FILEPATH = "-g";
 	public static final String COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT = "-gWithContent";
+	public static final String COMMAND_LINE_PARAMETER_CACHE_FILEPATH = "-cache";
+	public static final String COMMAND_LINE_PARAMETER_SERVER = "-server";
+	public static final String COMMAND_LINE_PARAMETER_WORKERS = "-workers";
 
 	@SuppressWarnings("unchecked")
 	public static void main(String[] args) throws Exception {
@@ -43,6 +51,10 @@ public class ConsoleSolver {
 				+ " - output path to .dot file in Graphviz format representing graph that was searched)");
 		System.out.println(COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT
 				+ " - true/false flag stating if points in Graphviz graph should be drawn with a content or no");
+		System.out.println(COMMAND_LINE_PARAMETER_CACHE_FILEPATH
+				+ " - path to file with cache of solutions (solved instances are memorized there and answered from it when repeated)");
+		System.out.println(COMMAND_LINE_PARAMETER_SERVER
+				+ " - server mode: 'stdin' or a port number of localhost socket, to read TSPs (places written as: x,y;x,y;...) (one per line) and respond with solutions");
 		System.out.println("---------------------------------------------------------------------------------------------------------------------------");
 
 		Map<String, String> parameters = new HashMap<String, String>();
@@ -106,6 +118,40 @@ public class ConsoleSolver {
 		if (parameters.get(COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT) != null)
 			graphvizPointsWithContent = Boolean.valueOf(parameters.get(COMMAND_LINE_PARAMETER_GRAPHVIZ_POINTS_WITH_CONTENT));
 
+		// server mode (instances read from standard input or localhost socket, one per line)
+		if (parameters.get(COMMAND_LINE_PARAMETER_SERVER) != null) {
+			int workersCount = 1; // map is static in TravelingSalesmanProblem, hence one worker
+			GraphSearchServer server = new GraphSearchServer(algorithm.getClass().getName(), configurator, new GraphSearchServer.InstanceParser() {
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see sac.graph.GraphSearchServer.InstanceParser#parse(java.lang.String)
+				 */
+				@Override
+				public GraphState parse(String line) throws Exception {
+					StringTokenizer placesTokenizer = new StringTokenizer(line, ";");
+					List<Place> places = new LinkedList<Place>();
+					int i = 0;
+					while (placesTokenizer.hasMoreTokens()) {
+						StringTokenizer coordinatesTokenizer = new StringTokenizer(placesTokenizer.nextToken(), ",");
+						double x = Double.parseDouble(coordinatesTokenizer.nextToken().trim());
+						double y = Double.parseDouble(coordinatesTokenizer.nextToken().trim());
+						places.add(new Place(++i, x, y));
+					}
+					return new TravelingSalesmanProblem(new sac.examples.tsp.Map(places));
+				}
+			}, workersCount);
+			System.out.println("SERVER MODE (WORKERS: " + workersCount + ").");
+			if (parameters.get(COMMAND_LINE_PARAMETER_SERVER).equals("stdin")) {
+				server.serve(System.in, System.out);
+				server.shutdown();
+			} else
+				server.serve(Integer.valueOf(parameters.get(COMMAND_LINE_PARAMETER_SERVER)));
+			System.out.println("ALL DONE.");
+			return;
+		}
+
 		System.out.println("TSP TO SOLVE:");
 		System.out.println(TravelingSalesmanProblem.map);
 
@@ -119,6 +165,30 @@ public class ConsoleSolver {
 
 		System.out.println("ALGORITHM: " + algorithm.getClass().getName());
 
+		// solutions cache
+		SolutionsCache cache = null;
+		String cacheKey = null;
+		if (parameters.get(COMMAND_LINE_PARAMETER_CACHE_FILEPATH) != null) {
+			try {
+				cache = new SolutionsCache(parameters.get(COMMAND_LINE_PARAMETER_CACHE_FILEPATH));
+			} catch (Exception e) {
+				System.out.println("SPECIFIED CACHE FILE CANNOT BE READ OR WRITTEN.");
+				return;
+			}
+			cacheKey = SolutionsCache.key(algorithm.getClass().getName(), MinimumSpanningTree.class.getName(), TravelingSalesmanProblem.map.toString());
+			long lookupStartTime = System.nanoTime();
+			SolutionsCache.Entry entry = cache.get(cacheKey);
+			if (entry != null) {
+				System.out.println("SOLUTION FOUND IN CACHE (LOOKUP TIME: " + ((System.nanoTime() - lookupStartTime) / 1000) + " us).");
+				System.out.println("PATH LENGTH (INCLUDING TERMINAL STATES): " + (entry.getMoves().size() + 1) + ".");
+				System.out.println("PATH AS SEQUENCE OF MOVES: " + entry.getMoves() + ".");
+				System.out.println("PATH COST: " + entry.getCost() + ".");
+				cache.close();
+				System.out.println("ALL DONE.");
+				return;
+			}
+		}
+
 		System.out.println("SOLVING...");
 		algorithm.execute();
 
@@ -144,6 +214,12 @@ public class ConsoleSolver {
 			}
 		}
 
+		if (cache != null) {
+			if (!algorithm.getSolutions().isEmpty())
+				cache.put(cacheKey, algorithm.getSolutions().get(0));
+			cache.close();
+		}
+
 		if (graphvizFilepath != null)
 			GraphSearchGraphvizer.go(algorithm, graphvizFilepath, (graphvizPointsWithContent), true);
 
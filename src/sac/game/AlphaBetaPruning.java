@@ -1,9 +1,12 @@
 package sac.game;
 
-import java.util.List;
+import java.util.Iterator;
 
 /**
- * Alpha-beta cutoffs algorithm.
+ * Alpha-beta cutoffs algorithm. Optionally (see GameSearchConfigurator) with null-move pruning, where a state is cut
+ * off if even passing the move to the opponent, searched with reduced depth, keeps the opponent out of the window, and
+ * with late move reductions, where late children are first searched with reduced depth and a zero window, and searched
+ * again with the full depth only if the reduced search does not confirm they are worse than the best one so far.
  * 
  * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
  * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
@@ -48,20 +51,40 @@ public class AlphaBetaPruning extends GameSearchAlgorithm {
 				transpositionTable.putOrUpdate(gameState, gameState.getH(), alpha, beta);
 			return gameState.getH();
 		}
-		List<GameState> children = generateChildrenWrapper(gameState);
-		if (configurator.isRefutationTableOn())
-			refutationTable.reorder(gameState, children);
-		for (GameState child : children) {
+		if (beta < Double.POSITIVE_INFINITY) {
+			GameState passChild = generatePassChildWrapper(gameState, depth, depthLimit);
+			if (passChild != null) {
+				// null move: cut-off if the opponent cannot get below beta even when moving twice
+				Double passValue = evaluateReduced(passChild, Math.nextAfter(beta, Double.NEGATIVE_INFINITY), beta, depth + 0.5, depthLimit
+						- configurator.getNullMoveReduction());
+				if (passValue == null)
+					return null;
+				if (passValue >= beta)
+					return beta;
+			}
+		}
+		Iterator<GameState> children = generateChildrenLazilyWrapper(gameState);
+		for (int i = 0; children.hasNext(); i++) {
+			GameState child = children.next();
 			Double childValue = null;
 			if (configurator.isTranspositionTableOn())
 				childValue = transpositionTable.get(child, alpha, beta);
 			if (childValue == null) {
-				childValue = (child.isMaximizingTurnNow()) ? evaluateMaxState(child, alpha, beta, depth + 0.5, depthLimit) : evaluateMinState(child, alpha,
-						beta, depth + 0.5, depthLimit);
-				if (childValue == null)
-					return null;
-				if (configurator.isTranspositionTableOn())
-					transpositionTable.putOrUpdate(child, childValue, alpha, beta);
+				boolean reductionConfirmed = false;
+				if (isLateMoveReductionApplicable(gameState, child, i, depth, depthLimit)) {
+					childValue = evaluateReduced(child, alpha, Math.nextUp(alpha), depth + 0.5, depthLimit - configurator.getLateMoveReduction());
+					if (childValue == null)
+						return null;
+					reductionConfirmed = (childValue <= alpha); // otherwise searched again with full depth
+				}
+				if (!reductionConfirmed) {
+					childValue = (child.isMaximizingTurnNow()) ? evaluateMaxState(child, alpha, beta, depth + 0.5, depthLimit) : evaluateMinState(child,
+							alpha, beta, depth + 0.5, depthLimit);
+					if (childValue == null)
+						return null;
+					if (configurator.isTranspositionTableOn())
+						transpositionTable.putOrUpdate(child, childValue, alpha, beta);
+				}
 			}
 			if ((depth == 0.0) && (isExactGameValue(childValue, alpha, beta))) 
 				movesScores.put(child.getMoveName(), childValue);
@@ -71,8 +94,10 @@ public class AlphaBetaPruning extends GameSearchAlgorithm {
 				if (configurator.isRefutationTableOn())
 					refutationTable.put(gameState, child);
 			}
-			if (alpha >= beta) 
-				return alpha;			
+			if (alpha >= beta) {
+				registerCutoff(gameState, child, i, depthLimit);
+				return alpha;
+			}
 		}
 
 		return alpha;
@@ -90,20 +115,39 @@ public class AlphaBetaPruning extends GameSearchAlgorithm {
 				transpositionTable.putOrUpdate(gameState, gameState.getH(), alpha, beta);
 			return gameState.getH();
 		}
-		List<GameState> children = generateChildrenWrapper(gameState);
-		if (configurator.isRefutationTableOn())
-			refutationTable.reorder(gameState, children);
-		for (GameState child : children) {
+		if (alpha > Double.NEGATIVE_INFINITY) {
+			GameState passChild = generatePassChildWrapper(gameState, depth, depthLimit);
+			if (passChild != null) {
+				// null move: cut-off if the opponent cannot get above alpha even when moving twice
+				Double passValue = evaluateReduced(passChild, alpha, Math.nextUp(alpha), depth + 0.5, depthLimit - configurator.getNullMoveReduction());
+				if (passValue == null)
+					return null;
+				if (passValue <= alpha)
+					return alpha;
+			}
+		}
+		Iterator<GameState> children = generateChildrenLazilyWrapper(gameState);
+		for (int i = 0; children.hasNext(); i++) {
+			GameState child = children.next();
 			Double childValue = null;
 			if (configurator.isTranspositionTableOn())
 				childValue = transpositionTable.get(child, alpha, beta);
 			if (childValue == null) {
-				childValue = (child.isMaximizingTurnNow()) ? evaluateMaxState(child, alpha, beta, depth + 0.5, depthLimit) : evaluateMinState(child, alpha,
-						beta, depth + 0.5, depthLimit);
-				if (childValue == null)
-					return null;
-				if (configurator.isTranspositionTableOn())
-					transpositionTable.putOrUpdate(child, childValue, alpha, beta);
+				boolean reductionConfirmed = false;
+				if (isLateMoveReductionApplicable(gameState, child, i, depth, depthLimit)) {
+					childValue = evaluateReduced(child, Math.nextAfter(beta, Double.NEGATIVE_INFINITY), beta, depth + 0.5, depthLimit - configurator.getLateMoveReduction());
+					if (childValue == null)
+						return null;
+					reductionConfirmed = (childValue >= beta); // otherwise searched again with full depth
+				}
+				if (!reductionConfirmed) {
+					childValue = (child.isMaximizingTurnNow()) ? evaluateMaxState(child, alpha, beta, depth + 0.5, depthLimit) : evaluateMinState(child,
+							alpha, beta, depth + 0.5, depthLimit);
+					if (childValue == null)
+						return null;
+					if (configurator.isTranspositionTableOn())
+						transpositionTable.putOrUpdate(child, childValue, alpha, beta);
+				}
 			}
 			if ((depth == 0.0) && (isExactGameValue(childValue, alpha, beta)))
 				movesScores.put(child.getMoveName(), childValue);
@@ -113,8 +157,10 @@ public class AlphaBetaPruning extends GameSearchAlgorithm {
 				if (configurator.isRefutationTableOn())
 					refutationTable.put(gameState, child);
 			}
-			if (alpha >= beta) 
+			if (alpha >= beta) {
+				registerCutoff(gameState, child, i, depthLimit);
 				return beta;
+			}
 		}
 
 		return beta;
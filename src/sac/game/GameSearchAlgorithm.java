@@ -3,6 +3,7 @@ package sac.game;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -16,6 +17,11 @@ import sac.SearchAlgorithm;
  * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
  */
 public abstract class GameSearchAlgorithm extends SearchAlgorithm {
+
+	/**
+	 * Minimal index of a child (0 for the first one) to be searched with late move reduction.
+	 */
+	public static final int LATE_MOVE_REDUCTION_MIN_INDEX = 3;
 	
 	/**
 	 * Reference to initial state.
@@ -42,6 +48,16 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 	 */
 	protected RefutationTable refutationTable = null;
 
+	/**
+	 * Table of killer moves.
+	 */
+	protected KillerMovesTable killerMovesTable = null;
+
+	/**
+	 * History table.
+	 */
+	protected HistoryTable historyTable = null;
+
 	/**
 	 * Graph search configurator object.
 	 */
@@ -57,10 +73,140 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 	 */
 	protected double depthReached = 0.0;
 
+	/**
+	 * Number of cut-offs since last reset().
+	 */
+	protected int cutoffsCount = 0;
+
+	/**
+	 * Number of cut-offs caused by the first child of a state since last reset().
+	 */
+	protected int firstMoveCutoffsCount = 0;
+
 	/**
 	 * Boolean flag stating if stop was forced (e.g. from an outer thread).
 	 */
-	protected boolean stopForced = false;
+	protected volatile boolean stopForced = false;
+
+	/**
+	 * Game value of initial state calculated in last execution (null if time limit was reached).
+	 */
+	protected Double gameValue = null;
+
+	/**
+	 * Lower end of alpha-beta window for initial state. By default: -infinity.
+	 */
+	protected double initialAlpha = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Upper end of alpha-beta window for initial state. By default: +infinity.
+	 */
+	protected double initialBeta = Double.POSITIVE_INFINITY;
+
+	/**
+	 * Read-only view of transposition table, used in reduced searches (see evaluateReduced(...)).
+	 */
+	private ReadOnlyTranspositionTable readOnlyTranspositionTable = null;
+
+	/**
+	 * Read-only view of a transposition table: reads are passed to the underlying table, writes are ignored.
+	 */
+	private static class ReadOnlyTranspositionTable implements TranspositionTable {
+
+		/**
+		 * Underlying transposition table.
+		 */
+		private TranspositionTable transpositionTable;
+
+		/**
+		 * Creates new read-only view of given transposition table.
+		 * 
+		 * @param transpositionTable underlying transposition table
+		 */
+		private ReadOnlyTranspositionTable(TranspositionTable transpositionTable) {
+			this.transpositionTable = transpositionTable;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.TranspositionTable#get(sac.game.GameState, double, double)
+		 */
+		@Override
+		public Double get(GameState gameState, double alpha, double beta) {
+			return transpositionTable.get(gameState, alpha, beta);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.TranspositionTable#get(sac.game.GameState)
+		 */
+		@Override
+		public TranspositionTableEntry get(GameState gameState) {
+			return transpositionTable.get(gameState);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.TranspositionTable#putOrUpdate(sac.game.GameState, java.lang.Double, double, double)
+		 */
+		@Override
+		public void putOrUpdate(GameState gameState, Double value, double alpha, double beta) {
+			// ignored
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.TranspositionTable#remove(sac.game.GameState)
+		 */
+		@Override
+		public void remove(GameState gameState) {
+			// ignored
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.TranspositionTable#size()
+		 */
+		@Override
+		public int size() {
+			return transpositionTable.size();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.TranspositionTable#isEmpty()
+		 */
+		@Override
+		public boolean isEmpty() {
+			return transpositionTable.isEmpty();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.TranspositionTable#clear()
+		 */
+		@Override
+		public void clear() {
+			// ignored
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.TranspositionTable#getUsesCount()
+		 */
+		@Override
+		public int getUsesCount() {
+			return transpositionTable.getUsesCount();
+		}
+	}
 
 	/**
 	 * Creates new instance of game search algorithm.
@@ -94,13 +240,12 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 	 * Actual execution of search algorithm invoked from inside of execute() method.
 	 */
 	protected void doExecute() {
-		Double gameValue = null;
 		if (initial.isMaximizingTurnNow())
-			gameValue = evaluateMaxState(initial, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0.0, configurator.getDepthLimit());
+			gameValue = evaluateMaxState(initial, initialAlpha, initialBeta, 0.0, configurator.getDepthLimit());
 		else
-			gameValue = evaluateMinState(initial, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0.0, configurator.getDepthLimit());
-		if (configurator.isTranspositionTableOn())
-			transpositionTable.putOrUpdate(initial, gameValue, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+			gameValue = evaluateMinState(initial, initialAlpha, initialBeta, 0.0, configurator.getDepthLimit());
+		if ((configurator.isTranspositionTableOn()) && (gameValue != null))
+			transpositionTable.putOrUpdate(initial, gameValue, initialAlpha, initialBeta);
 		current = null;
 	}
 
@@ -112,11 +257,15 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 	 * @param beta upper bound on game value known for given game state
 	 * @param depth current depth
 	 * @param depthLimit depth limit
-	 * @return calculated game value (or null if time limit is reached)
+	 * @return calculated game value (or null if time limit is reached or stop was forced)
 	 */
 	protected final Double evaluateMaxState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
-		// time limit check
-		if ((stopForced) || (configurator.getTimeLimit() < Long.MAX_VALUE)) {
+		// forced stop and time limit check
+		if (stopForced) {
+			endTime = System.currentTimeMillis();
+			return null;
+		}
+		if (configurator.getTimeLimit() < Long.MAX_VALUE) {
 			long currentTime = System.currentTimeMillis();
 			if (currentTime - startTime > configurator.getTimeLimit()) {
 				endTime = System.currentTimeMillis();
@@ -137,11 +286,15 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 	 * @param beta upper bound on game value known for given game state
 	 * @param depth current depth
 	 * @param depthLimit depth limit
-	 * @return calculated game value (or null if time limit is reached)
+	 * @return calculated game value (or null if time limit is reached or stop was forced)
 	 */
 	protected final Double evaluateMinState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
-		// time limit check
-		if ((stopForced) || (configurator.getTimeLimit() < Long.MAX_VALUE)) {
+		// forced stop and time limit check
+		if (stopForced) {
+			endTime = System.currentTimeMillis();
+			return null;
+		}
+		if (configurator.getTimeLimit() < Long.MAX_VALUE) {
 			long currentTime = System.currentTimeMillis();
 			if (currentTime - startTime > configurator.getTimeLimit()) {
 				endTime = System.currentTimeMillis();
@@ -202,15 +355,9 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 		// clearing moves scores
 		movesScores.clear();
 
-		// transpostion table
-		try {
-			Constructor<TranspositionTable> constructor = (Constructor<TranspositionTable>) Class.forName(configurator.getTranspositionTableClassName())
-					.getConstructor();
-			transpositionTable = (TranspositionTable) constructor.newInstance();
-		} catch (Exception e) {
-			transpositionTable = new TranspositionTableAsHashMap();
-			e.printStackTrace();
-		}
+		// transpostion table (possibly kept from last execution)
+		resetTranspositionTable();
+		setTranspositionTableDepthLimit(configurator.getDepthLimit());
 
 		// refutation table
 		if (refutationTable == null) {
@@ -225,8 +372,46 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 		} else
 			refutationTable.reset();
 
+		// killer moves and history (the former kept for the same root, the latter kept and aged)
+		if (killerMovesTable == null)
+			killerMovesTable = new KillerMovesTable();
+		if (initial != null)
+			killerMovesTable.setRoot(initial);
+		if (historyTable == null)
+			historyTable = new HistoryTable();
+		else
+			historyTable.age();
+
 		closedCount = 0;
 		depthReached = 0.0;
+		cutoffsCount = 0;
+		firstMoveCutoffsCount = 0;
+		gameValue = null;
+	}
+
+	/**
+	 * Resets transposition table as part of reset(): constructs a new table of class given in configurator, unless the
+	 * table is to be kept from last execution. Subclasses using tables of their own may override this method to skip
+	 * the construction.
+	 */
+	@SuppressWarnings("unchecked")
+	protected void resetTranspositionTable() {
+		if ((transpositionTable == null) || (!configurator.isTranspositionTableKept())) {
+			try {
+				Class<TranspositionTable> transpositionTableClass = (Class<TranspositionTable>) Class.forName(configurator.getTranspositionTableClassName());
+				try {
+					// fixed-size tables are set up from configurator
+					Constructor<TranspositionTable> constructor = transpositionTableClass.getConstructor(GameSearchConfigurator.class);
+					transpositionTable = constructor.newInstance(configurator);
+				} catch (NoSuchMethodException e) {
+					Constructor<TranspositionTable> constructor = transpositionTableClass.getConstructor();
+					transpositionTable = (TranspositionTable) constructor.newInstance();
+				}
+			} catch (Exception e) {
+				transpositionTable = new TranspositionTableAsHashMap();
+				e.printStackTrace();
+			}
+		}
 	}
 
 	/**
@@ -337,6 +522,24 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 		return refutationTable;
 	}
 
+	/**
+	 * Returns reference to table of killer moves.
+	 * 
+	 * @return reference to table of killer moves
+	 */
+	public final KillerMovesTable getKillerMovesTable() {
+		return killerMovesTable;
+	}
+
+	/**
+	 * Returns reference to history table.
+	 * 
+	 * @return reference to history table
+	 */
+	public final HistoryTable getHistoryTable() {
+		return historyTable;
+	}
+
 	/**
 	 * Gets reference to configurator object.
 	 * 
@@ -360,6 +563,29 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 		return closedCount;
 	}
 
+	/**
+	 * Returns game value of initial state calculated in last execution (null if time limit was reached). If the
+	 * alpha-beta window for initial state was narrowed (see setInitialWindow(...)), the value may be a bound only (when
+	 * not inside the window).
+	 * 
+	 * @return game value of initial state
+	 */
+	public final Double getGameValue() {
+		return gameValue;
+	}
+
+	/**
+	 * Sets alpha-beta window for initial state, to be used by subsequent executions (e.g. an aspiration window around
+	 * an expected game value). By default the window is infinite.
+	 * 
+	 * @param initialAlpha lower end of window
+	 * @param initialBeta upper end of window
+	 */
+	public final void setInitialWindow(double initialAlpha, double initialBeta) {
+		this.initialAlpha = initialAlpha;
+		this.initialBeta = initialBeta;
+	}
+
 	/**
 	 * Returns the maximum depth that was reached in the search (owing to quiescence) since last reset().
 	 * 
@@ -369,6 +595,25 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 		return depthReached;
 	}
 
+	/**
+	 * Returns number of cut-offs since last reset().
+	 * 
+	 * @return number of cut-offs
+	 */
+	public final int getCutoffsCount() {
+		return cutoffsCount;
+	}
+
+	/**
+	 * Returns number of cut-offs caused by the first child of a state since last reset(). Its ratio to the number of all
+	 * cut-offs measures quality of move ordering.
+	 * 
+	 * @return number of cut-offs caused by first children
+	 */
+	public final int getFirstMoveCutoffsCount() {
+		return firstMoveCutoffsCount;
+	}
+
 	/**
 	 * Calls parent.generateChildren() method and increments depths of children by 0.5 with respect to their parent.
 	 * 
@@ -377,16 +622,194 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 	 */
 	protected final List<GameState> generateChildrenWrapper(GameState parent) {
 		List<GameState> children = parent.generateChildren();
-		for (GameState child : children) {
-			child.setParent(parent);
-			child.setDepth(parent.getDepth() + 0.5);
-			if (configurator.isParentsMemorizingChildren())
-				parent.getChildren().add(child);
-			recalculateHIfLarge(child);
-		}
+		for (GameState child : children)
+			setupChild(parent, child);
 		return children;
 	}
 
+	/**
+	 * Reorders children of given parent according to tables switched on in configurator: by history scores of moves
+	 * first, then killer moves of the ply are put in front, and the best child from refutation table in the very front.
+	 * 
+	 * @param parent reference to parent
+	 * @param children list of children
+	 */
+	protected final void reorderChildren(GameState parent, List<GameState> children) {
+		if (configurator.isHistoryHeuristicOn())
+			historyTable.reorder(children);
+		if (configurator.isKillerMovesOn())
+			killerMovesTable.reorder(parent, children);
+		if (configurator.isRefutationTableOn())
+			refutationTable.reorder(parent, children);
+	}
+
+	/**
+	 * Returns an iterator over children of given parent, which are generated lazily (via parent.generateChildrenLazily()
+	 * method) and set up as in generateChildrenWrapper(...) only when visited. If staged generation is on, children are
+	 * generated lazily in stages (via parent.generateChildrenInStages(...)), with the best move stored in transposition
+	 * table (if on) as the hash move. Otherwise, if refutation table is on and applies to the parent (its depth not
+	 * greater than depth limit of refutation table), all children are generated at once (via
+	 * generateChildrenWrapper(...)), since they need to be reordered (see reorderChildren(...)). If history heuristic is
+	 * on, all children are generated at once, but selected by scores of their moves only when visited (see
+	 * HistoryTable.reorderLazily(...)). Children made by killer moves (if on) are put in front lazily (see
+	 * KillerMovesTable.reorderLazily(...)).
+	 * 
+	 * @param parent reference to game state object for which children should be generated
+	 * @return iterator over children states
+	 */
+	protected final Iterator<GameState> generateChildrenLazilyWrapper(final GameState parent) {
+		final Iterator<GameState> iterator;
+		if (configurator.isStagedGenerationOn()) {
+			String hashMoveName = null;
+			if (configurator.isTranspositionTableOn()) {
+				TranspositionTableEntry entry = transpositionTable.get(parent);
+				if (entry != null)
+					hashMoveName = entry.getBestMoveName();
+			}
+			iterator = parent.generateChildrenInStages(hashMoveName);
+		} else if ((configurator.isRefutationTableOn()) && (parent.getDepth() <= refutationTable.getDepthLimit())) {
+			List<GameState> children = generateChildrenWrapper(parent);
+			reorderChildren(parent, children);
+			return children.iterator();
+		} else if (configurator.isHistoryHeuristicOn()) {
+			Iterator<GameState> historyIterator = historyTable.reorderLazily(parent.generateChildren());
+			iterator = (configurator.isKillerMovesOn()) ? killerMovesTable.reorderLazily(parent, historyIterator) : historyIterator;
+		} else if (configurator.isKillerMovesOn())
+			iterator = killerMovesTable.reorderLazily(parent, parent.generateChildrenLazily());
+		else
+			iterator = parent.generateChildrenLazily();
+		return new Iterator<GameState>() {
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#hasNext()
+			 */
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#next()
+			 */
+			@Override
+			public GameState next() {
+				GameState child = iterator.next();
+				setupChild(parent, child);
+				return child;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#remove()
+			 */
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Sets up a freshly generated child: links it with its parent, increments its depth by 0.5 with respect to the
+	 * parent and recalculates its h if large.
+	 * 
+	 * @param parent reference to parent
+	 * @param child reference to child
+	 */
+	private void setupChild(GameState parent, GameState child) {
+		child.setParent(parent);
+		child.setDepth(parent.getDepth() + 0.5);
+		if (configurator.isParentsMemorizingChildren())
+			parent.getChildren().add(child);
+		recalculateHIfLarge(child);
+	}
+
+	/**
+	 * Returns the child of given parent made by a pass move (see GameState.generatePassChild()), set up for null-move
+	 * pruning but not memorized among children of the parent. Returns null if null-move pruning is off or not
+	 * applicable: at initial state, right after another pass move, in states that are not quiet, when the remaining depth
+	 * is not greater than the null move reduction or when the game defines no passes.
+	 * 
+	 * @param parent reference to parent
+	 * @param depth current depth
+	 * @param depthLimit depth limit
+	 * @return child made by a pass move or null
+	 */
+	protected final GameState generatePassChildWrapper(GameState parent, double depth, double depthLimit) {
+		if ((!configurator.isNullMovePruningOn()) || (depth == 0.0) || (GameState.PASS_MOVE_NAME.equals(parent.getMoveName()))
+				|| (depthLimit - depth <= configurator.getNullMoveReduction()) || (!parent.isQuiet()))
+			return null;
+		GameState child = parent.generatePassChild();
+		if (child == null)
+			return null;
+		child.setParent(parent);
+		child.setDepth(parent.getDepth() + 0.5);
+		child.setMoveName(GameState.PASS_MOVE_NAME);
+		recalculateHIfLarge(child);
+		return child;
+	}
+
+	/**
+	 * Returns a boolean flag stating if given child (being the childIndex-th one of its parent) should be searched with
+	 * late move reduction first: late move reductions must be on, the child must be late enough (see
+	 * LATE_MOVE_REDUCTION_MIN_INDEX), below initial state, with enough remaining depth, and both the parent and the child
+	 * must be quiet.
+	 * 
+	 * @param parent reference to parent
+	 * @param child reference to child
+	 * @param childIndex index of child (0 for the first one)
+	 * @param depth current depth
+	 * @param depthLimit depth limit
+	 * @return boolean flag stating if late move reduction applies to given child
+	 */
+	protected final boolean isLateMoveReductionApplicable(GameState parent, GameState child, int childIndex, double depth, double depthLimit) {
+		return (configurator.isLateMoveReductionsOn()) && (childIndex >= LATE_MOVE_REDUCTION_MIN_INDEX) && (depth > 0.0)
+				&& (depthLimit - depth > configurator.getLateMoveReduction() + 0.5) && (parent.isQuiet()) && (child.isQuiet());
+	}
+
+	/**
+	 * Evaluates given state (child of a state at given depth) with a reduced depth limit, e.g. after a pass move or for a
+	 * late move. The transposition table is read-only during such a search, since drafts of its entries are measured
+	 * with respect to the full depth limit.
+	 * 
+	 * @param gameState given game state
+	 * @param alpha lower bound on game value known for given game state
+	 * @param beta upper bound on game value known for given game state
+	 * @param depth current depth
+	 * @param reducedDepthLimit reduced depth limit
+	 * @return calculated game value (or null if time limit is reached)
+	 */
+	protected final Double evaluateReduced(GameState gameState, double alpha, double beta, double depth, double reducedDepthLimit) {
+		TranspositionTable fullTranspositionTable = transpositionTable;
+		if (!(fullTranspositionTable instanceof ReadOnlyTranspositionTable)) {
+			if ((readOnlyTranspositionTable == null) || (readOnlyTranspositionTable.transpositionTable != fullTranspositionTable))
+				readOnlyTranspositionTable = new ReadOnlyTranspositionTable(fullTranspositionTable);
+			transpositionTable = readOnlyTranspositionTable;
+		}
+		try {
+			return (gameState.isMaximizingTurnNow()) ? evaluateMaxState(gameState, alpha, beta, depth, reducedDepthLimit) : evaluateMinState(gameState,
+					alpha, beta, depth, reducedDepthLimit);
+		} finally {
+			transpositionTable = fullTranspositionTable;
+		}
+	}
+
+	/**
+	 * Passes depth limit of current search to transposition table, if the table memorizes drafts of entries (see
+	 * TranspositionTableImpl.setDepthLimit(...)). Other implementations of TranspositionTable are left untouched.
+	 * 
+	 * @param depthLimit depth limit of current search
+	 */
+	protected final void setTranspositionTableDepthLimit(double depthLimit) {
+		if (transpositionTable instanceof TranspositionTableImpl)
+			((TranspositionTableImpl) transpositionTable).setDepthLimit(depthLimit);
+	}
+
 	/**
 	 * Recalculates heuristic value for given state if its absolute value is greater than H_SMALLEST_INFINITY constant. The
 	 * recalculation is done according to the formula: h = Math.signum(h) * H_SMALLEST_INFINITY * (1.0 + 1.0 /
@@ -432,6 +855,25 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 				|| ((childValue == Double.POSITIVE_INFINITY) && (beta == Double.POSITIVE_INFINITY));
 	}
 
+	/**
+	 * Registers a cut-off caused by given child (being the childIndex-th one of its parent): updates counters of
+	 * cut-offs and, if on, killer moves and history heuristic.
+	 * 
+	 * @param parent reference to parent
+	 * @param child reference to child
+	 * @param childIndex index of child (0 for the first one)
+	 * @param depthLimit depth limit
+	 */
+	protected final void registerCutoff(GameState parent, GameState child, int childIndex, double depthLimit) {
+		cutoffsCount++;
+		if (childIndex == 0)
+			firstMoveCutoffsCount++;
+		if (configurator.isKillerMovesOn())
+			killerMovesTable.put(parent, child);
+		if (configurator.isHistoryHeuristicOn())
+			historyTable.put(child, depthLimit - parent.getDepth());
+	}
+
 	/**
 	 * Updates list of moves along principal variation for given parent and child (that led to an improvement). Resulting
 	 * list of moves along principal variation consists of: parent move name (if not empty) and list of moves along
@@ -447,10 +889,20 @@ public abstract class GameSearchAlgorithm extends SearchAlgorithm {
 		movesAlongPrincipalVariation.addAll(child.getMovesAlongPrincipalVariation());
 	}
 
+	/**
+	 * Sets start time of current search, for algorithms evaluating states on behalf of another one (e.g. workers of a
+	 * parallel search), so that the time limit is measured from the start of the latter.
+	 * 
+	 * @param startTime start time in milliseconds
+	 */
+	final void setStartTime(long startTime) {
+		this.startTime = startTime;
+	}
+
 	/**
 	 * Forces current execute() recursion to stop.
 	 */
-	public final void forceStop() {
+	public void forceStop() {
 		stopForced = true;
 	}
 }
\ No newline at end of file
@@ -66,12 +66,116 @@ public class GameSearchConfigurator {
 	 */
 	private long timeLimit = Long.MAX_VALUE;
 
+	/**
+	 * Is transposition table kept between executions (instead of being created anew in each execution). Entries of
+	 * the table are aware of depths to which they were calculated, hence remain valid when depth limit changes (e.g. in
+	 * consecutive iterations of IterativeDeepening). By default: false.
+	 */
+	private boolean transpositionTableKept = false;
+
+	/**
+	 * Half-width of aspiration window set around the game value from previous iteration by IterativeDeepening.
+	 * Infinity turns aspiration windows off. By default: 'infinity' (Double.POSITIVE_INFINITY).
+	 */
+	private double aspirationWindowWidth = Double.POSITIVE_INFINITY;
+
+	/**
+	 * Size (in megabytes) of fixed-size transposition tables (e.g. sac.game.TranspositionTableAsArray). By default: 64.
+	 */
+	private int transpositionTableSizeInMB = 64;
+
+	/**
+	 * Replacement scheme for fixed-size transposition tables (e.g. sac.game.TranspositionTableAsArray). By default:
+	 * TWO_TIER.
+	 */
+	private TranspositionTableReplacementScheme transpositionTableReplacementScheme = TranspositionTableReplacementScheme.TWO_TIER;
+
+	/**
+	 * Number of threads used by parallel game searches (e.g. sac.game.LazySMP, sac.game.RootSplit). By default: 1.
+	 */
+	private int threads = 1;
+
+	/**
+	 * Class name for state codec (compact binary form of states). By default: null (no codec). Required by parallel
+	 * game searches to copy initial states for threads (e.g. sac.game.LazySMP).
+	 */
+	private String stateCodecClassName = null;
+
+	/**
+	 * Are killer moves (see sac.game.KillerMovesTable) used to order children. By default: false.
+	 */
+	private boolean killerMovesOn = false;
+
+	/**
+	 * Is history heuristic (see sac.game.HistoryTable) used to order children. By default: false.
+	 */
+	private boolean historyHeuristicOn = false;
+
+	/**
+	 * Are children generated in stages (see sac.game.GameState.generateChildrenInStages(...)) with the best move stored
+	 * in transposition table as the hash move. Replaces other move ordering (refutation table, killer moves, history
+	 * heuristic), which requires all children to be generated at once. By default: false.
+	 */
+	private boolean stagedGenerationOn = false;
+
+	/**
+	 * Is null-move pruning on (see sac.game.GameState.generatePassChild()). By default: false.
+	 */
+	private boolean nullMovePruningOn = false;
+
+	/**
+	 * Depth reduction of searches after pass moves in null-move pruning. By default: 1.0 (two half-moves).
+	 */
+	private double nullMoveReduction = 1.0;
+
+	/**
+	 * Are late move reductions on (late children searched with reduced depth first). By default: false.
+	 */
+	private boolean lateMoveReductionsOn = false;
+
+	/**
+	 * Depth reduction of searches of late children. By default: 1.0 (two half-moves, so that the same player makes the
+	 * last move).
+	 */
+	private double lateMoveReduction = 1.0;
+
 	/**
 	 * Creates new configurator with default settings.
 	 */
 	public GameSearchConfigurator() {
 	}
 
+	/**
+	 * Creates new configurator as a copy of given one.
+	 * 
+	 * @param configurator configurator to copy settings from
+	 */
+	public GameSearchConfigurator(GameSearchConfigurator configurator) {
+		identifierType = configurator.identifierType;
+		depthLimit = configurator.depthLimit;
+		transpositionTableOn = configurator.transpositionTableOn;
+		transpositionTableClassName = configurator.transpositionTableClassName;
+		quiescenceOn = configurator.quiescenceOn;
+		refutationTableOn = configurator.refutationTableOn;
+		refutationTableClassName = configurator.refutationTableClassName;
+		refutationTableDepthLimit = configurator.refutationTableDepthLimit;
+		parentsMemorizingChildren = configurator.parentsMemorizingChildren;
+		timeLimit = configurator.timeLimit;
+		transpositionTableKept = configurator.transpositionTableKept;
+		aspirationWindowWidth = configurator.aspirationWindowWidth;
+		transpositionTableSizeInMB = configurator.transpositionTableSizeInMB;
+		transpositionTableReplacementScheme = configurator.transpositionTableReplacementScheme;
+		threads = configurator.threads;
+		stateCodecClassName = configurator.stateCodecClassName;
+		killerMovesOn = configurator.killerMovesOn;
+		historyHeuristicOn = configurator.historyHeuristicOn;
+		stagedGenerationOn = configurator.stagedGenerationOn;
+		nullMovePruningOn = configurator.nullMovePruningOn;
+		nullMoveReduction = configurator.nullMoveReduction;
+		lateMoveReductionsOn = configurator.lateMoveReductionsOn;
+		lateMoveReduction = configurator.lateMoveReduction;
+	}
+
 	/**
 	 * Createas new configurator from given properties file.
 	 * 
@@ -97,6 +201,36 @@ public class GameSearchConfigurator {
 			timeLimit = Long.MAX_VALUE;
 		else
 			timeLimit = Long.valueOf(properties.getProperty("timeLimit"));
+		transpositionTableKept = Boolean.valueOf(properties.getProperty("transpositionTableKept"));
+		String aspirationWindowWidthString = properties.getProperty("aspirationWindowWidth");
+		if ((aspirationWindowWidthString == null) || (aspirationWindowWidthString.trim().length() == 0)
+				|| (aspirationWindowWidthString.trim().equals("Double.POSITIVE_INFINITY")))
+			aspirationWindowWidth = Double.POSITIVE_INFINITY;
+		else
+			aspirationWindowWidth = Double.valueOf(aspirationWindowWidthString.trim());
+		String transpositionTableSizeInMBString = properties.getProperty("transpositionTableSizeInMB");
+		if ((transpositionTableSizeInMBString != null) && (transpositionTableSizeInMBString.trim().length() > 0))
+			transpositionTableSizeInMB = Integer.valueOf(transpositionTableSizeInMBString.trim());
+		String transpositionTableReplacementSchemeString = properties.getProperty("transpositionTableReplacementScheme");
+		if ((transpositionTableReplacementSchemeString != null) && (transpositionTableReplacementSchemeString.trim().length() > 0))
+			transpositionTableReplacementScheme = TranspositionTableReplacementScheme.valueOf(transpositionTableReplacementSchemeString.trim());
+		String threadsString = properties.getProperty("threads");
+		if ((threadsString != null) && (threadsString.trim().length() > 0))
+			threads = Integer.valueOf(threadsString.trim());
+		String stateCodecClassNameString = properties.getProperty("stateCodecClassName");
+		if ((stateCodecClassNameString != null) && (stateCodecClassNameString.trim().length() > 0))
+			stateCodecClassName = stateCodecClassNameString.trim();
+		killerMovesOn = Boolean.valueOf(properties.getProperty("killerMovesOn"));
+		historyHeuristicOn = Boolean.valueOf(properties.getProperty("historyHeuristicOn"));
+		stagedGenerationOn = Boolean.valueOf(properties.getProperty("stagedGenerationOn"));
+		nullMovePruningOn = Boolean.valueOf(properties.getProperty("nullMovePruningOn"));
+		String nullMoveReductionString = properties.getProperty("nullMoveReduction");
+		if ((nullMoveReductionString != null) && (nullMoveReductionString.trim().length() > 0))
+			nullMoveReduction = Double.valueOf(nullMoveReductionString.trim());
+		lateMoveReductionsOn = Boolean.valueOf(properties.getProperty("lateMoveReductionsOn"));
+		String lateMoveReductionString = properties.getProperty("lateMoveReduction");
+		if ((lateMoveReductionString != null) && (lateMoveReductionString.trim().length() > 0))
+			lateMoveReduction = Double.valueOf(lateMoveReductionString.trim());
 	}
 
 	/**
@@ -279,6 +413,240 @@ public class GameSearchConfigurator {
 		this.timeLimit = timeLimit;
 	}
 
+	/**
+	 * Returns boolean flag deciding if transposition table is kept between executions.
+	 * 
+	 * @return boolean flag deciding if transposition table is kept between executions
+	 */
+	public boolean isTranspositionTableKept() {
+		return transpositionTableKept;
+	}
+
+	/**
+	 * Sets boolean flag deciding if transposition table is kept between executions.
+	 * 
+	 * @param transpositionTableKept boolean flag to be set
+	 */
+	public void setTranspositionTableKept(boolean transpositionTableKept) {
+		this.transpositionTableKept = transpositionTableKept;
+	}
+
+	/**
+	 * Returns half-width of aspiration windows used by iterative deepening.
+	 * 
+	 * @return half-width of aspiration windows
+	 */
+	public double getAspirationWindowWidth() {
+		return aspirationWindowWidth;
+	}
+
+	/**
+	 * Sets half-width of aspiration windows used by iterative deepening (infinity turns aspiration windows off).
+	 * 
+	 * @param aspirationWindowWidth half-width of aspiration windows to be set
+	 */
+	public void setAspirationWindowWidth(double aspirationWindowWidth) {
+		this.aspirationWindowWidth = aspirationWindowWidth;
+	}
+
+	/**
+	 * Returns size (in megabytes) of fixed-size transposition tables.
+	 * 
+	 * @return size of fixed-size transposition tables in megabytes
+	 */
+	public int getTranspositionTableSizeInMB() {
+		return transpositionTableSizeInMB;
+	}
+
+	/**
+	 * Sets size (in megabytes) of fixed-size transposition tables.
+	 * 
+	 * @param transpositionTableSizeInMB size to be set
+	 */
+	public void setTranspositionTableSizeInMB(int transpositionTableSizeInMB) {
+		this.transpositionTableSizeInMB = transpositionTableSizeInMB;
+	}
+
+	/**
+	 * Returns replacement scheme for fixed-size transposition tables.
+	 * 
+	 * @return replacement scheme for fixed-size transposition tables
+	 */
+	public TranspositionTableReplacementScheme getTranspositionTableReplacementScheme() {
+		return transpositionTableReplacementScheme;
+	}
+
+	/**
+	 * Sets replacement scheme for fixed-size transposition tables.
+	 * 
+	 * @param transpositionTableReplacementScheme replacement scheme to be set
+	 */
+	public void setTranspositionTableReplacementScheme(TranspositionTableReplacementScheme transpositionTableReplacementScheme) {
+		this.transpositionTableReplacementScheme = transpositionTableReplacementScheme;
+	}
+
+	/**
+	 * Returns number of threads used by parallel game searches.
+	 * 
+	 * @return number of threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets number of threads used by parallel game searches.
+	 * 
+	 * @param threads number of threads to be set
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * Returns state codec class name.
+	 * 
+	 * @return state codec class name
+	 */
+	public String getStateCodecClassName() {
+		return stateCodecClassName;
+	}
+
+	/**
+	 * Sets state codec class name.
+	 * 
+	 * @param stateCodecClassName state codec class name to be set
+	 */
+	public void setStateCodecClassName(String stateCodecClassName) {
+		this.stateCodecClassName = stateCodecClassName;
+	}
+
+	/**
+	 * Returns boolean flag deciding if killer moves should be used to order children.
+	 * 
+	 * @return boolean flag deciding if killer moves should be used
+	 */
+	public boolean isKillerMovesOn() {
+		return killerMovesOn;
+	}
+
+	/**
+	 * Sets boolean flag deciding if killer moves should be used to order children.
+	 * 
+	 * @param killerMovesOn boolean flag to be set
+	 */
+	public void setKillerMovesOn(boolean killerMovesOn) {
+		this.killerMovesOn = killerMovesOn;
+	}
+
+	/**
+	 * Returns boolean flag deciding if history heuristic should be used to order children.
+	 * 
+	 * @return boolean flag deciding if history heuristic should be used
+	 */
+	public boolean isHistoryHeuristicOn() {
+		return historyHeuristicOn;
+	}
+
+	/**
+	 * Sets boolean flag deciding if history heuristic should be used to order children.
+	 * 
+	 * @param historyHeuristicOn boolean flag to be set
+	 */
+	public void setHistoryHeuristicOn(boolean historyHeuristicOn) {
+		this.historyHeuristicOn = historyHeuristicOn;
+	}
+
+	/**
+	 * Returns boolean flag deciding if children should be generated in stages.
+	 * 
+	 * @return boolean flag deciding if children should be generated in stages
+	 */
+	public boolean isStagedGenerationOn() {
+		return stagedGenerationOn;
+	}
+
+	/**
+	 * Sets boolean flag deciding if children should be generated in stages.
+	 * 
+	 * @param stagedGenerationOn boolean flag to be set
+	 */
+	public void setStagedGenerationOn(boolean stagedGenerationOn) {
+		this.stagedGenerationOn = stagedGenerationOn;
+	}
+
+	/**
+	 * Returns boolean flag deciding if null-move pruning should be used.
+	 * 
+	 * @return boolean flag deciding if null-move pruning should be used
+	 */
+	public boolean isNullMovePruningOn() {
+		return nullMovePruningOn;
+	}
+
+	/**
+	 * Sets boolean flag deciding if null-move pruning should be used.
+	 * 
+	 * @param nullMovePruningOn boolean flag to be set
+	 */
+	public void setNullMovePruningOn(boolean nullMovePruningOn) {
+		this.nullMovePruningOn = nullMovePruningOn;
+	}
+
+	/**
+	 * Returns depth reduction of searches after pass moves in null-move pruning.
+	 * 
+	 * @return depth reduction after pass moves
+	 */
+	public double getNullMoveReduction() {
+		return nullMoveReduction;
+	}
+
+	/**
+	 * Sets depth reduction of searches after pass moves in null-move pruning.
+	 * 
+	 * @param nullMoveReduction depth reduction after pass moves to be set
+	 */
+	public void setNullMoveReduction(double nullMoveReduction) {
+		this.nullMoveReduction = nullMoveReduction;
+	}
+
+	/**
+	 * Returns boolean flag deciding if late move reductions should be used.
+	 * 
+	 * @return boolean flag deciding if late move reductions should be used
+	 */
+	public boolean isLateMoveReductionsOn() {
+		return lateMoveReductionsOn;
+	}
+
+	/**
+	 * Sets boolean flag deciding if late move reductions should be used.
+	 * 
+	 * @param lateMoveReductionsOn boolean flag to be set
+	 */
+	public void setLateMoveReductionsOn(boolean lateMoveReductionsOn) {
+		this.lateMoveReductionsOn = lateMoveReductionsOn;
+	}
+
+	/**
+	 * Returns depth reduction of searches of late children.
+	 * 
+	 * @return depth reduction of late children
+	 */
+	public double getLateMoveReduction() {
+		return lateMoveReduction;
+	}
+
+	/**
+	 * Sets depth reduction of searches of late children.
+	 * 
+	 * @param lateMoveReduction depth reduction of late children to be set
+	 */
+	public void setLateMoveReduction(double lateMoveReduction) {
+		this.lateMoveReduction = lateMoveReduction;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -306,6 +674,32 @@ public class GameSearchConfigurator {
 		builder.append("parentsMemorizingChildren= " + parentsMemorizingChildren);
 		builder.append("\n");
 		builder.append("timeLimit = " + ((timeLimit < Long.MAX_VALUE) ? timeLimit : "Long.MAX_VALUE"));
+		builder.append("\n");
+		builder.append("transpositionTableKept = " + transpositionTableKept);
+		builder.append("\n");
+		builder.append("aspirationWindowWidth = " + ((aspirationWindowWidth < Double.POSITIVE_INFINITY) ? aspirationWindowWidth : "Double.POSITIVE_INFINITY"));
+		builder.append("\n");
+		builder.append("transpositionTableSizeInMB = " + transpositionTableSizeInMB);
+		builder.append("\n");
+		builder.append("transpositionTableReplacementScheme = " + transpositionTableReplacementScheme);
+		builder.append("\n");
+		builder.append("threads = " + threads);
+		builder.append("\n");
+		builder.append("stateCodecClassName = " + stateCodecClassName);
+		builder.append("\n");
+		builder.append("killerMovesOn = " + killerMovesOn);
+		builder.append("\n");
+		builder.append("historyHeuristicOn = " + historyHeuristicOn);
+		builder.append("\n");
+		builder.append("stagedGenerationOn = " + stagedGenerationOn);
+		builder.append("\n");
+		builder.append("nullMovePruningOn = " + nullMovePruningOn);
+		builder.append("\n");
+		builder.append("nullMoveReduction = " + nullMoveReduction);
+		builder.append("\n");
+		builder.append("lateMoveReductionsOn = " + lateMoveReductionsOn);
+		builder.append("\n");
+		builder.append("lateMoveReduction = " + lateMoveReduction);
 		return builder.toString();
 	}	
 }
\ No newline at end of file
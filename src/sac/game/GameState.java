@@ -1,5 +1,6 @@
 package sac.game;
 
+import java.util.Iterator;
 import java.util.List;
 
 import sac.State;
@@ -18,6 +19,11 @@ public interface GameState extends State {
 	 */
 	public static final double H_SMALLEST_INFINITY = 0.5 * Double.MAX_VALUE;
 
+	/**
+	 * Name of pass moves (see generatePassChild()).
+	 */
+	public static final String PASS_MOVE_NAME = "pass";
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -50,6 +56,34 @@ public interface GameState extends State {
 	@Override
 	public List<GameState> generateChildren();
 
+	/**
+	 * Returns an iterator over children of this state, meant to construct children lazily (only when actually visited
+	 * by a search algorithm, e.g. until a cut-off occurs).
+	 * 
+	 * @return iterator over children of this state
+	 */
+	public Iterator<GameState> generateChildrenLazily();
+
+	/**
+	 * Returns an iterator over children of this state, meant to construct children lazily in stages, so that moves
+	 * likely to cause a cut-off are tried before the remaining ones are even constructed: the child made by the hash move
+	 * (if given and legal) first, then children made by captures, then children made by quiet moves ordered by a cheap
+	 * score. The child made by the hash move is not repeated in later stages.
+	 * 
+	 * @param hashMoveName name of the hash move (e.g. best move stored in transposition table for this state) or null
+	 * @return iterator over children of this state
+	 */
+	public Iterator<GameState> generateChildrenInStages(String hashMoveName);
+
+	/**
+	 * Returns a child of this state made by a pass move (null move), i.e. the same position with the turn given to the
+	 * opponent, for the purposes of null-move pruning. Should return null if passes are not meaningful for the game
+	 * (e.g. when positions where any move worsens the situation are common), which turns null-move pruning off.
+	 * 
+	 * @return child made by a pass move or null
+	 */
+	public GameState generatePassChild();
+
 	/**
 	 * Returns boolean value indicating whether this state is quiet (for Quiescence option purposes).
 	 * 
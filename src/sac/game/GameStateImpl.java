@@ -1,5 +1,6 @@
 package sac.game;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -19,7 +20,7 @@ public abstract class GameStateImpl extends StateImpl implements GameState {
 	protected boolean maximizingTurnNow = true;
 
 	/**
-	 * List of moves along principal variation.
+	 * List of moves along principal variation. Remains null until the first call of getMovesAlongPrincipalVariation().
 	 */
 	protected List<String> movesAlongPrincipalVariation = null;
 
@@ -40,11 +41,11 @@ public abstract class GameStateImpl extends StateImpl implements GameState {
 	protected boolean readFromTranspositionTable = false;
 
 	/**
-	 * Constructor for this abstract class. Initializes list for moves along principal variation as an empty list
-	 * (linked list).
+	 * Constructor for this abstract class. The list of moves along principal variation is allocated lazily (on first
+	 * call of getMovesAlongPrincipalVariation()).
 	 */
 	public GameStateImpl() {
-		movesAlongPrincipalVariation = new LinkedList<String>();
+		super();
 	}
 
 	/*
@@ -65,7 +66,7 @@ public abstract class GameStateImpl extends StateImpl implements GameState {
 	@Override
 	@SuppressWarnings("unchecked")
 	public final List<GameState> getChildren() {
-		return (List<GameState>) children;
+		return (List<GameState>) super.getChildren();
 	}
 
 	/*
@@ -79,6 +80,44 @@ public abstract class GameStateImpl extends StateImpl implements GameState {
 		return (List<GameState>) super.getPath();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameState#generateChildrenLazily()
+	 */
+	@Override
+	public Iterator<GameState> generateChildrenLazily() {
+		return generateChildren().iterator(); // default implementation (not lazy), to be overridden
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameState#generateChildrenInStages(java.lang.String)
+	 */
+	@Override
+	public Iterator<GameState> generateChildrenInStages(String hashMoveName) {
+		// default implementation (not staged, only the hash move first), to be overridden
+		List<GameState> children = generateChildren();
+		if (hashMoveName != null)
+			for (int i = 1; i < children.size(); i++)
+				if (hashMoveName.equals(children.get(i).getMoveName())) {
+					children.add(0, children.remove(i));
+					break;
+				}
+		return children.iterator();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameState#generatePassChild()
+	 */
+	@Override
+	public GameState generatePassChild() {
+		return null; // default implementation (no passes), to be overridden
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -156,6 +195,8 @@ public abstract class GameStateImpl extends StateImpl implements GameState {
 	 */
 	@Override
 	public final List<String> getMovesAlongPrincipalVariation() {
+		if (movesAlongPrincipalVariation == null)
+			movesAlongPrincipalVariation = new LinkedList<String>();
 		return movesAlongPrincipalVariation;
 	}
 
@@ -0,0 +1,220 @@
+package sac.game;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * History table (history heuristic). Keeps scores of moves (by their names, regardless of states in which they were
+ * made), increased by the squared draft (remaining depth) each time a move causes a cut-off, hence moves refuting deep
+ * subtrees weigh most. Children are ordered by descending scores of their moves, selected one by one (the best of the
+ * remaining ones each time), which is cheap when a cut-off comes after a few children. Scores are kept in an array,
+ * indexed by moves names. Scores are halved before each execution (see age()), so that history of former positions
+ * fades out.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class HistoryTable {
+
+	/**
+	 * Indexes of moves names in array of scores.
+	 */
+	private Map<String, Integer> movesIndexes = new HashMap<String, Integer>();
+
+	/**
+	 * Scores of moves (at indexes of their names).
+	 */
+	private double[] scores = new double[16];
+
+	/**
+	 * Counter of uses.
+	 */
+	private int usesCount = 0;
+
+	/**
+	 * Increases score of move leading to given child, that caused a cut-off with given draft.
+	 * 
+	 * @param child reference to child game state
+	 * @param draft draft (remaining depth) of parent
+	 */
+	public void put(GameState child, double draft) {
+		String moveName = child.getMoveName();
+		Integer index = movesIndexes.get(moveName);
+		if (index == null) {
+			index = movesIndexes.size();
+			if (index == scores.length)
+				scores = Arrays.copyOf(scores, 2 * scores.length);
+			movesIndexes.put(moveName, index);
+		}
+		scores[index] += draft * draft;
+	}
+
+	/**
+	 * Returns score of given move (0.0 if not present).
+	 * 
+	 * @param moveName name of move
+	 * @return score of move
+	 */
+	public double getScore(String moveName) {
+		Integer index = movesIndexes.get(moveName);
+		return (index != null) ? scores[index] : 0.0;
+	}
+
+	/**
+	 * Returns scores of moves leading to given children.
+	 * 
+	 * @param children array of references to children states
+	 * @return array of scores
+	 */
+	private double[] getScores(GameState[] children) {
+		double[] childrenScores = new double[children.length];
+		for (int i = 0; i < children.length; i++)
+			childrenScores[i] = getScore(children[i].getMoveName());
+		return childrenScores;
+	}
+
+	/**
+	 * Selects the child of the highest score (the first one for equal scores) among children at positions from the given
+	 * one on, and moves it (along with its score) to that position, shifting the children passed over by one.
+	 * 
+	 * @param children array of references to children states
+	 * @param childrenScores array of scores of children
+	 * @param from position to select from
+	 * @return selected child
+	 */
+	private static GameState select(GameState[] children, double[] childrenScores, int from) {
+		int best = from;
+		for (int i = from + 1; i < children.length; i++)
+			if (childrenScores[i] > childrenScores[best])
+				best = i;
+		GameState child = children[best];
+		double score = childrenScores[best];
+		System.arraycopy(children, from, children, from + 1, best - from);
+		System.arraycopy(childrenScores, from, childrenScores, from + 1, best - from);
+		children[from] = child;
+		childrenScores[from] = score;
+		return child;
+	}
+
+	/**
+	 * Reorders the given list of children by descending scores of their moves (stable for equal scores).
+	 * 
+	 * @param children list of references to children states
+	 */
+	public void reorder(List<GameState> children) {
+		if ((children == null) || (children.size() <= 1) || (movesIndexes.isEmpty()))
+			return; // no reorder done
+		GameState[] childrenArray = children.toArray(new GameState[children.size()]);
+		double[] childrenScores = getScores(childrenArray);
+		for (int i = 0; i < childrenArray.length; i++)
+			children.set(i, select(childrenArray, childrenScores, i));
+		usesCount++;
+	}
+
+	/**
+	 * Returns an iterator over the given list of children, in the same order as reorder(...) would give, selecting the
+	 * next child only when asked for. The list itself is not changed.
+	 * 
+	 * @param children list of references to children states
+	 * @return iterator over children states, by descending scores of their moves
+	 */
+	public Iterator<GameState> reorderLazily(List<GameState> children) {
+		if ((children.size() <= 1) || (movesIndexes.isEmpty()))
+			return children.iterator(); // no reorder done
+		final GameState[] childrenArray = children.toArray(new GameState[children.size()]);
+		final double[] childrenScores = getScores(childrenArray);
+		usesCount++;
+		return new Iterator<GameState>() {
+
+			/**
+			 * Position of the next child to be selected.
+			 */
+			private int position = 0;
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#hasNext()
+			 */
+			@Override
+			public boolean hasNext() {
+				return (position < childrenArray.length);
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#next()
+			 */
+			@Override
+			public GameState next() {
+				if (position >= childrenArray.length)
+					throw new NoSuchElementException();
+				return select(childrenArray, childrenScores, position++);
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#remove()
+			 */
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Halves all scores.
+	 */
+	public void age() {
+		for (int i = 0; i < movesIndexes.size(); i++)
+			scores[i] *= 0.5;
+	}
+
+	/**
+	 * Returns number of moves with scores.
+	 * 
+	 * @return number of moves
+	 */
+	public int size() {
+		return movesIndexes.size();
+	}
+
+	/**
+	 * Clears the table.
+	 */
+	public void clear() {
+		movesIndexes.clear();
+		Arrays.fill(scores, 0.0);
+		usesCount = 0;
+	}
+
+	/**
+	 * Returns number of uses (reorders, including lazy ones) since construction or last clear() call.
+	 * 
+	 * @return number of uses
+	 */
+	public int getUsesCount() {
+		return usesCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("{");
+		for (Map.Entry<String, Integer> entry : movesIndexes.entrySet())
+			builder.append(((builder.length() > 1) ? ", " : "") + entry.getKey() + "=" + scores[entry.getValue()]);
+		builder.append("}");
+		return builder.toString();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,260 @@
+package sac.game;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Iterative deepening driver for game search algorithms (e.g. alpha-beta cutoffs, Scout). Executes the wrapped
+ * algorithm with increasing depth limits (by half-moves) up to the depth limit given in configurator. Between
+ * iterations the refutation table is rolled (best moves of previous iteration are read first) and the transposition
+ * table is kept. Each iteration (but the first) starts with an aspiration window around the game value of the previous
+ * one (see GameSearchConfigurator.setAspirationWindowWidth(...)). On failure (fail low or fail high) the iteration is
+ * re-searched with the failing end of the window moved beyond the returned bound by a width doubled each time, and only
+ * after ASPIRATION_WIDENINGS_LIMIT such widenings is the end moved to infinity. If the time limit is reached, results
+ * (moves scores, game value, principal variation) of the last completed iteration are returned.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class IterativeDeepening extends GameSearchAlgorithm {
+
+	/**
+	 * Increment of depth limit between consecutive iterations (a single half-move).
+	 */
+	public static final double DEPTH_STEP = 0.5;
+
+	/**
+	 * Factor by which the width of a failing end of aspiration window grows in consecutive re-searches.
+	 */
+	public static final double ASPIRATION_WIDENING_FACTOR = 2.0;
+
+	/**
+	 * Number of re-searches with finite widened windows (per end of window) before the failing end is moved to infinity.
+	 */
+	public static final int ASPIRATION_WIDENINGS_LIMIT = 3;
+
+	/**
+	 * Wrapped game search algorithm executed in iterations.
+	 */
+	private GameSearchAlgorithm algorithm = null;
+
+	/**
+	 * Depth limit of the last completed iteration (0.0 if none completed).
+	 */
+	private double completedDepthLimit = 0.0;
+
+	/**
+	 * Number of re-searches caused by game values falling outside aspiration windows.
+	 */
+	private int aspirationResearchesCount = 0;
+
+	/**
+	 * Creates new instance of iterative deepening driver.
+	 * 
+	 * @param algorithm wrapped game search algorithm (e.g. AlphaBetaPruning, Scout)
+	 * @param initial reference to initial state
+	 * @param configurator reference to configurator object
+	 */
+	public IterativeDeepening(GameSearchAlgorithm algorithm, GameState initial, GameSearchConfigurator configurator) {
+		super(initial, configurator);
+		this.algorithm = algorithm;
+		this.transpositionTable = algorithm.getTranspositionTable();
+		this.refutationTable = algorithm.getRefutationTable();
+	}
+
+	/**
+	 * Creates new instance of iterative deepening driver.
+	 * 
+	 * @param algorithm wrapped game search algorithm (e.g. AlphaBetaPruning, Scout)
+	 * @param initial reference to initial state
+	 */
+	public IterativeDeepening(GameSearchAlgorithm algorithm, GameState initial) {
+		this(algorithm, initial, null);
+	}
+
+	/**
+	 * Creates new instance of iterative deepening driver.
+	 * 
+	 * @param algorithm wrapped game search algorithm (e.g. AlphaBetaPruning, Scout)
+	 */
+	public IterativeDeepening(GameSearchAlgorithm algorithm) {
+		this(algorithm, null, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#reset()
+	 */
+	@Override
+	protected void reset() {
+		// tables are managed by the wrapped algorithm (rolled or kept by its own resets, once per iteration)
+		stopForced = false;
+		movesScores.clear();
+		closedCount = 0;
+		depthReached = 0.0;
+		cutoffsCount = 0;
+		firstMoveCutoffsCount = 0;
+		gameValue = null;
+		completedDepthLimit = 0.0;
+		aspirationResearchesCount = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doExecute()
+	 */
+	@Override
+	protected void doExecute() {
+		GameSearchConfigurator iterationConfigurator = new GameSearchConfigurator(configurator);
+		iterationConfigurator.setTranspositionTableKept(true);
+		if (!configurator.isTranspositionTableKept())
+			algorithm.transpositionTable = null; // fresh table for the first iteration
+		algorithm.setConfigurator(iterationConfigurator);
+		algorithm.setInitial(initial);
+
+		double width = configurator.getAspirationWindowWidth();
+		Map<String, Double> completedMovesScores = new HashMap<String, Double>();
+		List<String> completedPrincipalVariation = new ArrayList<String>();
+		double depthLimit = 0.0;
+		while ((!stopForced) && (depthLimit < configurator.getDepthLimit())) {
+			depthLimit = Math.min(depthLimit + DEPTH_STEP, configurator.getDepthLimit());
+			iterationConfigurator.setDepthLimit(depthLimit);
+
+			// time left for this iteration
+			if (configurator.getTimeLimit() < Long.MAX_VALUE) {
+				long timeLeft = configurator.getTimeLimit() - (System.currentTimeMillis() - startTime);
+				if (timeLeft <= 0)
+					break;
+				iterationConfigurator.setTimeLimit(timeLeft);
+			}
+
+			// aspiration window around game value of previous iteration
+			double alpha = Double.NEGATIVE_INFINITY;
+			double beta = Double.POSITIVE_INFINITY;
+			if ((gameValue != null) && (width < Double.POSITIVE_INFINITY) && (Math.abs(gameValue) < GameState.H_SMALLEST_INFINITY)) {
+				alpha = gameValue - width;
+				beta = gameValue + width;
+			}
+
+			double alphaWidth = width;
+			double betaWidth = width;
+			int alphaWideningsCount = 0;
+			int betaWideningsCount = 0;
+			Double value = null;
+			while (true) {
+				algorithm.setInitialWindow(alpha, beta);
+				algorithm.execute();
+				closedCount += algorithm.getClosedStatesCount();
+				depthReached = Math.max(depthReached, algorithm.getDepthReached());
+				cutoffsCount += algorithm.getCutoffsCount();
+				firstMoveCutoffsCount += algorithm.getFirstMoveCutoffsCount();
+				value = algorithm.getGameValue();
+				if (value == null)
+					break;
+				if ((value <= alpha) && (alpha > Double.NEGATIVE_INFINITY)) {
+					// fail low
+					alphaWidth *= ASPIRATION_WIDENING_FACTOR;
+					alpha = (++alphaWideningsCount <= ASPIRATION_WIDENINGS_LIMIT) ? value - alphaWidth : Double.NEGATIVE_INFINITY;
+					if (alpha <= -GameState.H_SMALLEST_INFINITY)
+						alpha = Double.NEGATIVE_INFINITY;
+				} else if ((value >= beta) && (beta < Double.POSITIVE_INFINITY)) {
+					// fail high
+					betaWidth *= ASPIRATION_WIDENING_FACTOR;
+					beta = (++betaWideningsCount <= ASPIRATION_WIDENINGS_LIMIT) ? value + betaWidth : Double.POSITIVE_INFINITY;
+					if (beta >= GameState.H_SMALLEST_INFINITY)
+						beta = Double.POSITIVE_INFINITY;
+				} else
+					break;
+				aspirationResearchesCount++;
+				if (configurator.getTimeLimit() < Long.MAX_VALUE) {
+					long timeLeft = configurator.getTimeLimit() - (System.currentTimeMillis() - startTime);
+					if (timeLeft <= 0) {
+						value = null;
+						break;
+					}
+					iterationConfigurator.setTimeLimit(timeLeft);
+				}
+			}
+			if (value == null)
+				break; // time limit reached or stop forced, last completed iteration remains
+
+			gameValue = value;
+			completedDepthLimit = depthLimit;
+			completedMovesScores.clear();
+			completedMovesScores.putAll(algorithm.getMovesScores());
+			completedPrincipalVariation.clear();
+			completedPrincipalVariation.addAll(initial.getMovesAlongPrincipalVariation());
+		}
+
+		movesScores.putAll(completedMovesScores);
+		initial.getMovesAlongPrincipalVariation().clear();
+		initial.getMovesAlongPrincipalVariation().addAll(completedPrincipalVariation);
+		algorithm.setInitialWindow(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+		algorithm.setConfigurator(configurator);
+		transpositionTable = algorithm.getTranspositionTable();
+		refutationTable = algorithm.getRefutationTable();
+		current = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doEvaluateMaxState(sac.game.GameState, double, double, double, double)
+	 */
+	@Override
+	public Double doEvaluateMaxState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
+		return algorithm.doEvaluateMaxState(gameState, alpha, beta, depth, depthLimit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doEvaluateMinState(sac.game.GameState, double, double, double, double)
+	 */
+	@Override
+	public Double doEvaluateMinState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
+		return algorithm.doEvaluateMinState(gameState, alpha, beta, depth, depthLimit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#forceStop()
+	 */
+	@Override
+	public void forceStop() {
+		super.forceStop();
+		algorithm.forceStop();
+	}
+
+	/**
+	 * Returns wrapped game search algorithm.
+	 * 
+	 * @return wrapped game search algorithm
+	 */
+	public final GameSearchAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * Returns depth limit of the last completed iteration (0.0 if none completed).
+	 * 
+	 * @return depth limit of the last completed iteration
+	 */
+	public final double getCompletedDepthLimit() {
+		return completedDepthLimit;
+	}
+
+	/**
+	 * Returns number of re-searches caused by game values falling outside aspiration windows (in last execution).
+	 * 
+	 * @return number of aspiration re-searches
+	 */
+	public final int getAspirationResearchesCount() {
+		return aspirationResearchesCount;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,257 @@
+package sac.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import sac.Identifier;
+
+/**
+ * Table of killer moves. For each ply (depth of parent state, counted in half-moves) keeps names of the last two moves
+ * that caused cut-offs at that ply, in any state. Moves with the same names, if legal in other states at the same ply,
+ * are likely to cause cut-offs again (e.g. a strong threat of the opponent) and are put in front of children. Since
+ * plies are counted from the root of searches, the table is kept between executions only for the same root (e.g. over
+ * iterations of iterative deepening) and cleared when the root changes (see setRoot(...)).
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class KillerMovesTable {
+
+	/**
+	 * Number of killer moves kept per ply.
+	 */
+	public static final int KILLERS_PER_PLY = 2;
+
+	/**
+	 * Names of killer moves per ply (the most recent first).
+	 */
+	private List<String[]> killers = new ArrayList<String[]>();
+
+	/**
+	 * Counter of uses.
+	 */
+	private int usesCount = 0;
+
+	/**
+	 * Identifier of root state of searches (plies are counted from it).
+	 */
+	private Identifier rootIdentifier = null;
+
+	/**
+	 * Returns ply of given state (its depth in half-moves).
+	 * 
+	 * @param gameState reference to game state
+	 * @return ply of state
+	 */
+	private static int ply(GameState gameState) {
+		return (int) Math.round(2.0 * gameState.getDepth());
+	}
+
+	/**
+	 * Sets root state of searches, plies being counted from it. Killer moves are cleared if the root differs from the
+	 * former one (e.g. after moves made in game), since they would be misaligned by plies.
+	 * 
+	 * @param root reference to root game state
+	 */
+	public void setRoot(GameState root) {
+		Identifier identifier = root.getIdentifier();
+		if ((rootIdentifier == null) || (!identifier.equals(rootIdentifier))) {
+			killers.clear();
+			rootIdentifier = identifier;
+		}
+	}
+
+	/**
+	 * Adds move (parent, child) that caused a cut-off as the most recent killer move for ply of parent.
+	 * 
+	 * @param parent reference to parent game state
+	 * @param child reference to child game state
+	 */
+	public void put(GameState parent, GameState child) {
+		int ply = ply(parent);
+		while (killers.size() <= ply)
+			killers.add(new String[KILLERS_PER_PLY]);
+		String[] plyKillers = killers.get(ply);
+		String moveName = child.getMoveName();
+		if (moveName.equals(plyKillers[0]))
+			return;
+		for (int i = KILLERS_PER_PLY - 1; i > 0; i--)
+			plyKillers[i] = plyKillers[i - 1];
+		plyKillers[0] = moveName;
+	}
+
+	/**
+	 * Reorders the given list of children (for given parent) putting in front the ones made by killer moves of ply of
+	 * parent (the most recent first). Order of remaining children is not changed.
+	 * 
+	 * @param parent reference to parent state
+	 * @param children list of references to children states
+	 */
+	public void reorder(GameState parent, List<GameState> children) {
+		int ply = ply(parent);
+		if ((children == null) || (children.size() <= 1) || (ply >= killers.size()))
+			return; // no reorder done
+		String[] plyKillers = killers.get(ply);
+		for (int i = KILLERS_PER_PLY - 1; i >= 0; i--) {
+			if (plyKillers[i] == null)
+				continue;
+			for (int j = 0; j < children.size(); j++)
+				if (plyKillers[i].equals(children.get(j).getMoveName())) {
+					if (j > 0)
+						children.add(0, children.remove(j));
+					usesCount++;
+					break;
+				}
+		}
+	}
+
+	/**
+	 * Returns an iterator over children (for given parent), given as a lazy iterator, putting in front the ones made by
+	 * killer moves of ply of parent (the most recent first), hence in the same order as reorder(...) would. Children are
+	 * taken from the given iterator only until the next killer move is found, the ones passed over meanwhile are
+	 * buffered and follow the killer moves in their original order. Note that all children are taken when a killer move
+	 * is not legal for the parent.
+	 * 
+	 * @param parent reference to parent state
+	 * @param children lazy iterator over children states
+	 * @return iterator over children states, killer moves first
+	 */
+	public Iterator<GameState> reorderLazily(GameState parent, final Iterator<GameState> children) {
+		int ply = ply(parent);
+		if (ply >= killers.size())
+			return children; // no reorder done
+		final String[] plyKillers = killers.get(ply).clone();
+		return new Iterator<GameState>() {
+
+			/**
+			 * Children passed over while looking for killer moves.
+			 */
+			private LinkedList<GameState> passed = new LinkedList<GameState>();
+
+			/**
+			 * Index of the next killer move to look for.
+			 */
+			private int killerIndex = 0;
+
+			/**
+			 * Next child to be returned (null if not determined yet).
+			 */
+			private GameState next = null;
+
+			/**
+			 * Determines the next child to be returned, if possible.
+			 */
+			private void advance() {
+				while ((next == null) && (killerIndex < KILLERS_PER_PLY)) {
+					String killer = plyKillers[killerIndex++];
+					if (killer == null)
+						continue;
+					for (Iterator<GameState> iterator = passed.iterator(); iterator.hasNext();) {
+						GameState child = iterator.next();
+						if (killer.equals(child.getMoveName())) {
+							iterator.remove();
+							next = child;
+							break;
+						}
+					}
+					while ((next == null) && (children.hasNext())) {
+						GameState child = children.next();
+						if (killer.equals(child.getMoveName()))
+							next = child;
+						else
+							passed.add(child);
+					}
+					if (next != null)
+						usesCount++;
+				}
+				if (next == null)
+					next = (!passed.isEmpty()) ? passed.removeFirst() : ((children.hasNext()) ? children.next() : null);
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#hasNext()
+			 */
+			@Override
+			public boolean hasNext() {
+				advance();
+				return (next != null);
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#next()
+			 */
+			@Override
+			public GameState next() {
+				advance();
+				if (next == null)
+					throw new NoSuchElementException();
+				GameState child = next;
+				next = null;
+				return child;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#remove()
+			 */
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Returns number of killer moves kept.
+	 * 
+	 * @return number of killer moves
+	 */
+	public int size() {
+		int size = 0;
+		for (String[] plyKillers : killers)
+			for (String moveName : plyKillers)
+				if (moveName != null)
+					size++;
+		return size;
+	}
+
+	/**
+	 * Clears the table.
+	 */
+	public void clear() {
+		killers.clear();
+		usesCount = 0;
+		rootIdentifier = null;
+	}
+
+	/**
+	 * Returns number of uses (killer moves found among children) since construction or last clear() call.
+	 * 
+	 * @return number of uses
+	 */
+	public int getUsesCount() {
+		return usesCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("");
+		for (int i = 0; i < killers.size(); i++)
+			builder.append(((i > 0) ? ", " : "") + i + ": " + Arrays.toString(killers.get(i)));
+		return builder.toString();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,252 @@
+package sac.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import sac.StateCodec;
+import sac.util.ConsoleLogger;
+
+/**
+ * Lazy SMP parallel game search. A number of threads (see GameSearchConfigurator.setThreads(...)) run iterative
+ * deepening searches (see IterativeDeepening) of the same initial state independently, and communicate only through a
+ * shared lockless transposition table (see TranspositionTableAsLocklessArray). Entries found by one thread cut off
+ * subtrees for others, so that the main thread reaches deeper iterations in the same time. Helper threads are
+ * diversified: every other one searches half a move deeper, every other pair searches with refutation table switched
+ * (hence with a different move ordering). Results (moves scores, game value, principal variation) are taken from the
+ * main thread, helpers are stopped when it finishes. Threads search their own copies of initial state, made via the
+ * state codec given in configurator (without the codec the search runs in a single thread).
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class LazySMP extends GameSearchAlgorithm {
+
+	/**
+	 * Game search algorithm of main thread (e.g. AlphaBetaPruning, Scout), helpers use new instances of its class.
+	 */
+	private GameSearchAlgorithm algorithm = null;
+
+	/**
+	 * Transposition table shared by all threads.
+	 */
+	private TranspositionTableAsLocklessArray sharedTranspositionTable = null;
+
+	/**
+	 * Iterative deepening searches of threads (main one first) in current execution.
+	 */
+	private volatile IterativeDeepening[] workers = new IterativeDeepening[0];
+
+	/**
+	 * Depth limit of the last iteration completed by main thread.
+	 */
+	private double completedDepthLimit = 0.0;
+
+	/**
+	 * Creates new instance of Lazy SMP parallel game search.
+	 * 
+	 * @param algorithm game search algorithm of main thread (e.g. AlphaBetaPruning, Scout)
+	 * @param initial reference to initial state
+	 * @param configurator reference to configurator object
+	 */
+	public LazySMP(GameSearchAlgorithm algorithm, GameState initial, GameSearchConfigurator configurator) {
+		super(initial, configurator);
+		this.algorithm = algorithm;
+		this.refutationTable = algorithm.getRefutationTable();
+	}
+
+	/**
+	 * Creates new instance of Lazy SMP parallel game search.
+	 * 
+	 * @param algorithm game search algorithm of main thread (e.g. AlphaBetaPruning, Scout)
+	 * @param initial reference to initial state
+	 */
+	public LazySMP(GameSearchAlgorithm algorithm, GameState initial) {
+		this(algorithm, initial, null);
+	}
+
+	/**
+	 * Creates new instance of Lazy SMP parallel game search.
+	 * 
+	 * @param algorithm game search algorithm of main thread (e.g. AlphaBetaPruning, Scout)
+	 */
+	public LazySMP(GameSearchAlgorithm algorithm) {
+		this(algorithm, null, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#reset()
+	 */
+	@Override
+	protected void reset() {
+		// tables are managed in doExecute()
+		stopForced = false;
+		movesScores.clear();
+		closedCount = 0;
+		depthReached = 0.0;
+		cutoffsCount = 0;
+		firstMoveCutoffsCount = 0;
+		gameValue = null;
+		completedDepthLimit = 0.0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doExecute()
+	 */
+	@Override
+	protected void doExecute() {
+		// state codec for copies of initial state
+		int threads = Math.max(1, configurator.getThreads());
+		StateCodec stateCodec = null;
+		if (configurator.getStateCodecClassName() != null)
+			try {
+				stateCodec = (StateCodec) Class.forName(configurator.getStateCodecClassName()).getConstructor().newInstance();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		if ((threads > 1) && (stateCodec == null)) {
+			ConsoleLogger.info("Lazy SMP requires a state codec (see GameSearchConfigurator.setStateCodecClassName(...)), searching in a single thread.");
+			threads = 1;
+		}
+
+		// shared transposition table
+		if (sharedTranspositionTable == null)
+			sharedTranspositionTable = new TranspositionTableAsLocklessArray(configurator);
+		else if (!configurator.isTranspositionTableKept())
+			sharedTranspositionTable.clear();
+		sharedTranspositionTable.incrementAge();
+
+		// workers
+		List<IterativeDeepening> workers = new ArrayList<IterativeDeepening>();
+		for (int i = 0; i < threads; i++) {
+			GameSearchAlgorithm workerAlgorithm = algorithm;
+			if (i > 0)
+				try {
+					workerAlgorithm = algorithm.getClass().getConstructor().newInstance();
+				} catch (Exception e) {
+					e.printStackTrace();
+					break;
+				}
+			workerAlgorithm.transpositionTable = sharedTranspositionTable;
+			GameSearchConfigurator workerConfigurator = new GameSearchConfigurator(configurator);
+			workerConfigurator.setTranspositionTableOn(true);
+			workerConfigurator.setTranspositionTableKept(true);
+			if (i % 2 == 1)
+				workerConfigurator.setDepthLimit(configurator.getDepthLimit() + IterativeDeepening.DEPTH_STEP);
+			if ((i / 2) % 2 == 1)
+				workerConfigurator.setRefutationTableOn(!configurator.isRefutationTableOn());
+			GameState workerInitial = (stateCodec != null) ? (GameState) stateCodec.decode(stateCodec.encode(initial)) : initial;
+			workers.add(new IterativeDeepening(workerAlgorithm, workerInitial, workerConfigurator));
+		}
+		this.workers = workers.toArray(new IterativeDeepening[workers.size()]);
+
+		// helpers started, main search in current thread
+		List<Thread> helpers = new ArrayList<Thread>();
+		for (int i = 1; i < workers.size(); i++) {
+			final IterativeDeepening helper = workers.get(i);
+			Thread thread = new Thread(new Runnable() {
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					try {
+						helper.execute();
+					} catch (Exception e) {
+						e.printStackTrace();
+					}
+				}
+			}, "lazy-smp-helper-" + i);
+			thread.setDaemon(true);
+			helpers.add(thread);
+			thread.start();
+		}
+		IterativeDeepening main = workers.get(0);
+		if (!stopForced)
+			main.execute();
+		for (int i = 0; i < helpers.size(); i++)
+			try {
+				while (helpers.get(i).isAlive()) {
+					workers.get(i + 1).forceStop(); // repeated, in case helper was just starting (resetting its flag)
+					helpers.get(i).join(10);
+				}
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+
+		// results of main thread
+		for (IterativeDeepening worker : workers) {
+			closedCount += worker.getClosedStatesCount();
+			depthReached = Math.max(depthReached, worker.getDepthReached());
+			cutoffsCount += worker.getCutoffsCount();
+			firstMoveCutoffsCount += worker.getFirstMoveCutoffsCount();
+		}
+		movesScores.putAll(main.getMovesScores());
+		gameValue = main.getGameValue();
+		completedDepthLimit = main.getCompletedDepthLimit();
+		if (main.getInitial() != initial) {
+			initial.getMovesAlongPrincipalVariation().clear();
+			initial.getMovesAlongPrincipalVariation().addAll(main.getInitial().getMovesAlongPrincipalVariation());
+		}
+		algorithm.setConfigurator(configurator);
+		transpositionTable = sharedTranspositionTable;
+		refutationTable = algorithm.getRefutationTable();
+		current = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doEvaluateMaxState(sac.game.GameState, double, double, double, double)
+	 */
+	@Override
+	public Double doEvaluateMaxState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
+		return algorithm.doEvaluateMaxState(gameState, alpha, beta, depth, depthLimit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doEvaluateMinState(sac.game.GameState, double, double, double, double)
+	 */
+	@Override
+	public Double doEvaluateMinState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
+		return algorithm.doEvaluateMinState(gameState, alpha, beta, depth, depthLimit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#forceStop()
+	 */
+	@Override
+	public void forceStop() {
+		super.forceStop();
+		for (IterativeDeepening worker : workers)
+			worker.forceStop();
+	}
+
+	/**
+	 * Returns game search algorithm of main thread.
+	 * 
+	 * @return game search algorithm of main thread
+	 */
+	public final GameSearchAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * Returns depth limit of the last iteration completed by main thread.
+	 * 
+	 * @return depth limit of the last completed iteration
+	 */
+	public final double getCompletedDepthLimit() {
+		return completedDepthLimit;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,226 @@
+package sac.game;
+
+import java.util.Iterator;
+
+/**
+ * MTD(f) algorithm. Converges on the game value through a sequence of passes of alpha-beta cutoffs with zero windows
+ * (no values inside), each one stating only whether the game value is below or above a tested value, starting from a
+ * first guess. Passes are fail-soft (returned bounds may lie beyond the window), so that the next tested value is the
+ * bound just returned, and the search stops when the lower and upper bounds on the game value meet. Bounds found for
+ * states are kept in the transposition table (see TranspositionTableImpl.putOrUpdate(...)) and combined into exact
+ * values, hence MTD(f) should be used with the transposition table on. The first guess is the game value of the
+ * previous execution (e.g. the previous iteration of IterativeDeepening) or the one set via setFirstGuess(...), or
+ * else the heuristic value of initial state. Moves scores are bounds (lower for the maximizing player, upper for the
+ * minimizing one), exact for the best moves.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class MTDf extends GameSearchAlgorithm {
+
+	/**
+	 * First guess for the next execution (null for heuristic value of initial state).
+	 */
+	private Double firstGuess = null;
+
+	/**
+	 * Number of zero-window passes in last execution.
+	 */
+	private int passesCount = 0;
+
+	/**
+	 * Creates new instance of MTD(f) algorithm.
+	 * 
+	 * @param initial reference to initial state
+	 * @param configurator reference to configurator object
+	 */
+	public MTDf(GameState initial, GameSearchConfigurator configurator) {
+		super(initial, configurator);
+	}
+
+	/**
+	 * Creates new instance of MTD(f) algorithm.
+	 * 
+	 * @param initial reference to initial state
+	 */
+	public MTDf(GameState initial) {
+		super(initial, null);
+	}
+
+	/**
+	 * Creates new instance of MTD(f) algorithm.
+	 */
+	public MTDf() {
+		super(null, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doExecute()
+	 */
+	@Override
+	protected void doExecute() {
+		double lower = initialAlpha;
+		double upper = initialBeta;
+		double guess = (firstGuess != null) ? firstGuess : initial.getH();
+		guess = Math.max(lower, Math.min(upper, guess));
+		passesCount = 0;
+		Double value = null;
+		while (lower < upper) {
+			// zero window just above the guess (if equal to lower bound) or just below it
+			double alpha = (guess == lower) ? guess : Math.nextAfter(guess, Double.NEGATIVE_INFINITY);
+			double beta = (guess == lower) ? Math.nextUp(guess) : guess;
+			initial.getChildren().clear();
+			if (initial.isMaximizingTurnNow())
+				value = evaluateMaxState(initial, alpha, beta, 0.0, configurator.getDepthLimit());
+			else
+				value = evaluateMinState(initial, alpha, beta, 0.0, configurator.getDepthLimit());
+			if (value == null)
+				break; // time limit reached
+			passesCount++;
+			guess = value;
+			if (value < beta)
+				upper = value;
+			else
+				lower = value;
+		}
+		gameValue = value;
+		if (gameValue != null) {
+			firstGuess = gameValue;
+			if (configurator.isTranspositionTableOn())
+				transpositionTable.putOrUpdate(initial, gameValue, initialAlpha, initialBeta);
+		}
+		current = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doEvaluateMaxState(sac.game.GameState, double, double, double, double)
+	 */
+	@Override
+	public Double doEvaluateMaxState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
+		if (isGameStateTerminal(gameState, depth, depthLimit)) {
+			if (configurator.isTranspositionTableOn())
+				transpositionTable.putOrUpdate(gameState, gameState.getH(), alpha, beta);
+			return gameState.getH();
+		}
+		Iterator<GameState> children = generateChildrenLazilyWrapper(gameState);
+		double value = Double.NEGATIVE_INFINITY;
+		for (int i = 0; children.hasNext(); i++) {
+			GameState child = children.next();
+			double a = Math.max(alpha, value);
+			Double childValue = null;
+			if (configurator.isTranspositionTableOn())
+				childValue = transpositionTable.get(child, a, beta);
+			if (childValue == null) {
+				childValue = (child.isMaximizingTurnNow()) ? evaluateMaxState(child, a, beta, depth + 0.5, depthLimit) : evaluateMinState(child, a, beta,
+						depth + 0.5, depthLimit);
+				if (childValue == null)
+					return null;
+				if (configurator.isTranspositionTableOn())
+					transpositionTable.putOrUpdate(child, childValue, a, beta);
+			}
+			if ((depth == 0.0) && (childValue > a)) {
+				// lower bound on move score (exact if inside window)
+				Double score = movesScores.get(child.getMoveName());
+				if ((score == null) || (score < childValue))
+					movesScores.put(child.getMoveName(), childValue);
+			}
+			if (childValue > value) {
+				value = childValue;
+				if (value > alpha) {
+					updateMovesAlongPrincipalVariation(gameState, child);
+					if (configurator.isRefutationTableOn())
+						refutationTable.put(gameState, child);
+				}
+			}
+			if (value >= beta) {
+				registerCutoff(gameState, child, i, depthLimit);
+				return value;
+			}
+		}
+
+		return value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doEvaluateMinState(sac.game.GameState, double, double, double, double)
+	 */
+	@Override
+	public Double doEvaluateMinState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
+		if (isGameStateTerminal(gameState, depth, depthLimit)) {
+			if (configurator.isTranspositionTableOn())
+				transpositionTable.putOrUpdate(gameState, gameState.getH(), alpha, beta);
+			return gameState.getH();
+		}
+		Iterator<GameState> children = generateChildrenLazilyWrapper(gameState);
+		double value = Double.POSITIVE_INFINITY;
+		for (int i = 0; children.hasNext(); i++) {
+			GameState child = children.next();
+			double b = Math.min(beta, value);
+			Double childValue = null;
+			if (configurator.isTranspositionTableOn())
+				childValue = transpositionTable.get(child, alpha, b);
+			if (childValue == null) {
+				childValue = (child.isMaximizingTurnNow()) ? evaluateMaxState(child, alpha, b, depth + 0.5, depthLimit) : evaluateMinState(child, alpha, b,
+						depth + 0.5, depthLimit);
+				if (childValue == null)
+					return null;
+				if (configurator.isTranspositionTableOn())
+					transpositionTable.putOrUpdate(child, childValue, alpha, b);
+			}
+			if ((depth == 0.0) && (childValue < b)) {
+				// upper bound on move score (exact if inside window)
+				Double score = movesScores.get(child.getMoveName());
+				if ((score == null) || (score > childValue))
+					movesScores.put(child.getMoveName(), childValue);
+			}
+			if (childValue < value) {
+				value = childValue;
+				if (value < beta) {
+					updateMovesAlongPrincipalVariation(gameState, child);
+					if (configurator.isRefutationTableOn())
+						refutationTable.put(gameState, child);
+				}
+			}
+			if (alpha >= value) {
+				registerCutoff(gameState, child, i, depthLimit);
+				return value;
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns first guess for the next execution (null for heuristic value of initial state).
+	 * 
+	 * @return first guess
+	 */
+	public final Double getFirstGuess() {
+		return firstGuess;
+	}
+
+	/**
+	 * Sets first guess for the next execution (null for heuristic value of initial state). After each completed
+	 * execution the first guess is set to the game value found.
+	 * 
+	 * @param firstGuess first guess
+	 */
+	public final void setFirstGuess(Double firstGuess) {
+		this.firstGuess = firstGuess;
+	}
+
+	/**
+	 * Returns number of zero-window passes in last execution.
+	 * 
+	 * @return number of passes
+	 */
+	public final int getPassesCount() {
+		return passesCount;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,362 @@
+package sac.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import sac.Identifier;
+
+/**
+ * Root-split parallel game search. Children of initial state (root moves) are generated once, ordered (by the
+ * refutation table, if on) and their subtrees are searched in parallel on a fixed pool of threads (see
+ * GameSearchConfigurator.setThreads(...)), each one by a single worker (an instance of the wrapped algorithm class, e.g.
+ * MinMax, AlphaBetaPruning, Scout) that generates its own subtree. Workers share the best value found so far at root
+ * (alpha for the maximizing player, beta for the minimizing one) via an atomically improved bound, so that moves
+ * started later get tighter windows. Results are combined in the order of moves, hence moves scores, game value and
+ * principal variation are as in the serial search, up to choices among moves of equal values. Values failing low with
+ * respect to windows tightened by other moves are not scored. MIN-MAX ignores windows, hence for it the search is
+ * just distributed. The transposition table is shared between threads (see TranspositionTableAsLocklessArray), each
+ * worker has its own refutation table.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class RootSplit extends GameSearchAlgorithm {
+
+	/**
+	 * Wrapped game search algorithm (the first worker), other workers use new instances of its class.
+	 */
+	private GameSearchAlgorithm algorithm = null;
+
+	/**
+	 * Transposition table shared by all threads.
+	 */
+	private TranspositionTableAsLocklessArray sharedTranspositionTable = null;
+
+	/**
+	 * Fixed pool of threads.
+	 */
+	private ExecutorService executor = null;
+
+	/**
+	 * Workers (one per thread of pool).
+	 */
+	private volatile GameSearchAlgorithm[] workers = new GameSearchAlgorithm[0];
+
+	/**
+	 * Creates new instance of root-split parallel game search.
+	 * 
+	 * @param algorithm wrapped game search algorithm (e.g. MinMax, AlphaBetaPruning, Scout)
+	 * @param initial reference to initial state
+	 * @param configurator reference to configurator object
+	 */
+	public RootSplit(GameSearchAlgorithm algorithm, GameState initial, GameSearchConfigurator configurator) {
+		super(initial, configurator);
+		this.algorithm = algorithm;
+		this.refutationTable = algorithm.getRefutationTable();
+	}
+
+	/**
+	 * Creates new instance of root-split parallel game search.
+	 * 
+	 * @param algorithm wrapped game search algorithm (e.g. MinMax, AlphaBetaPruning, Scout)
+	 * @param initial reference to initial state
+	 */
+	public RootSplit(GameSearchAlgorithm algorithm, GameState initial) {
+		this(algorithm, initial, null);
+	}
+
+	/**
+	 * Creates new instance of root-split parallel game search.
+	 * 
+	 * @param algorithm wrapped game search algorithm (e.g. MinMax, AlphaBetaPruning, Scout)
+	 */
+	public RootSplit(GameSearchAlgorithm algorithm) {
+		this(algorithm, null, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#reset()
+	 */
+	@Override
+	protected void reset() {
+		// tables are managed in doExecute()
+		stopForced = false;
+		Identifier.setType(this.configurator.getIdentifierType());
+		if (initial != null) {
+			initial.refresh();
+			initial.setParent(null);
+			initial.setMoveName("");
+			initial.setDepth(0.0);
+			initial.getChildren().clear();
+			recalculateHIfLarge(initial);
+		}
+		movesScores.clear();
+		closedCount = 0;
+		depthReached = 0.0;
+		cutoffsCount = 0;
+		firstMoveCutoffsCount = 0;
+		gameValue = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doExecute()
+	 */
+	@Override
+	protected void doExecute() {
+		final double depthLimit = configurator.getDepthLimit();
+
+		// shared transposition table
+		if (sharedTranspositionTable == null)
+			sharedTranspositionTable = new TranspositionTableAsLocklessArray(configurator);
+		else if (!configurator.isTranspositionTableKept())
+			sharedTranspositionTable.clear();
+		sharedTranspositionTable.incrementAge();
+		transpositionTable = sharedTranspositionTable;
+		sharedTranspositionTable.setDepthLimit(depthLimit);
+
+		// pool of threads and workers (kept between executions)
+		int threads = Math.max(1, configurator.getThreads());
+		if ((executor == null) || (workers.length != threads)) {
+			if (executor != null)
+				executor.shutdown();
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+
+				/**
+				 * Number of threads created so far.
+				 */
+				private int count = 0;
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+				 */
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "root-split-worker-" + (count++));
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			List<GameSearchAlgorithm> workers = new ArrayList<GameSearchAlgorithm>();
+			workers.add(algorithm);
+			for (int i = 1; i < threads; i++)
+				try {
+					workers.add(algorithm.getClass().getConstructor().newInstance());
+				} catch (Exception e) {
+					e.printStackTrace();
+					break;
+				}
+			this.workers = workers.toArray(new GameSearchAlgorithm[workers.size()]);
+			Identifier.setType(configurator.getIdentifierType()); // constructors of workers set the default one
+		}
+		GameSearchConfigurator workerConfigurator = new GameSearchConfigurator(configurator);
+		workerConfigurator.setTranspositionTableKept(true);
+		final BlockingQueue<GameSearchAlgorithm> idleWorkers = new LinkedBlockingQueue<GameSearchAlgorithm>();
+		for (GameSearchAlgorithm worker : workers) {
+			worker.setConfigurator(workerConfigurator);
+			worker.transpositionTable = sharedTranspositionTable;
+			worker.refutationTable.reset();
+			worker.stopForced = stopForced;
+			worker.setStartTime(startTime);
+			worker.closedCount = 0;
+			worker.depthReached = 0.0;
+			worker.cutoffsCount = 0;
+			worker.firstMoveCutoffsCount = 0;
+			idleWorkers.add(worker);
+		}
+
+		// initial state
+		closedCount++;
+		current = initial;
+		initial.setVisited(true);
+		if (isGameStateTerminal(initial, 0.0, depthLimit))
+			gameValue = initial.getH();
+		else
+			gameValue = evaluateRootMoves(idleWorkers, depthLimit);
+
+		for (GameSearchAlgorithm worker : workers) {
+			closedCount += worker.closedCount;
+			depthReached = Math.max(depthReached, worker.depthReached);
+			cutoffsCount += worker.cutoffsCount;
+			firstMoveCutoffsCount += worker.firstMoveCutoffsCount;
+		}
+		if ((configurator.isTranspositionTableOn()) && (gameValue != null))
+			transpositionTable.putOrUpdate(initial, gameValue, initialAlpha, initialBeta);
+		algorithm.setConfigurator(configurator);
+		refutationTable = algorithm.getRefutationTable();
+		current = null;
+	}
+
+	/**
+	 * Evaluates children of initial state in parallel and combines their values (in the order of children).
+	 * 
+	 * @param idleWorkers queue of workers waiting for root moves
+	 * @param depthLimit depth limit
+	 * @return game value of initial state (or null if time limit is reached)
+	 */
+	private Double evaluateRootMoves(final BlockingQueue<GameSearchAlgorithm> idleWorkers, final double depthLimit) {
+		final boolean maximizing = initial.isMaximizingTurnNow();
+		final boolean windowsShared = !(algorithm instanceof MinMax);
+		final List<GameState> children = generateChildrenWrapper(initial);
+		if (configurator.isRefutationTableOn())
+			refutationTable.reorder(initial, children);
+
+		// bound improved by workers: alpha for maximizing player, beta for minimizing one
+		final AtomicLong sharedBound = new AtomicLong(Double.doubleToLongBits((maximizing) ? initialAlpha : initialBeta));
+		final double[] alphas = new double[children.size()];
+		final double[] betas = new double[children.size()];
+		List<Future<Double>> futures = new ArrayList<Future<Double>>();
+		for (int i = 0; i < children.size(); i++) {
+			final int index = i;
+			futures.add(executor.submit(new Callable<Double>() {
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.util.concurrent.Callable#call()
+				 */
+				@Override
+				public Double call() throws Exception {
+					GameSearchAlgorithm worker = idleWorkers.take();
+					try {
+						double bound = Double.longBitsToDouble(sharedBound.get());
+						double alpha = (windowsShared) ? ((maximizing) ? bound : initialAlpha) : Double.NEGATIVE_INFINITY;
+						double beta = (windowsShared) ? ((maximizing) ? initialBeta : bound) : Double.POSITIVE_INFINITY;
+						alphas[index] = alpha;
+						betas[index] = beta;
+						if (alpha >= beta)
+							return (maximizing) ? alpha : beta; // cutoff at root already found, value fails low (high)
+						sharedTranspositionTable.setDepthLimit(depthLimit);
+						GameState child = children.get(index);
+						Double childValue = null;
+						if (configurator.isTranspositionTableOn())
+							childValue = transpositionTable.get(child, alpha, beta);
+						if (childValue == null) {
+							childValue = (child.isMaximizingTurnNow()) ? worker.evaluateMaxState(child, alpha, beta, 0.5, depthLimit) : worker.evaluateMinState(
+									child, alpha, beta, 0.5, depthLimit);
+							if (childValue == null)
+								return null;
+							if (configurator.isTranspositionTableOn())
+								transpositionTable.putOrUpdate(child, childValue, alpha, beta);
+						}
+						if (windowsShared)
+							while (true) {
+								long boundBits = sharedBound.get();
+								double boundValue = Double.longBitsToDouble(boundBits);
+								if (((maximizing) ? (childValue <= boundValue) : (childValue >= boundValue))
+										|| (sharedBound.compareAndSet(boundBits, Double.doubleToLongBits(childValue))))
+									break;
+							}
+						return childValue;
+					} finally {
+						idleWorkers.put(worker);
+					}
+				}
+			}));
+		}
+
+		// combining values in the order of children
+		Double value = (maximizing) ? ((windowsShared) ? initialAlpha : Double.NEGATIVE_INFINITY) : ((windowsShared) ? initialBeta
+				: Double.POSITIVE_INFINITY);
+		for (int i = 0; i < futures.size(); i++) {
+			Double childValue = null;
+			try {
+				childValue = futures.get(i).get();
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			} catch (ExecutionException e) {
+				e.printStackTrace();
+			}
+			if (childValue == null) {
+				value = null;
+				break;
+			}
+			GameState child = children.get(i);
+			if (isExactGameValue(childValue, alphas[i], betas[i]))
+				movesScores.put(child.getMoveName(), childValue);
+			if ((maximizing) ? (childValue > Math.max(value, alphas[i])) : (childValue < Math.min(value, betas[i]))) {
+				value = childValue;
+				updateMovesAlongPrincipalVariation(initial, child);
+				if (configurator.isRefutationTableOn())
+					refutationTable.put(initial, child);
+			}
+			if ((windowsShared) && ((maximizing) ? (value >= initialBeta) : (value <= initialAlpha)))
+				break;
+		}
+
+		// remaining moves (after cutoff or time limit): queued ones cancelled, running ones stopped and awaited
+		for (Future<Double> future : futures)
+			if (!future.isDone()) {
+				for (Future<Double> queued : futures)
+					queued.cancel(false); // no effect on running or completed moves
+				for (GameSearchAlgorithm worker : workers)
+					worker.forceStop();
+				break;
+			}
+		for (Future<Double> future : futures)
+			if (!future.isCancelled())
+				try {
+					future.get();
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				} catch (ExecutionException e) {
+					e.printStackTrace();
+				}
+		return value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doEvaluateMaxState(sac.game.GameState, double, double, double, double)
+	 */
+	@Override
+	public Double doEvaluateMaxState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
+		return algorithm.doEvaluateMaxState(gameState, alpha, beta, depth, depthLimit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doEvaluateMinState(sac.game.GameState, double, double, double, double)
+	 */
+	@Override
+	public Double doEvaluateMinState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
+		return algorithm.doEvaluateMinState(gameState, alpha, beta, depth, depthLimit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#forceStop()
+	 */
+	@Override
+	public void forceStop() {
+		super.forceStop();
+		for (GameSearchAlgorithm worker : workers)
+			worker.forceStop();
+	}
+
+	/**
+	 * Returns wrapped game search algorithm.
+	 * 
+	 * @return wrapped game search algorithm
+	 */
+	public final GameSearchAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+}
\ No newline at end of file
@@ -1,9 +1,11 @@
 package sac.game;
 
-import java.util.List;
+import java.util.Iterator;
 
 /**
- * Scout algorithm.
+ * Scout algorithm. Optionally (see GameSearchConfigurator) with null-move pruning and late move reductions, as in
+ * AlphaBetaPruning: late children are first searched with reduced depth and the scout window, and searched as usual
+ * only if the reduced search does not confirm they are worse than the best one so far.
  * 
  * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
  * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
@@ -48,17 +50,37 @@ public class Scout extends GameSearchAlgorithm {
 				transpositionTable.putOrUpdate(gameState, gameState.getH(), alpha, beta);
 			return gameState.getH();
 		}
-		List<GameState> children = generateChildrenWrapper(gameState);
-		if (configurator.isRefutationTableOn())
-			refutationTable.reorder(gameState, children);
+		if (beta < Double.POSITIVE_INFINITY) {
+			GameState passChild = generatePassChildWrapper(gameState, depth, depthLimit);
+			if (passChild != null) {
+				// null move: cut-off if the opponent cannot get below beta even when moving twice
+				Double passValue = evaluateReduced(passChild, Math.nextAfter(beta, Double.NEGATIVE_INFINITY), beta, depth + 0.5, depthLimit
+						- configurator.getNullMoveReduction());
+				if (passValue == null)
+					return null; // time limit reached
+				if (passValue >= beta)
+					return beta;
+			}
+		}
+		Iterator<GameState> children = generateChildrenLazilyWrapper(gameState);
 		double b = beta;
-		for (int i = 0; i < children.size(); i++) {
-			GameState child = children.get(i);
+		for (int i = 0; children.hasNext(); i++) {
+			GameState child = children.next();
 			Double childValue = null;
 			boolean researchNeeded = false;
 			double bound = alpha;
+			boolean reductionConfirmed = false;
 			if (configurator.isTranspositionTableOn())
 				childValue = transpositionTable.get(child, alpha, b);
+			if ((childValue == null) && (isLateMoveReductionApplicable(gameState, child, i, depth, depthLimit))) {
+				// late move searched with reduced depth first, searched as usual if it does not fail low
+				childValue = evaluateReduced(child, alpha, b, depth + 0.5, depthLimit - configurator.getLateMoveReduction());
+				if (childValue == null)
+					return null; // time limit reached
+				reductionConfirmed = (childValue <= alpha);
+				if (!reductionConfirmed)
+					childValue = null;
+			}
 			if (childValue == null) {
 				if (child.isMaximizingTurnNow()) {
 					// scout search with zero window
@@ -88,7 +110,7 @@ public class Scout extends GameSearchAlgorithm {
 					}
 				}
 			}
-			if (configurator.isTranspositionTableOn()) {
+			if ((configurator.isTranspositionTableOn()) && (!reductionConfirmed)) {
 				if (!researchNeeded)
 					transpositionTable.putOrUpdate(child, childValue, alpha, b);
 				else
@@ -102,8 +124,10 @@ public class Scout extends GameSearchAlgorithm {
 				if (configurator.isRefutationTableOn())
 					refutationTable.put(gameState, child);
 			}
-			if (alpha >= beta) 
-				return alpha;			
+			if (alpha >= beta) {
+				registerCutoff(gameState, child, i, depthLimit);
+				return alpha;
+			}
 			if (Math.abs(alpha) < GameState.H_SMALLEST_INFINITY)
 				b = alpha + 1.0;
 		}
@@ -123,17 +147,36 @@ public class Scout extends GameSearchAlgorithm {
 				transpositionTable.putOrUpdate(gameState, gameState.getH(), alpha, beta);
 			return gameState.getH();
 		}
-		List<GameState> children = generateChildrenWrapper(gameState);
-		if (configurator.isRefutationTableOn())
-			refutationTable.reorder(gameState, children);
+		if (alpha > Double.NEGATIVE_INFINITY) {
+			GameState passChild = generatePassChildWrapper(gameState, depth, depthLimit);
+			if (passChild != null) {
+				// null move: cut-off if the opponent cannot get above alpha even when moving twice
+				Double passValue = evaluateReduced(passChild, alpha, Math.nextUp(alpha), depth + 0.5, depthLimit - configurator.getNullMoveReduction());
+				if (passValue == null)
+					return null; // time limit reached
+				if (passValue <= alpha)
+					return alpha;
+			}
+		}
+		Iterator<GameState> children = generateChildrenLazilyWrapper(gameState);
 		double a = alpha;
-		for (int i = 0; i < children.size(); i++) {
-			GameState child = children.get(i);
+		for (int i = 0; children.hasNext(); i++) {
+			GameState child = children.next();
 			Double childValue = null;
 			boolean researchNeeded = false;
 			double bound = beta;
+			boolean reductionConfirmed = false;
 			if (configurator.isTranspositionTableOn())
 				childValue = transpositionTable.get(child, a, beta);
+			if ((childValue == null) && (isLateMoveReductionApplicable(gameState, child, i, depth, depthLimit))) {
+				// late move searched with reduced depth first, searched as usual if it does not fail high
+				childValue = evaluateReduced(child, a, beta, depth + 0.5, depthLimit - configurator.getLateMoveReduction());
+				if (childValue == null)
+					return null; // time limit reached
+				reductionConfirmed = (childValue >= beta);
+				if (!reductionConfirmed)
+					childValue = null;
+			}
 			if (childValue == null) {
 				if (child.isMaximizingTurnNow()) {
 					// scout search with zero window
@@ -163,7 +206,7 @@ public class Scout extends GameSearchAlgorithm {
 					}
 				}
 			}
-			if (configurator.isTranspositionTableOn()) {
+			if ((configurator.isTranspositionTableOn()) && (!reductionConfirmed)) {
 				if (!researchNeeded)
 					transpositionTable.putOrUpdate(child, childValue, a, beta);
 				else
@@ -177,8 +220,10 @@ public class Scout extends GameSearchAlgorithm {
 				if (configurator.isRefutationTableOn())
 					refutationTable.put(gameState, child);
 			}
-			if (alpha >= beta)
-				return beta;		
+			if (alpha >= beta) {
+				registerCutoff(gameState, child, i, depthLimit);
+				return beta;
+			}
 			if (Math.abs(beta) < GameState.H_SMALLEST_INFINITY)
 				a = beta - 1.0;
 		}
@@ -0,0 +1,536 @@
+package sac.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of transposition table as a fixed-size array of packed entries. Capacity is a power of two calculated
+ * from the size in megabytes given in configurator, the table never grows and entries colliding at the same place are
+ * replaced according to the configured replacement scheme (see TranspositionTableReplacementScheme). Each entry takes
+ * three consecutive long slots: 64-bit key of game state (identifier and depth, used as a check against collisions of
+ * indexes), game value (bits of double) and meta data (bound type, draft, index of best move name, age). Only one value
+ * with its bound type is kept per entry, hence no objects are allocated on puts and gets. Moves names are kept once in a
+ * dictionary and referred to by indexes.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class TranspositionTableAsArray extends TranspositionTableImpl {
+
+	/**
+	 * Number of long slots per entry.
+	 */
+	protected static final int SLOTS_PER_ENTRY = 3;
+
+	/**
+	 * Offset of game value slot within entry.
+	 */
+	protected static final int VALUE_OFFSET = 1;
+
+	/**
+	 * Offset of meta data slot within entry.
+	 */
+	protected static final int META_OFFSET = 2;
+
+	/**
+	 * Bound type of empty entry.
+	 */
+	protected static final int BOUND_NONE = 0;
+
+	/**
+	 * Bound type of exact game value.
+	 */
+	protected static final int BOUND_EXACT = 1;
+
+	/**
+	 * Bound type of lower bound on game value.
+	 */
+	protected static final int BOUND_LOWER = 2;
+
+	/**
+	 * Bound type of upper bound on game value.
+	 */
+	protected static final int BOUND_UPPER = 3;
+
+	/**
+	 * Packed draft standing for infinite draft.
+	 */
+	private static final int DRAFT_INFINITE = 0x7FFF;
+
+	/**
+	 * Maximal number of distinct moves names in dictionary.
+	 */
+	protected static final int MOVES_NAMES_LIMIT = (1 << 20) - 1;
+
+	/**
+	 * Maximal number of entries.
+	 */
+	private static final int CAPACITY_LIMIT = 1 << 29;
+
+	/**
+	 * Array of packed entries.
+	 */
+	protected long[] entries;
+
+	/**
+	 * Mask for indexes of entries (capacity - 1).
+	 */
+	protected int mask;
+
+	/**
+	 * Replacement scheme.
+	 */
+	protected TranspositionTableReplacementScheme replacementScheme;
+
+	/**
+	 * Current number of occupied entries.
+	 */
+	protected int size = 0;
+
+	/**
+	 * Age of current search (entries of earlier searches are replaced first), incremented on each setDepthLimit(...).
+	 */
+	protected int age = 0;
+
+	/**
+	 * Dictionary of moves names (indexes of names).
+	 */
+	private Map<String, Integer> movesNamesIndexes = new HashMap<String, Integer>();
+
+	/**
+	 * Dictionary of moves names (names at indexes).
+	 */
+	private List<String> movesNames = new ArrayList<String>();
+
+	/**
+	 * Creates a new instance of TranspositionTableAsArray.
+	 * 
+	 * @param sizeInMB size of table in megabytes
+	 * @param replacementScheme replacement scheme
+	 */
+	public TranspositionTableAsArray(int sizeInMB, TranspositionTableReplacementScheme replacementScheme) {
+		long requested = Math.max(2L, ((long) sizeInMB << 20) / (SLOTS_PER_ENTRY * 8));
+		int capacity = (int) Math.min(Long.highestOneBit(requested), CAPACITY_LIMIT);
+		this.entries = new long[capacity * SLOTS_PER_ENTRY];
+		this.mask = capacity - 1;
+		this.replacementScheme = replacementScheme;
+	}
+
+	/**
+	 * Creates a new instance of TranspositionTableAsArray with size and replacement scheme taken from configurator.
+	 * 
+	 * @param configurator reference to configurator object
+	 */
+	public TranspositionTableAsArray(GameSearchConfigurator configurator) {
+		this(configurator.getTranspositionTableSizeInMB(), configurator.getTranspositionTableReplacementScheme());
+	}
+
+	/**
+	 * Creates a new instance of TranspositionTableAsArray with default settings of configurator.
+	 */
+	public TranspositionTableAsArray() {
+		this(new GameSearchConfigurator());
+	}
+
+	/**
+	 * Returns 64-bit key of given game state (mixing identifier and depth of state).
+	 * 
+	 * @param gameState reference to game state
+	 * @return 64-bit key
+	 */
+	protected static long key(GameState gameState) {
+		long key = gameState.getIdentifier().longHashCode() ^ ((long) (gameState.getDepth() * 2.0) * 0xC2B2AE3D27D4EB4FL);
+		key ^= key >>> 33;
+		key *= 0xFF51AFD7ED558CCDL;
+		key ^= key >>> 33;
+		return key;
+	}
+
+	/**
+	 * Returns position (of first slot) of entry for given key and bucket place (0 or 1, used by TWO_TIER scheme).
+	 * 
+	 * @param key 64-bit key
+	 * @param place place within bucket
+	 * @return position of entry
+	 */
+	protected final int position(long key, int place) {
+		int index = (int) key & mask;
+		if (replacementScheme == TranspositionTableReplacementScheme.TWO_TIER)
+			index = (index & ~1) | place;
+		return index * SLOTS_PER_ENTRY;
+	}
+
+	/**
+	 * Returns position of entry holding given key or -1 if not present.
+	 * 
+	 * @param key 64-bit key
+	 * @return position of entry or -1
+	 */
+	protected int find(long key) {
+		int places = (replacementScheme == TranspositionTableReplacementScheme.TWO_TIER) ? 2 : 1;
+		for (int place = 0; place < places; place++) {
+			int position = position(key, place);
+			if (matches(position, key, entries[position + VALUE_OFFSET], entries[position + META_OFFSET]))
+				return position;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns boolean flag stating if entry at given position, with given value and meta data slots (as read by caller),
+	 * is an occupied entry for given key.
+	 * 
+	 * @param position position of entry
+	 * @param key 64-bit key
+	 * @param valueBits content of value slot
+	 * @param meta content of meta data slot
+	 * @return boolean flag stating if entry matches key
+	 */
+	protected final boolean matches(int position, long key, long valueBits, long meta) {
+		return (bound(meta) != BOUND_NONE) && (storedKey(position, valueBits, meta) == key);
+	}
+
+	/**
+	 * Returns key stored at given position, given value and meta data slots (as read by caller).
+	 * 
+	 * @param position position of entry
+	 * @param valueBits content of value slot
+	 * @param meta content of meta data slot
+	 * @return stored key
+	 */
+	protected long storedKey(int position, long valueBits, long meta) {
+		return entries[position];
+	}
+
+	/**
+	 * Returns content of key slot to be written for given key, value and meta data slots.
+	 * 
+	 * @param key 64-bit key
+	 * @param valueBits content of value slot
+	 * @param meta content of meta data slot
+	 * @return content of key slot
+	 */
+	protected long keySlot(long key, long valueBits, long meta) {
+		return key;
+	}
+
+	/**
+	 * Packs meta data of entry.
+	 * 
+	 * @param bound bound type
+	 * @param draft draft (remaining depth of search)
+	 * @param moveIndex index of best move name plus one (0 for none)
+	 * @return packed meta data
+	 */
+	protected final long meta(int bound, double draft, int moveIndex) {
+		int packedDraft;
+		if (draft >= DRAFT_INFINITE / 2.0)
+			packedDraft = DRAFT_INFINITE;
+		else
+			packedDraft = (int) Math.max(Short.MIN_VALUE, Math.round(draft * 2.0));
+		return bound | ((long) (packedDraft & 0xFFFF) << 2) | ((long) moveIndex << 18) | ((long) age << 38);
+	}
+
+	/**
+	 * Unpacks bound type from meta data.
+	 * 
+	 * @param meta meta data
+	 * @return bound type
+	 */
+	protected static int bound(long meta) {
+		return (int) (meta & 0x3);
+	}
+
+	/**
+	 * Unpacks draft from meta data.
+	 * 
+	 * @param meta meta data
+	 * @return draft
+	 */
+	protected static double draft(long meta) {
+		int packedDraft = (short) ((meta >>> 2) & 0xFFFF);
+		return (packedDraft == DRAFT_INFINITE) ? Double.POSITIVE_INFINITY : packedDraft / 2.0;
+	}
+
+	/**
+	 * Unpacks index of best move name plus one (0 for none) from meta data.
+	 * 
+	 * @param meta meta data
+	 * @return index of best move name plus one
+	 */
+	protected static int moveIndex(long meta) {
+		return (int) ((meta >>> 18) & MOVES_NAMES_LIMIT);
+	}
+
+	/**
+	 * Unpacks age from meta data.
+	 * 
+	 * @param meta meta data
+	 * @return age
+	 */
+	protected static int age(long meta) {
+		return (int) ((meta >>> 38) & 0xFF);
+	}
+
+	/**
+	 * Returns index of given move name in dictionary plus one (0 for null or when dictionary is full).
+	 * 
+	 * @param moveName move name
+	 * @return index of move name plus one
+	 */
+	protected int moveIndex(String moveName) {
+		if (moveName == null)
+			return 0;
+		Integer index = movesNamesIndexes.get(moveName);
+		if (index == null) {
+			if (movesNames.size() >= MOVES_NAMES_LIMIT)
+				return 0;
+			index = movesNames.size();
+			movesNames.add(moveName);
+			movesNamesIndexes.put(moveName, index);
+		}
+		return index + 1;
+	}
+
+	/**
+	 * Returns move name of given index plus one from dictionary.
+	 * 
+	 * @param moveIndex index of move name plus one (greater than 0)
+	 * @return move name
+	 */
+	protected String moveName(int moveIndex) {
+		return movesNames.get(moveIndex - 1);
+	}
+
+	/**
+	 * Writes entry at given position.
+	 * 
+	 * @param position position of entry
+	 * @param key 64-bit key
+	 * @param value game value
+	 * @param meta meta data
+	 */
+	protected void write(int position, long key, double value, long meta) {
+		if (bound(entries[position + META_OFFSET]) == BOUND_NONE)
+			size++;
+		long valueBits = Double.doubleToRawLongBits(value);
+		entries[position] = keySlot(key, valueBits, meta);
+		entries[position + VALUE_OFFSET] = valueBits;
+		entries[position + META_OFFSET] = meta;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableImpl#setDepthLimit(double)
+	 */
+	@Override
+	public void setDepthLimit(double depthLimit) {
+		super.setDepthLimit(depthLimit);
+		incrementAge();
+	}
+
+	/**
+	 * Increments age of current search, making entries of earlier searches replaceable.
+	 */
+	public void incrementAge() {
+		age = (age + 1) & 0xFF;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableImpl#doGet(sac.game.GameState, double, double)
+	 */
+	@Override
+	protected Double doGet(GameState gameState, double alpha, double beta) {
+		long key = key(gameState);
+		int position = find(key);
+		if (position < 0)
+			return null;
+		long valueBits = entries[position + VALUE_OFFSET];
+		long meta = entries[position + META_OFFSET];
+		if (!matches(position, key, valueBits, meta)) // overwritten meanwhile
+			return null;
+		if (draft(meta) < draft(gameState)) // calculated for a shallower search
+			return null;
+		double value = Double.longBitsToDouble(valueBits);
+		int bound = bound(meta);
+		if ((bound == BOUND_EXACT) || ((bound == BOUND_UPPER) && (value <= alpha)) || ((bound == BOUND_LOWER) && (beta <= value))) {
+			usesCount++;
+			return value;
+		}
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableImpl#doGet(sac.game.GameState)
+	 */
+	@Override
+	protected TranspositionTableEntry doGet(GameState gameState) {
+		long key = key(gameState);
+		int position = find(key);
+		if (position < 0)
+			return null;
+		long valueBits = entries[position + VALUE_OFFSET];
+		long meta = entries[position + META_OFFSET];
+		if (!matches(position, key, valueBits, meta)) // overwritten meanwhile
+			return null;
+		Double value = Double.valueOf(Double.longBitsToDouble(valueBits));
+		int bound = bound(meta);
+		TranspositionTableEntry entry = new TranspositionTableEntry((bound == BOUND_LOWER) ? value : null, (bound == BOUND_EXACT) ? value : null,
+				(bound == BOUND_UPPER) ? value : null, draft(meta));
+		int moveIndex = moveIndex(meta);
+		if (moveIndex > 0)
+			entry.setBestMoveName(moveName(moveIndex));
+		return entry;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableImpl#putOrUpdate(sac.game.GameState, java.lang.Double, double, double)
+	 */
+	@Override
+	public void putOrUpdate(GameState gameState, Double value, double alpha, double beta) {
+		long key = key(gameState);
+		double draft = draft(gameState);
+		int bound;
+		if (GameSearchAlgorithm.isExactGameValue(value, alpha, beta))
+			bound = BOUND_EXACT;
+		else
+			bound = (value <= alpha) ? BOUND_UPPER : BOUND_LOWER; // fail low - upper bound, fail high - lower bound
+		double newValue = value;
+		int moveIndex = moveIndex(bestMoveName(gameState));
+
+		int position = find(key);
+		long valueBits = 0L;
+		long meta = 0L;
+		if (position >= 0) {
+			valueBits = entries[position + VALUE_OFFSET];
+			meta = entries[position + META_OFFSET];
+			if (!matches(position, key, valueBits, meta))
+				position = -1; // overwritten meanwhile
+		}
+		if (position >= 0) {
+			// update
+			double oldDraft = draft(meta);
+			if (oldDraft > draft)
+				return; // entry calculated for a deeper search kept
+			if (moveIndex == 0)
+				moveIndex = moveIndex(meta);
+			if ((oldDraft == draft) && (bound != BOUND_EXACT)) {
+				int oldBound = bound(meta);
+				double oldValue = Double.longBitsToDouble(valueBits);
+				if (oldBound == BOUND_EXACT)
+					return; // exact value kept
+				if (oldBound == bound) {
+					if (((bound == BOUND_UPPER) && (oldValue <= newValue)) || ((bound == BOUND_LOWER) && (oldValue >= newValue)))
+						return; // tighter bound kept
+				} else if (oldValue == newValue)
+					bound = BOUND_EXACT; // equal lower and upper bounds
+			}
+			write(position, key, newValue, meta(bound, draft, moveIndex));
+			return;
+		}
+
+		// put (with possible replacement)
+		meta = meta(bound, draft, moveIndex);
+		switch (replacementScheme) {
+		case ALWAYS_REPLACE:
+			write(position(key, 0), key, newValue, meta);
+			break;
+		case DEPTH_PREFERRED:
+			position = position(key, 0);
+			if (isReplaceable(position, draft))
+				write(position, key, newValue, meta);
+			break;
+		default: // TWO_TIER
+			position = position(key, 0);
+			if (isReplaceable(position, draft)) {
+				// depth-preferred entry degraded to always-replaced place
+				long firstValueBits = entries[position + VALUE_OFFSET];
+				long firstMeta = entries[position + META_OFFSET];
+				if (bound(firstMeta) != BOUND_NONE)
+					write(position(key, 1), storedKey(position, firstValueBits, firstMeta), Double.longBitsToDouble(firstValueBits), firstMeta);
+				write(position, key, newValue, meta);
+			} else
+				write(position(key, 1), key, newValue, meta);
+		}
+	}
+
+	/**
+	 * Returns boolean flag stating if entry at given position can be replaced (in depth-preferred manner) by an entry
+	 * of given draft, i.e. if it is empty, comes from an earlier search or has a draft not greater than given one.
+	 * 
+	 * @param position position of entry
+	 * @param draft draft of new entry
+	 * @return boolean flag stating if entry can be replaced
+	 */
+	protected boolean isReplaceable(int position, double draft) {
+		long meta = entries[position + META_OFFSET];
+		return (bound(meta) == BOUND_NONE) || (age(meta) != age) || (draft(meta) <= draft);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableImpl#remove(sac.game.GameState)
+	 */
+	@Override
+	public void remove(GameState gameState) {
+		int position = find(key(gameState));
+		if (position >= 0) {
+			entries[position] = 0L;
+			entries[position + VALUE_OFFSET] = 0L;
+			entries[position + META_OFFSET] = 0L;
+			size--;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableImpl#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns capacity of table (maximal number of entries).
+	 * 
+	 * @return capacity of table
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableImpl#clear()
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(entries, 0L);
+		size = 0;
+		usesCount = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableImpl#toString()
+	 */
+	@Override
+	public String toString() {
+		return "TranspositionTableAsArray(size = " + size + ", capacity = " + getCapacity() + ", replacementScheme = " + replacementScheme + ")";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,231 @@
+package sac.game;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of transposition table as a fixed-size array of packed entries (see TranspositionTableAsArray), meant
+ * to be shared without locks by many search threads. Races between threads writing and reading the same entry are
+ * tolerated rather than prevented: the key slot of each entry holds the key XOR-ed with the value and meta data slots,
+ * hence an entry whose slots come from different writes (or torn writes) no longer matches its key and is treated as
+ * absent. Depth limits (hence drafts) are kept per thread, so that threads may search to different depths. Ages are
+ * not changed by setDepthLimit(...) calls (coming from many threads), incrementAge() is meant to be called once per new
+ * search instead. The number of uses is approximate. Note that the check is only as strong as the 64-bit keys, i.e. as
+ * Identifier.longHashCode(): for HASH_CODE identifiers it is a spread of the 32-bit hash code of state, hence two states
+ * with equal hash codes still pass it (and share an entry); STRING identifiers give genuine 64-bit keys. See
+ * sac.examples.nim.Experiment for a stress check with concurrent writers and readers.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class TranspositionTableAsLocklessArray extends TranspositionTableAsArray {
+
+	/**
+	 * Depth limits of current searches of particular threads.
+	 */
+	private ThreadLocal<double[]> threadDepthLimit = new ThreadLocal<double[]>() {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.ThreadLocal#initialValue()
+		 */
+		@Override
+		protected double[] initialValue() {
+			return new double[] { depthLimit };
+		}
+	};
+
+	/**
+	 * Current number of occupied entries (approximate under races).
+	 */
+	private AtomicInteger occupiedCount = new AtomicInteger(0);
+
+	/**
+	 * Dictionary of moves names (indexes of names).
+	 */
+	private ConcurrentHashMap<String, Integer> movesNamesIndexes = new ConcurrentHashMap<String, Integer>();
+
+	/**
+	 * Dictionary of moves names (names at indexes), copied on write: replaced (under lock) by each insertion, read
+	 * without locks.
+	 */
+	private volatile String[] movesNames = new String[16];
+
+	/**
+	 * Number of moves names in dictionary (guarded by lock on movesNamesIndexes).
+	 */
+	private int movesNamesCount = 0;
+
+	/**
+	 * Creates a new instance of TranspositionTableAsLocklessArray.
+	 * 
+	 * @param sizeInMB size of table in megabytes
+	 * @param replacementScheme replacement scheme
+	 */
+	public TranspositionTableAsLocklessArray(int sizeInMB, TranspositionTableReplacementScheme replacementScheme) {
+		super(sizeInMB, replacementScheme);
+	}
+
+	/**
+	 * Creates a new instance of TranspositionTableAsLocklessArray with size and replacement scheme taken from
+	 * configurator.
+	 * 
+	 * @param configurator reference to configurator object
+	 */
+	public TranspositionTableAsLocklessArray(GameSearchConfigurator configurator) {
+		super(configurator);
+	}
+
+	/**
+	 * Creates a new instance of TranspositionTableAsLocklessArray with default settings of configurator.
+	 */
+	public TranspositionTableAsLocklessArray() {
+		super();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableAsArray#storedKey(int, long, long)
+	 */
+	@Override
+	protected long storedKey(int position, long valueBits, long meta) {
+		return entries[position] ^ valueBits ^ meta;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableAsArray#keySlot(long, long, long)
+	 */
+	@Override
+	protected long keySlot(long key, long valueBits, long meta) {
+		return key ^ valueBits ^ meta;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableAsArray#write(int, long, double, long)
+	 */
+	@Override
+	protected void write(int position, long key, double value, long meta) {
+		if (bound(entries[position + META_OFFSET]) == BOUND_NONE)
+			occupiedCount.incrementAndGet();
+		long valueBits = Double.doubleToRawLongBits(value);
+		entries[position] = keySlot(key, valueBits, meta);
+		entries[position + VALUE_OFFSET] = valueBits;
+		entries[position + META_OFFSET] = meta;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableAsArray#setDepthLimit(double)
+	 */
+	@Override
+	public void setDepthLimit(double depthLimit) {
+		threadDepthLimit.get()[0] = depthLimit;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableImpl#draft(sac.game.GameState)
+	 */
+	@Override
+	protected double draft(GameState gameState) {
+		return threadDepthLimit.get()[0] - gameState.getDepth();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableAsArray#moveIndex(java.lang.String)
+	 */
+	@Override
+	protected int moveIndex(String moveName) {
+		if (moveName == null)
+			return 0;
+		Integer index = movesNamesIndexes.get(moveName);
+		if (index == null) {
+			synchronized (movesNamesIndexes) {
+				index = movesNamesIndexes.get(moveName);
+				if (index == null) {
+					if (movesNamesCount >= MOVES_NAMES_LIMIT)
+						return 0;
+					index = movesNamesCount++;
+					String[] names = Arrays.copyOf(movesNames,
+							(index < movesNames.length) ? movesNames.length : Math.min(2 * movesNames.length, MOVES_NAMES_LIMIT));
+					names[index] = moveName;
+					movesNames = names;
+					movesNamesIndexes.put(moveName, index);
+				}
+			}
+		}
+		return index + 1;
+	}
+
+	/**
+	 * Returns move name of given index plus one from dictionary, without locks. Since entries are not synchronized
+	 * with the dictionary, an index written by another thread may precede its name being visible, null is returned
+	 * then (no best move).
+	 * 
+	 * @param moveIndex index of move name plus one (greater than 0)
+	 * @return move name (or null if not visible yet)
+	 */
+	@Override
+	protected String moveName(int moveIndex) {
+		String[] names = movesNames;
+		return (moveIndex <= names.length) ? names[moveIndex - 1] : null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableAsArray#remove(sac.game.GameState)
+	 */
+	@Override
+	public void remove(GameState gameState) {
+		int position = find(key(gameState));
+		if (position >= 0) {
+			entries[position + META_OFFSET] = 0L;
+			entries[position + VALUE_OFFSET] = 0L;
+			entries[position] = 0L;
+			occupiedCount.decrementAndGet();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableAsArray#size()
+	 */
+	@Override
+	public int size() {
+		return occupiedCount.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableAsArray#clear()
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		occupiedCount.set(0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.TranspositionTableAsArray#toString()
+	 */
+	@Override
+	public String toString() {
+		return "TranspositionTableAsLocklessArray(size = " + size() + ", capacity = " + getCapacity() + ", replacementScheme = " + replacementScheme + ")";
+	}
+}
\ No newline at end of file
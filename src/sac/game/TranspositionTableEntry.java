@@ -23,6 +23,16 @@ public class TranspositionTableEntry {
 	 */
 	private Double upperBoundOnGameValue = null;
 
+	/**
+	 * Draft (remaining depth of search) for which the values were calculated.
+	 */
+	private double draft = Double.POSITIVE_INFINITY;
+
+	/**
+	 * Name of best move found for game state (null if not known).
+	 */
+	private String bestMoveName = null;
+
 	/**
 	 * Creates new instance of transposition table entry.
 	 * 
@@ -36,6 +46,19 @@ public class TranspositionTableEntry {
 		this.upperBoundOnGameValue = upperBoundOnGameValue;
 	}
 
+	/**
+	 * Creates new instance of transposition table entry.
+	 * 
+	 * @param lowerBoundOnGameValue lower bound on game value or null
+	 * @param exactGameValue exact game value or null
+	 * @param upperBoundOnGameValue upper bound on game value or null
+	 * @param draft draft (remaining depth of search) for which the values were calculated
+	 */
+	public TranspositionTableEntry(Double lowerBoundOnGameValue, Double exactGameValue, Double upperBoundOnGameValue, double draft) {
+		this(lowerBoundOnGameValue, exactGameValue, upperBoundOnGameValue);
+		this.draft = draft;
+	}
+
 	/**
 	 * Returns the lower bound on game value or null (if not known).
 	 * 
@@ -90,6 +113,42 @@ public class TranspositionTableEntry {
 		this.upperBoundOnGameValue = upperBoundOnGameValue;
 	}
 
+	/**
+	 * Returns the draft (remaining depth of search) for which the values were calculated.
+	 * 
+	 * @return draft
+	 */
+	public double getDraft() {
+		return draft;
+	}
+
+	/**
+	 * Sets the draft (remaining depth of search) for which the values were calculated.
+	 * 
+	 * @param draft draft to be set
+	 */
+	public void setDraft(double draft) {
+		this.draft = draft;
+	}
+
+	/**
+	 * Returns the name of best move found for game state or null (if not known).
+	 * 
+	 * @return name of best move
+	 */
+	public String getBestMoveName() {
+		return bestMoveName;
+	}
+
+	/**
+	 * Sets the name of best move found for game state.
+	 * 
+	 * @param bestMoveName name of best move to be set
+	 */
+	public void setBestMoveName(String bestMoveName) {
+		this.bestMoveName = bestMoveName;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -1,6 +1,7 @@
 package sac.game;
 
 import java.util.AbstractMap;
+import java.util.List;
 
 /**
  * Abstract initial implementaiton of transposition table. Meant to be extended by actual implementations of
@@ -22,6 +23,11 @@ public abstract class TranspositionTableImpl implements TranspositionTable {
 	 */
 	protected int usesCount = 0;
 
+	/**
+	 * Depth limit of current search (drafts of entries are calculated with respect to it).
+	 */
+	protected double depthLimit = Double.POSITIVE_INFINITY;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -32,6 +38,40 @@ public abstract class TranspositionTableImpl implements TranspositionTable {
 		return usesCount;
 	}
 
+	/**
+	 * Sets depth limit of current search. Entries are memorized together with their drafts (depth limit minus depth of
+	 * state, i.e. remaining depth of search) and are used only for searches of at most such drafts, hence remain valid
+	 * when depth limit changes (e.g. in consecutive iterations of iterative deepening). Called by game search algorithms
+	 * at the start of each search, may be overridden (e.g. to keep depth limits per thread).
+	 * 
+	 * @param depthLimit depth limit of current search
+	 */
+	public void setDepthLimit(double depthLimit) {
+		this.depthLimit = depthLimit;
+	}
+
+	/**
+	 * Returns draft (remaining depth of current search) for given game state.
+	 * 
+	 * @param gameState reference to game state
+	 * @return draft for game state
+	 */
+	protected double draft(GameState gameState) {
+		return depthLimit - gameState.getDepth();
+	}
+
+	/**
+	 * Returns name of best move found for given game state (the first move along its principal variation), or null if
+	 * no move improved the value of state.
+	 * 
+	 * @param gameState reference to game state
+	 * @return name of best move or null
+	 */
+	protected String bestMoveName(GameState gameState) {
+		List<String> movesAlongPrincipalVariation = gameState.getMovesAlongPrincipalVariation();
+		return (movesAlongPrincipalVariation.isEmpty()) ? null : movesAlongPrincipalVariation.get(0);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -74,7 +114,7 @@ public abstract class TranspositionTableImpl implements TranspositionTable {
 	 */
 	protected Double doGet(GameState gameState, double alpha, double beta) {
 		TranspositionTableEntry entry = map.get(new TranspositionTableKey(gameState));
-		if (entry == null)
+		if ((entry == null) || (entry.getDraft() < draft(gameState))) // absent or calculated for a shallower search
 			return null;
 		if (entry.getExactGameValue() != null) {
 			usesCount++;
@@ -111,20 +151,27 @@ public abstract class TranspositionTableImpl implements TranspositionTable {
 	public void putOrUpdate(GameState gameState, Double value, double alpha, double beta) {
 		TranspositionTableKey key = new TranspositionTableKey(gameState);
 		TranspositionTableEntry entry = map.get(key);
-		if (entry == null) {
-			// put
+		double draft = draft(gameState);
+		if ((entry != null) && (entry.getDraft() > draft))
+			return; // entry calculated for a deeper search kept
+		if ((entry == null) || (entry.getDraft() < draft)) {
+			// put (or replacement of entry calculated for a shallower search)
 			if (GameSearchAlgorithm.isExactGameValue(value, alpha, beta))
-				entry = new TranspositionTableEntry(null, new Double(value), null);
+				entry = new TranspositionTableEntry(null, Double.valueOf(value), null, draft);
 			else {
 				if (value <= alpha) // alpha-beta window fails low - value is an upper bound
-					entry = new TranspositionTableEntry(null, null, new Double(value));
+					entry = new TranspositionTableEntry(null, null, Double.valueOf(value), draft);
 				else
 					// alpha-beta window fails high - value is a lower bound
-					entry = new TranspositionTableEntry(new Double(value), null, null);
+					entry = new TranspositionTableEntry(Double.valueOf(value), null, null, draft);
 			}
-			map.put(new TranspositionTableKey(gameState), entry);
+			entry.setBestMoveName(bestMoveName(gameState));
+			map.put(key, entry);
 		} else {
 			// update
+			String bestMoveName = bestMoveName(gameState);
+			if (bestMoveName != null)
+				entry.setBestMoveName(bestMoveName);
 			if (GameSearchAlgorithm.isExactGameValue(value, alpha, beta)) {
 				entry.setExactGameValue(value);
 				entry.setLowerBoundOnGameValue(null);
@@ -134,7 +181,7 @@ public abstract class TranspositionTableImpl implements TranspositionTable {
 					entry.setUpperBoundOnGameValue(value); // tighter upper bound
 					if ((entry.getLowerBoundOnGameValue() != null) && (entry.getUpperBoundOnGameValue() != null)
 							&& (entry.getLowerBoundOnGameValue().doubleValue() == entry.getUpperBoundOnGameValue().doubleValue())) {
-						entry.setExactGameValue(new Double(entry.getLowerBoundOnGameValue().doubleValue()));
+						entry.setExactGameValue(Double.valueOf(entry.getLowerBoundOnGameValue().doubleValue()));
 						entry.setLowerBoundOnGameValue(null);
 						entry.setUpperBoundOnGameValue(null);
 					}
@@ -142,7 +189,7 @@ public abstract class TranspositionTableImpl implements TranspositionTable {
 					entry.setLowerBoundOnGameValue(value); // tighter lower bound
 					if ((entry.getLowerBoundOnGameValue() != null) && (entry.getUpperBoundOnGameValue() != null)
 							&& (entry.getLowerBoundOnGameValue().doubleValue() == entry.getUpperBoundOnGameValue().doubleValue())) {
-						entry.setExactGameValue(new Double(entry.getLowerBoundOnGameValue().doubleValue()));
+						entry.setExactGameValue(Double.valueOf(entry.getLowerBoundOnGameValue().doubleValue()));
 						entry.setLowerBoundOnGameValue(null);
 						entry.setUpperBoundOnGameValue(null);
 					}
@@ -158,7 +205,7 @@ public abstract class TranspositionTableImpl implements TranspositionTable {
 	 */
 	@Override
 	public void remove(GameState gameState) {
-		map.remove(gameState.getIdentifier());
+		map.remove(new TranspositionTableKey(gameState));
 	}
 
 	/*
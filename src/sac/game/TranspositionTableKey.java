@@ -1,7 +1,5 @@
 package sac.game;
 
-import java.util.Arrays;
-
 import sac.Identifier;
 
 /**
@@ -44,10 +42,8 @@ public class TranspositionTableKey implements Comparable<TranspositionTableKey>
 	 */
 	@Override
 	public int hashCode() {
-		double[] pair = new double[2];
-		pair[0] = identifier.hashCode();
-		pair[1] = depth;
-		return Arrays.hashCode(pair);
+		long depthBits = Double.doubleToLongBits(depth);
+		return 31 * identifier.hashCode() + (int) (depthBits ^ (depthBits >>> 32));
 	}
 
 	/*
@@ -0,0 +1,15 @@
+package sac.game;
+
+/**
+ * Enumeration of replacement schemes for fixed-size transposition tables (e.g. TranspositionTableAsArray), deciding
+ * which entry is lost when a new one hashes to an occupied place. With DEPTH_PREFERRED, an entry is replaced only by an
+ * entry of at least equal draft (remaining depth of search) or when it comes from an earlier search. With
+ * ALWAYS_REPLACE, the newest entry always wins. With TWO_TIER, each bucket holds one depth-preferred entry and one
+ * always-replaced entry.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public enum TranspositionTableReplacementScheme {
+	DEPTH_PREFERRED, ALWAYS_REPLACE, TWO_TIER
+}
\ No newline at end of file
@@ -0,0 +1,524 @@
+package sac.game;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import sac.util.ConsoleLogger;
+
+/**
+ * Young Brothers Wait parallel alpha-beta cutoffs algorithm, working on a fork-join pool of threads (see
+ * GameSearchConfigurator.setThreads(...)). At each node the first child (the eldest brother) is evaluated serially, to
+ * establish a bound, then the remaining children (young brothers) are evaluated in parallel as fork-join tasks with
+ * the window current when they start. Results of tasks are joined in the order of children, hence alpha (beta), principal
+ * variation and moves scores are updated by the thread owning the node only. When a cutoff occurs, remaining tasks are
+ * cancelled (their searches return as soon as they notice it). Nodes with less than a full move of remaining depth are
+ * searched serially. The transposition table is shared between threads (see TranspositionTableAsLocklessArray), the
+ * refutation table is accessed under a lock. Counters of closed states and reached depth are approximate.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class YoungBrothersWait extends GameSearchAlgorithm {
+
+	/**
+	 * Minimal remaining depth of node for its young brothers to be evaluated in parallel.
+	 */
+	public static final double MIN_SPLIT_DRAFT = 1.0;
+
+	/**
+	 * Current alpha-beta window of a node, updated by the thread owning the node and read by tasks of its young
+	 * brothers when they start.
+	 */
+	private static class Window {
+
+		/**
+		 * Current alpha value.
+		 */
+		private volatile double alpha;
+
+		/**
+		 * Current beta value.
+		 */
+		private volatile double beta;
+
+		/**
+		 * Creates new window.
+		 * 
+		 * @param alpha alpha value
+		 * @param beta beta value
+		 */
+		private Window(double alpha, double beta) {
+			this.alpha = alpha;
+			this.beta = beta;
+		}
+	}
+
+	/**
+	 * Task evaluating a young brother.
+	 */
+	private class ChildTask extends RecursiveTask<Double> {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Child to be evaluated.
+		 */
+		private GameState child;
+
+		/**
+		 * Current window of parent.
+		 */
+		private Window window;
+
+		/**
+		 * Alpha value used for evaluation (taken from window of parent when task starts).
+		 */
+		private double alpha;
+
+		/**
+		 * Beta value used for evaluation (taken from window of parent when task starts).
+		 */
+		private double beta;
+
+		/**
+		 * Depth of child.
+		 */
+		private double depth;
+
+		/**
+		 * Depth limit.
+		 */
+		private double depthLimit;
+
+		/**
+		 * Task in which the parent of child is evaluated (null for the root).
+		 */
+		private ChildTask parentTask;
+
+		/**
+		 * Boolean flag stating if task was cancelled (due to a cutoff at parent).
+		 */
+		private volatile boolean cancelled = false;
+
+		/**
+		 * Creates new task.
+		 * 
+		 * @param child child to be evaluated
+		 * @param window current window of parent
+		 * @param depth depth of child
+		 * @param depthLimit depth limit
+		 * @param parentTask task in which the parent of child is evaluated
+		 */
+		private ChildTask(GameState child, Window window, double depth, double depthLimit, ChildTask parentTask) {
+			this.child = child;
+			this.window = window;
+			this.depth = depth;
+			this.depthLimit = depthLimit;
+			this.parentTask = parentTask;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.concurrent.RecursiveTask#compute()
+		 */
+		@Override
+		protected Double compute() {
+			ChildTask previousTask = currentTask.get(); // tasks may be nested in a thread (when helping to join)
+			currentTask.set(this);
+			try {
+				setTranspositionTableDepthLimit(configurator.getDepthLimit());
+				alpha = window.alpha;
+				beta = window.beta;
+				return evaluateChild(child, alpha, beta, depth, depthLimit);
+			} finally {
+				currentTask.set(previousTask);
+			}
+		}
+
+		/**
+		 * Returns boolean flag stating if this task or any of its ancestors was cancelled.
+		 * 
+		 * @return boolean flag stating if task was cancelled
+		 */
+		private boolean isCancelledWithAncestors() {
+			for (ChildTask task = this; task != null; task = task.parentTask)
+				if (task.cancelled)
+					return true;
+			return false;
+		}
+	}
+
+	/**
+	 * Synchronized view of refutation table.
+	 */
+	private static class SynchronizedRefutationTable implements RefutationTable {
+
+		/**
+		 * Underlying refutation table.
+		 */
+		private RefutationTable refutationTable;
+
+		/**
+		 * Creates new synchronized view of given refutation table.
+		 * 
+		 * @param refutationTable underlying refutation table
+		 */
+		private SynchronizedRefutationTable(RefutationTable refutationTable) {
+			this.refutationTable = refutationTable;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.RefutationTable#put(sac.game.GameState, sac.game.GameState)
+		 */
+		@Override
+		public synchronized void put(GameState parent, GameState child) {
+			refutationTable.put(parent, child);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.RefutationTable#reorder(sac.game.GameState, java.util.List)
+		 */
+		@Override
+		public synchronized void reorder(GameState parent, List<GameState> children) {
+			refutationTable.reorder(parent, children);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.RefutationTable#size()
+		 */
+		@Override
+		public synchronized int size() {
+			return refutationTable.size();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.RefutationTable#isEmpty()
+		 */
+		@Override
+		public synchronized boolean isEmpty() {
+			return refutationTable.isEmpty();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.RefutationTable#clear()
+		 */
+		@Override
+		public synchronized void clear() {
+			refutationTable.clear();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.RefutationTable#reset()
+		 */
+		@Override
+		public synchronized void reset() {
+			refutationTable.reset();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.RefutationTable#getUsesCount()
+		 */
+		@Override
+		public synchronized int getUsesCount() {
+			return refutationTable.getUsesCount();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.RefutationTable#getDepthLimit()
+		 */
+		@Override
+		public synchronized double getDepthLimit() {
+			return refutationTable.getDepthLimit();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.game.RefutationTable#setDepthLimit(double)
+		 */
+		@Override
+		public synchronized void setDepthLimit(double depthLimit) {
+			refutationTable.setDepthLimit(depthLimit);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return refutationTable.toString();
+		}
+	}
+
+	/**
+	 * Task currently evaluated by a thread (null outside of tasks).
+	 */
+	private ThreadLocal<ChildTask> currentTask = new ThreadLocal<ChildTask>();
+
+	/**
+	 * Fork-join pool of threads.
+	 */
+	private ForkJoinPool pool = null;
+
+	/**
+	 * Transposition table shared by threads (set up by reset(), called already from the constructor of superclass, hence
+	 * not initialized here).
+	 */
+	private TranspositionTableAsLocklessArray sharedTranspositionTable;
+
+	/**
+	 * Size in megabytes of the shared transposition table.
+	 */
+	private int sharedTranspositionTableSizeInMB;
+
+	/**
+	 * Creates new instance of Young Brothers Wait algorithm.
+	 * 
+	 * @param initial reference to initial state
+	 * @param configurator reference to configurator object
+	 */
+	public YoungBrothersWait(GameState initial, GameSearchConfigurator configurator) {
+		super(initial, configurator);
+	}
+
+	/**
+	 * Creates new instance of Young Brothers Wait algorithm.
+	 * 
+	 * @param initial reference to initial state
+	 */
+	public YoungBrothersWait(GameState initial) {
+		super(initial, null);
+	}
+
+	/**
+	 * Creates new instance of Young Brothers Wait algorithm.
+	 */
+	public YoungBrothersWait() {
+		super(null, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#reset()
+	 */
+	@Override
+	protected void reset() {
+		super.reset();
+		if (!(refutationTable instanceof SynchronizedRefutationTable))
+			refutationTable = new SynchronizedRefutationTable(refutationTable);
+	}
+
+	/**
+	 * Sets up the shared lockless transposition table (see TranspositionTableAsLocklessArray) in place of the one of
+	 * class given in configurator, which is not constructed. The table is constructed anew only if its size or
+	 * replacement scheme in configurator changed, otherwise it is cleared (unless kept).
+	 */
+	@Override
+	protected void resetTranspositionTable() {
+		if ((sharedTranspositionTable == null) || (sharedTranspositionTableSizeInMB != configurator.getTranspositionTableSizeInMB())
+				|| (sharedTranspositionTable.replacementScheme != configurator.getTranspositionTableReplacementScheme())) {
+			if ((sharedTranspositionTable == null)
+					&& (!TranspositionTableAsLocklessArray.class.getName().equals(configurator.getTranspositionTableClassName())))
+				ConsoleLogger.info("Young Brothers Wait uses a shared " + TranspositionTableAsLocklessArray.class.getSimpleName() + " in place of "
+						+ configurator.getTranspositionTableClassName() + " (given in configurator).");
+			sharedTranspositionTable = new TranspositionTableAsLocklessArray(configurator);
+			sharedTranspositionTableSizeInMB = configurator.getTranspositionTableSizeInMB();
+		} else if (!configurator.isTranspositionTableKept())
+			sharedTranspositionTable.clear();
+		sharedTranspositionTable.incrementAge();
+		transpositionTable = sharedTranspositionTable;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doExecute()
+	 */
+	@Override
+	protected void doExecute() {
+		int threads = Math.max(1, configurator.getThreads());
+		if ((pool == null) || (pool.getParallelism() != threads)) {
+			if (pool != null)
+				pool.shutdown();
+			pool = new ForkJoinPool(threads);
+		}
+		pool.invoke(new RecursiveAction() {
+
+			/**
+			 * Serial version UID.
+			 */
+			private static final long serialVersionUID = 1L;
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.concurrent.RecursiveAction#compute()
+			 */
+			@Override
+			protected void compute() {
+				setTranspositionTableDepthLimit(configurator.getDepthLimit());
+				YoungBrothersWait.super.doExecute();
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doEvaluateMaxState(sac.game.GameState, double, double, double, double)
+	 */
+	@Override
+	public Double doEvaluateMaxState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
+		return evaluateChildren(gameState, alpha, beta, depth, depthLimit, true);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.game.GameSearchAlgorithm#doEvaluateMinState(sac.game.GameState, double, double, double, double)
+	 */
+	@Override
+	public Double doEvaluateMinState(GameState gameState, double alpha, double beta, double depth, double depthLimit) {
+		return evaluateChildren(gameState, alpha, beta, depth, depthLimit, false);
+	}
+
+	/**
+	 * Evaluates given game state by evaluating its children: the first one serially, the remaining ones in parallel (if
+	 * remaining depth is large enough).
+	 * 
+	 * @param gameState given game state
+	 * @param alpha lower bound on game value known for given game state
+	 * @param beta upper bound on game value known for given game state
+	 * @param depth current depth
+	 * @param depthLimit depth limit
+	 * @param maximizing boolean flag stating if given state is associated with the maximizing player
+	 * @return calculated game value (or null if time limit is reached or search was cancelled)
+	 */
+	private Double evaluateChildren(GameState gameState, double alpha, double beta, double depth, double depthLimit, boolean maximizing) {
+		ChildTask task = currentTask.get();
+		if ((task != null) && (task.isCancelledWithAncestors()))
+			return null;
+		if (isGameStateTerminal(gameState, depth, depthLimit)) {
+			if (configurator.isTranspositionTableOn())
+				transpositionTable.putOrUpdate(gameState, gameState.getH(), alpha, beta);
+			return gameState.getH();
+		}
+		List<GameState> children = generateChildrenWrapper(gameState);
+		if (configurator.isRefutationTableOn())
+			refutationTable.reorder(gameState, children);
+		ChildTask[] youngBrothers = null;
+		Window window = null;
+		for (int i = 0; i < children.size(); i++) {
+			GameState child = children.get(i);
+			double childAlpha = alpha;
+			double childBeta = beta;
+			Double childValue = null;
+			if (youngBrothers != null) {
+				childValue = youngBrothers[i].join();
+				childAlpha = youngBrothers[i].alpha;
+				childBeta = youngBrothers[i].beta;
+			} else
+				childValue = evaluateChild(child, alpha, beta, depth + 0.5, depthLimit);
+			if (childValue == null) {
+				cancel(youngBrothers, i + 1);
+				return null; // time limit reached or search cancelled
+			}
+			if ((depth == 0.0) && (isExactGameValue(childValue, childAlpha, childBeta)))
+				movesScores.put(child.getMoveName(), childValue);
+			if ((maximizing) ? (childValue > alpha) : (childValue < beta)) {
+				if (maximizing)
+					alpha = childValue;
+				else
+					beta = childValue;
+				if (window != null) {
+					window.alpha = alpha;
+					window.beta = beta;
+				}
+				updateMovesAlongPrincipalVariation(gameState, child);
+				if (configurator.isRefutationTableOn())
+					refutationTable.put(gameState, child);
+			}
+			if (alpha >= beta) {
+				cancel(youngBrothers, i + 1);
+				return (maximizing) ? alpha : beta;
+			}
+
+			// eldest brother evaluated, young brothers forked
+			if ((i == 0) && (children.size() > 1) && (depthLimit - depth >= MIN_SPLIT_DRAFT)) {
+				youngBrothers = new ChildTask[children.size()];
+				window = new Window(alpha, beta);
+				for (int j = children.size() - 1; j > 0; j--) {
+					youngBrothers[j] = new ChildTask(children.get(j), window, depth + 0.5, depthLimit, task);
+					youngBrothers[j].fork();
+				}
+			}
+		}
+
+		return (maximizing) ? alpha : beta;
+	}
+
+	/**
+	 * Evaluates given child (reading and updating transposition table).
+	 * 
+	 * @param child child to be evaluated
+	 * @param alpha alpha value
+	 * @param beta beta value
+	 * @param depth depth of child
+	 * @param depthLimit depth limit
+	 * @return calculated game value (or null if time limit is reached or search was cancelled)
+	 */
+	private Double evaluateChild(GameState child, double alpha, double beta, double depth, double depthLimit) {
+		Double childValue = null;
+		if (configurator.isTranspositionTableOn())
+			childValue = transpositionTable.get(child, alpha, beta);
+		if (childValue == null) {
+			childValue = (child.isMaximizingTurnNow()) ? evaluateMaxState(child, alpha, beta, depth, depthLimit) : evaluateMinState(child, alpha, beta,
+					depth, depthLimit);
+			if (childValue == null)
+				return null;
+			if (configurator.isTranspositionTableOn())
+				transpositionTable.putOrUpdate(child, childValue, alpha, beta);
+		}
+		return childValue;
+	}
+
+	/**
+	 * Cancels tasks of young brothers starting from given index and waits for them to finish.
+	 * 
+	 * @param youngBrothers tasks of young brothers (or null)
+	 * @param from starting index
+	 */
+	private void cancel(ChildTask[] youngBrothers, int from) {
+		if (youngBrothers == null)
+			return;
+		for (int j = from; j < youngBrothers.length; j++)
+			youngBrothers[j].cancelled = true;
+		for (int j = from; j < youngBrothers.length; j++)
+			youngBrothers[j].join();
+	}
+}
\ No newline at end of file
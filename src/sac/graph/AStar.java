@@ -1,7 +1,5 @@
 package sac.graph;
 
-import java.util.Comparator;
-
 /**
  * A* algorithm.
  * 
@@ -40,7 +38,7 @@ public class AStar extends GraphSearchAlgorithm {
 	/**
 	 * Comparator for A* algorithm.
 	 */
-	private class AStarComparator implements Comparator<GraphState> {
+	private class AStarComparator implements PriorityComparator {
 
 		/*
 		 * (non-Javadoc)
@@ -56,5 +54,15 @@ public class AStar extends GraphSearchAlgorithm {
 				return (difference > 0.0) ? 1 : -1;
 			}
 		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.graph.PriorityComparator#getPriority(sac.graph.GraphState)
+		 */
+		@Override
+		public double getPriority(GraphState graphState) {
+			return graphState.getF();
+		}
 	}
 }
\ No newline at end of file
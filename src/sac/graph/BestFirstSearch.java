@@ -1,7 +1,5 @@
 package sac.graph;
 
-import java.util.Comparator;
-
 /**
  * Best First Search algorithm.
  * 
@@ -37,10 +35,20 @@ public class BestFirstSearch extends GraphSearchAlgorithm {
 		this(null, null);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphSearchAlgorithm#isSolutionCheckedOnGeneration()
+	 */
+	@Override
+	protected boolean isSolutionCheckedOnGeneration() {
+		return true; // no optimality guarantees, hence the first generated solution can be returned
+	}
+
 	/**
 	 * Comparator for Best First Search algorithm.
 	 */
-	private class BestFirstSearchComparator implements Comparator<GraphState> {
+	private class BestFirstSearchComparator implements PriorityComparator {
 
 		/*
 		 * (non-Javadoc)
@@ -56,5 +64,15 @@ public class BestFirstSearch extends GraphSearchAlgorithm {
 				return (difference > 0.0) ? 1 : -1;
 			}
 		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.graph.PriorityComparator#getPriority(sac.graph.GraphState)
+		 */
+		@Override
+		public double getPriority(GraphState graphState) {
+			return graphState.getH();
+		}
 	}
 }
\ No newline at end of file
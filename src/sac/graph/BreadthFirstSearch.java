@@ -1,7 +1,5 @@
 package sac.graph;
 
-import java.util.Comparator;
-
 /**
  * Breadth First Search algorithm.
  * 
@@ -40,7 +38,7 @@ public class BreadthFirstSearch extends GraphSearchAlgorithm {
 	/**
 	 * Comparator for Breadth First Search algorithm.
 	 */
-	private class BreadthFirstSearchComparator implements Comparator<GraphState> {
+	private class BreadthFirstSearchComparator implements PriorityComparator {
 
 		/*
 		 * (non-Javadoc)
@@ -56,5 +54,15 @@ public class BreadthFirstSearch extends GraphSearchAlgorithm {
 				return (difference > 0.0) ? 1 : -1;
 			}
 		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.graph.PriorityComparator#getPriority(sac.graph.GraphState)
+		 */
+		@Override
+		public double getPriority(GraphState graphState) {
+			return graphState.getDepth();
+		}
 	}
 }
\ No newline at end of file
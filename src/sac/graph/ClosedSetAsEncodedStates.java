@@ -0,0 +1,252 @@
+package sac.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import sac.StateCodec;
+
+/**
+ * Closed set implementation via: java.util.HashMap keyed by codes of states (see sac.StateCodec). Closed states are
+ * not referenced - only their codes, links to entries of their parents and names of moves are kept. State objects
+ * (together with their parents, depths, move names and costs) are rebuilt by decoding whenever get(...) is called,
+ * e.g. when a path is to be extracted (get(...) and rebuildPath(...) are equivalent).
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class ClosedSetAsEncodedStates implements PredecessorMemorizingClosedSet {
+
+	/**
+	 * Code of state (array of bytes with content based equality).
+	 */
+	private static final class Code {
+
+		/**
+		 * Bytes of code.
+		 */
+		private final byte[] bytes;
+
+		/**
+		 * Memorized hash code.
+		 */
+		private final int hash;
+
+		/**
+		 * Creates new code.
+		 * 
+		 * @param bytes bytes of code
+		 */
+		private Code(byte[] bytes) {
+			this.bytes = bytes;
+			this.hash = Arrays.hashCode(bytes);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object other) {
+			return (other instanceof Code) && (hash == ((Code) other).hash) && Arrays.equals(bytes, ((Code) other).bytes);
+		}
+	}
+
+	/**
+	 * Entry for encoded state: its code, entry of its parent and name of move.
+	 */
+	private static final class Entry {
+
+		/**
+		 * Code of state.
+		 */
+		private final Code code;
+
+		/**
+		 * Entry of parent (null for the initial state).
+		 */
+		private final Entry parent;
+
+		/**
+		 * Name of the move that led to state.
+		 */
+		private final String moveName;
+
+		/**
+		 * Creates new entry.
+		 * 
+		 * @param code code of state
+		 * @param parent entry of parent
+		 * @param moveName name of the move that led to state
+		 */
+		private Entry(Code code, Entry parent, String moveName) {
+			this.code = code;
+			this.parent = parent;
+			this.moveName = moveName;
+		}
+	}
+
+	/**
+	 * State codec.
+	 */
+	private StateCodec stateCodec;
+
+	/**
+	 * The map.
+	 */
+	private Map<Code, Entry> map;
+
+	/**
+	 * Creates new instance of this ClosedSetAsEncodedStates.
+	 * 
+	 * @param stateCodec reference to state codec
+	 */
+	public ClosedSetAsEncodedStates(StateCodec stateCodec) {
+		if (stateCodec == null)
+			throw new IllegalArgumentException("ClosedSetAsEncodedStates requires a state codec.");
+		this.stateCodec = stateCodec;
+		this.map = new HashMap<Code, Entry>();
+	}
+
+	/**
+	 * Returns entry for given state - the one from map if the state was closed, or a new one (not put to map)
+	 * otherwise.
+	 * 
+	 * @param graphState reference to graph state
+	 * @return entry for given state
+	 */
+	private Entry toEntry(GraphState graphState) {
+		Code code = new Code(stateCodec.encode(graphState));
+		Entry entry = map.get(code);
+		if (entry == null)
+			entry = new Entry(code, (graphState.getParent() != null) ? toEntry(graphState.getParent()) : null, graphState.getMoveName());
+		return entry;
+	}
+
+	/**
+	 * Rebuilds (decodes) state for given entry, together with all its ancestors, depths, move names and costs.
+	 * 
+	 * @param entry entry of state
+	 * @return rebuilt state
+	 */
+	private GraphState rebuild(Entry entry) {
+		LinkedList<Entry> entries = new LinkedList<Entry>();
+		for (Entry e = entry; e != null; e = e.parent)
+			entries.addFirst(e);
+		GraphState state = null;
+		for (Entry e : entries) {
+			GraphState parent = state;
+			state = (GraphState) stateCodec.decode(e.code.bytes);
+			state.setParent(parent);
+			state.setDepth((parent != null) ? parent.getDepth() + 1 : 0);
+			state.setMoveName(e.moveName);
+			state.refreshCosts();
+		}
+		return state;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#contains(sac.graph.GraphState)
+	 */
+	@Override
+	public boolean contains(GraphState graphState) {
+		return map.containsKey(new Code(stateCodec.encode(graphState)));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#get(sac.graph.GraphState)
+	 */
+	@Override
+	public GraphState get(GraphState graphState) {
+		Entry entry = map.get(new Code(stateCodec.encode(graphState)));
+		return (entry != null) ? rebuild(entry) : null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.PredecessorMemorizingClosedSet#rebuildPath(sac.graph.GraphState)
+	 */
+	@Override
+	public GraphState rebuildPath(GraphState graphState) {
+		return get(graphState);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#put(sac.graph.GraphState)
+	 */
+	@Override
+	public void put(GraphState graphState) {
+		Code code = new Code(stateCodec.encode(graphState));
+		Entry parent = (graphState.getParent() != null) ? toEntry(graphState.getParent()) : null;
+		map.put(code, new Entry(code, parent, graphState.getMoveName()));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#remove(sac.graph.GraphState)
+	 */
+	@Override
+	public void remove(GraphState graphState) {
+		map.remove(new Code(stateCodec.encode(graphState)));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#size()
+	 */
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#isEmpty()
+	 */
+	@Override
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#clear()
+	 */
+	@Override
+	public void clear() {
+		map.clear();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[" + map.size() + " closed encoded states]";
+	}
+}
@@ -0,0 +1,225 @@
+package sac.graph;
+
+import sac.LongStateCodec;
+import sac.StateCodec;
+
+/**
+ * Closed set implementation via: open-addressing hash table with linear probing, keyed by primitive long numbers
+ * obtained from a long state codec (see sac.LongStateCodec, e.g. sac.examples.slidingpuzzle.SlidingPuzzleCodec). Keys
+ * are exact, therefore no hash collisions between different states are possible. Apart from the reference to the state
+ * itself, each closed state costs a single long and no boxed keys or entry objects are created. Capacity is a power of
+ * two and doubles whenever the load factor exceeds 0.5.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class ClosedSetAsLongHashTable implements ClosedSet {
+
+	/**
+	 * Initial capacity of table (power of two).
+	 */
+	private static final int INITIAL_CAPACITY = 1 << 16;
+
+	/**
+	 * Long state codec.
+	 */
+	private LongStateCodec stateCodec;
+
+	/**
+	 * Keys of closed states.
+	 */
+	private long[] keys;
+
+	/**
+	 * Closed states (null at free slots).
+	 */
+	private GraphState[] states;
+
+	/**
+	 * Mask for indexes (capacity - 1).
+	 */
+	private int mask;
+
+	/**
+	 * Current number of closed states.
+	 */
+	private int size;
+
+	/**
+	 * Creates new instance of this ClosedSetAsLongHashTable.
+	 * 
+	 * @param stateCodec reference to state codec (must be a long state codec)
+	 */
+	public ClosedSetAsLongHashTable(StateCodec stateCodec) {
+		if (!(stateCodec instanceof LongStateCodec))
+			throw new IllegalArgumentException("ClosedSetAsLongHashTable requires a long state codec.");
+		this.stateCodec = (LongStateCodec) stateCodec;
+		allocate(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Allocates empty arrays of given capacity.
+	 * 
+	 * @param capacity wanted capacity (power of two)
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		states = new GraphState[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+
+	/**
+	 * Returns initial slot index for given key (via 64-bit finalization mix of MurmurHash3).
+	 * 
+	 * @param key key of state
+	 * @param mask mask for indexes
+	 * @return initial slot index
+	 */
+	static int slot(long key, int mask) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key & mask;
+	}
+
+	/**
+	 * Returns index of slot holding given key, or index of free slot where the key should be put.
+	 * 
+	 * @param key key of state
+	 * @return slot index
+	 */
+	private int indexOf(long key) {
+		int index = slot(key, mask);
+		while ((states[index] != null) && (keys[index] != key))
+			index = (index + 1) & mask;
+		return index;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#contains(sac.graph.GraphState)
+	 */
+	@Override
+	public boolean contains(GraphState graphState) {
+		return states[indexOf(stateCodec.encodeAsLong(graphState))] != null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#get(sac.graph.GraphState)
+	 */
+	@Override
+	public GraphState get(GraphState graphState) {
+		return states[indexOf(stateCodec.encodeAsLong(graphState))];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#put(sac.graph.GraphState)
+	 */
+	@Override
+	public void put(GraphState graphState) {
+		long key = stateCodec.encodeAsLong(graphState);
+		int index = indexOf(key);
+		if (states[index] == null) {
+			if (2 * (size + 1) > keys.length) {
+				grow();
+				index = indexOf(key);
+			}
+			keys[index] = key;
+			size++;
+		}
+		states[index] = graphState;
+	}
+
+	/**
+	 * Doubles the capacity of table and rehashes all closed states.
+	 */
+	private void grow() {
+		long[] oldKeys = keys;
+		GraphState[] oldStates = states;
+		allocate(2 * oldKeys.length);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldStates[i] != null) {
+				int index = indexOf(oldKeys[i]);
+				keys[index] = oldKeys[i];
+				states[index] = oldStates[i];
+				size++;
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#remove(sac.graph.GraphState)
+	 */
+	@Override
+	public void remove(GraphState graphState) {
+		int index = indexOf(stateCodec.encodeAsLong(graphState));
+		if (states[index] == null)
+			return;
+		size--;
+
+		// backward shift deletion (keeps probe sequences unbroken, no tombstones)
+		int hole = index;
+		int next = (hole + 1) & mask;
+		while (states[next] != null) {
+			int home = slot(keys[next], mask);
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				states[hole] = states[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		keys[hole] = 0L;
+		states[hole] = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#isEmpty()
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#clear()
+	 */
+	@Override
+	public void clear() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[" + size + " closed states, capacity: " + keys.length + "]";
+	}
+}
@@ -0,0 +1,335 @@
+package sac.graph;
+
+import java.util.LinkedList;
+
+import sac.LongStateCodec;
+import sac.StateCodec;
+
+/**
+ * Closed set implementation via: open-addressing hash table with linear probing, keyed by primitive long numbers
+ * obtained from a long state codec (see sac.LongStateCodec). Compact variant of ClosedSetAsLongHashTable - closed
+ * states are not referenced, instead for each closed state only its key, the key of its parent and its g value (as
+ * float) are kept, i.e. 20 bytes per entry in primitive arrays. Hence, get(...) returns a newly decoded state (with no
+ * parent and costs), while parents and g values of closed states can be queried via getParentKey(...) and getG(...).
+ * Paths are rebuilt by rebuildPath(...), which follows keys of parents up to the initial state and then replays moves
+ * forward (children are generated and matched by keys), hence move names and costs along paths are restored exactly.
+ * Key 0 (free slot marker) is handled separately.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class ClosedSetAsLongHashTableCompact implements PredecessorMemorizingClosedSet {
+
+	/**
+	 * Initial capacity of table (power of two).
+	 */
+	private static final int INITIAL_CAPACITY = 1 << 16;
+
+	/**
+	 * Long state codec.
+	 */
+	private LongStateCodec stateCodec;
+
+	/**
+	 * Keys of closed states (0 at free slots).
+	 */
+	private long[] keys;
+
+	/**
+	 * Keys of parents of closed states (for the initial state - its own key).
+	 */
+	private long[] parentsKeys;
+
+	/**
+	 * g values of closed states.
+	 */
+	private float[] gs;
+
+	/**
+	 * Mask for indexes (capacity - 1).
+	 */
+	private int mask;
+
+	/**
+	 * Current number of closed states with non-zero keys.
+	 */
+	private int size;
+
+	/**
+	 * Flag stating if state with key 0 is closed.
+	 */
+	private boolean zeroKeyClosed;
+
+	/**
+	 * Key of parent of state with key 0.
+	 */
+	private long zeroKeyParentKey;
+
+	/**
+	 * g value of state with key 0.
+	 */
+	private float zeroKeyG;
+
+	/**
+	 * Creates new instance of this ClosedSetAsLongHashTableCompact.
+	 * 
+	 * @param stateCodec reference to state codec (must be a long state codec)
+	 */
+	public ClosedSetAsLongHashTableCompact(StateCodec stateCodec) {
+		if (!(stateCodec instanceof LongStateCodec))
+			throw new IllegalArgumentException("ClosedSetAsLongHashTableCompact requires a long state codec.");
+		this.stateCodec = (LongStateCodec) stateCodec;
+		allocate(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Allocates empty arrays of given capacity.
+	 * 
+	 * @param capacity wanted capacity (power of two)
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		parentsKeys = new long[capacity];
+		gs = new float[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+
+	/**
+	 * Returns index of slot holding given non-zero key, or index of free slot where the key should be put.
+	 * 
+	 * @param key key of state
+	 * @return slot index
+	 */
+	private int indexOf(long key) {
+		int index = ClosedSetAsLongHashTable.slot(key, mask);
+		while ((keys[index] != 0L) && (keys[index] != key))
+			index = (index + 1) & mask;
+		return index;
+	}
+
+	/**
+	 * Checks if state with given key is closed.
+	 * 
+	 * @param key key of state
+	 * @return boolean flag stating if state with given key is closed
+	 */
+	public boolean containsKey(long key) {
+		if (key == 0L)
+			return zeroKeyClosed;
+		return keys[indexOf(key)] != 0L;
+	}
+
+	/**
+	 * Returns key of parent of given closed state (its own key for the initial state). Result is undefined if the state
+	 * was not closed.
+	 * 
+	 * @param graphState reference to closed state
+	 * @return key of parent
+	 */
+	public long getParentKey(GraphState graphState) {
+		long key = stateCodec.encodeAsLong(graphState);
+		if (key == 0L)
+			return zeroKeyParentKey;
+		return parentsKeys[indexOf(key)];
+	}
+
+	/**
+	 * Returns g value of given closed state (NaN if the state was not closed).
+	 * 
+	 * @param graphState reference to closed state
+	 * @return g value of closed state
+	 */
+	public float getG(GraphState graphState) {
+		long key = stateCodec.encodeAsLong(graphState);
+		if (key == 0L)
+			return (zeroKeyClosed) ? zeroKeyG : Float.NaN;
+		int index = indexOf(key);
+		return (keys[index] != 0L) ? gs[index] : Float.NaN;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#contains(sac.graph.GraphState)
+	 */
+	@Override
+	public boolean contains(GraphState graphState) {
+		return containsKey(stateCodec.encodeAsLong(graphState));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#get(sac.graph.GraphState)
+	 */
+	@Override
+	public GraphState get(GraphState graphState) {
+		long key = stateCodec.encodeAsLong(graphState);
+		return (containsKey(key)) ? (GraphState) stateCodec.decodeFromLong(key) : null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.PredecessorMemorizingClosedSet#rebuildPath(sac.graph.GraphState)
+	 */
+	@Override
+	public GraphState rebuildPath(GraphState graphState) {
+		long key = stateCodec.encodeAsLong(graphState);
+		if (!containsKey(key))
+			return null;
+
+		// keys along path (from initial state), the number of steps is limited in case of inconsistent entries
+		LinkedList<Long> keysAlongPath = new LinkedList<Long>();
+		keysAlongPath.addFirst(key);
+		for (int i = 0; i <= size(); i++) {
+			long parentKey = (key == 0L) ? zeroKeyParentKey : parentsKeys[indexOf(key)];
+			if ((parentKey == key) || (!containsKey(parentKey)))
+				break;
+			keysAlongPath.addFirst(parentKey);
+			key = parentKey;
+		}
+
+		// replaying moves forward
+		GraphState state = null;
+		for (long keyAlongPath : keysAlongPath) {
+			GraphState next = null;
+			if (state != null)
+				for (GraphState child : state.generateChildren())
+					if (stateCodec.encodeAsLong(child) == keyAlongPath) {
+						next = child;
+						break;
+					}
+			if (next == null)
+				next = (GraphState) stateCodec.decodeFromLong(keyAlongPath);
+			next.setParent(state);
+			next.setDepth((state != null) ? state.getDepth() + 1 : 0);
+			next.refreshCosts();
+			state = next;
+		}
+		return state;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#put(sac.graph.GraphState)
+	 */
+	@Override
+	public void put(GraphState graphState) {
+		long key = stateCodec.encodeAsLong(graphState);
+		long parentKey = (graphState.getParent() != null) ? stateCodec.encodeAsLong(graphState.getParent()) : key;
+		float g = (float) graphState.getG();
+		if (key == 0L) {
+			zeroKeyClosed = true;
+			zeroKeyParentKey = parentKey;
+			zeroKeyG = g;
+			return;
+		}
+		int index = indexOf(key);
+		if (keys[index] == 0L) {
+			if (2 * (size + 1) > keys.length) {
+				grow();
+				index = indexOf(key);
+			}
+			keys[index] = key;
+			size++;
+		}
+		parentsKeys[index] = parentKey;
+		gs[index] = g;
+	}
+
+	/**
+	 * Doubles the capacity of table and rehashes all closed states.
+	 */
+	private void grow() {
+		long[] oldKeys = keys;
+		long[] oldParentsKeys = parentsKeys;
+		float[] oldGs = gs;
+		allocate(2 * oldKeys.length);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != 0L) {
+				int index = indexOf(oldKeys[i]);
+				keys[index] = oldKeys[i];
+				parentsKeys[index] = oldParentsKeys[i];
+				gs[index] = oldGs[i];
+				size++;
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#remove(sac.graph.GraphState)
+	 */
+	@Override
+	public void remove(GraphState graphState) {
+		long key = stateCodec.encodeAsLong(graphState);
+		if (key == 0L) {
+			zeroKeyClosed = false;
+			return;
+		}
+		int index = indexOf(key);
+		if (keys[index] == 0L)
+			return;
+		size--;
+
+		// backward shift deletion (keeps probe sequences unbroken, no tombstones)
+		int hole = index;
+		int next = (hole + 1) & mask;
+		while (keys[next] != 0L) {
+			int home = ClosedSetAsLongHashTable.slot(keys[next], mask);
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				parentsKeys[hole] = parentsKeys[next];
+				gs[hole] = gs[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		keys[hole] = 0L;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#size()
+	 */
+	@Override
+	public int size() {
+		return size + ((zeroKeyClosed) ? 1 : 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#isEmpty()
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#clear()
+	 */
+	@Override
+	public void clear() {
+		allocate(INITIAL_CAPACITY);
+		zeroKeyClosed = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[" + size() + " closed states, capacity: " + keys.length + "]";
+	}
+}
@@ -0,0 +1,237 @@
+package sac.graph;
+
+import sac.LongStateCodec;
+import sac.PartialPermutationStateCodec;
+import sac.State;
+import sac.StateCodec;
+import sac.util.PermutationRanking;
+
+/**
+ * Closed set implementation via: dense array of bits indexed by ranks of permutations (see PermutationRanking). Meant
+ * for problems whose states are permutations (e.g. sliding puzzle), given a state codec which encodes states as
+ * permutations of {0, 1, ..., n-1} (e.g. sac.examples.slidingpuzzle.SlidingPuzzleCodec), or as k-of-n partial
+ * permutations for subproblems (see sac.PartialPermutationStateCodec, e.g.
+ * sac.examples.slidingpuzzle.SlidingPuzzlePatternCodec). No hashing is involved and each possible state takes one bit.
+ * Closed states are not kept as objects, hence get(...) returns the given state itself whenever its equivalent was
+ * closed. The array is allocated on first use, for n! (or n!/(n-k)!) bits. When that many bits do not fit in a Java
+ * array (e.g. full states of 15-puzzle, 16! bits), ranks (still collision-free) are kept in a hash table instead (see
+ * ClosedSetAsLongHashTable), so that the search goes on at the cost of memory. Only membership is stored, not g values:
+ * searches of this library never reopen closed states, hence g values of closed states are not needed.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class ClosedSetAsPermutationRankBitArray implements ClosedSet {
+
+	/**
+	 * State codec (encoding states as permutations).
+	 */
+	private StateCodec stateCodec;
+
+	/**
+	 * The array of bits (allocated on first use).
+	 */
+	private long[] bits = null;
+
+	/**
+	 * Hash table of ranks, used instead of the array of bits when the number of (partial) permutations is too large.
+	 */
+	private ClosedSetAsLongHashTable ranks = null;
+
+	/**
+	 * Current number of closed states.
+	 */
+	private int size = 0;
+
+	/**
+	 * Creates new instance of this ClosedSetAsPermutationRankBitArray.
+	 * 
+	 * @param stateCodec reference to state codec encoding states as permutations
+	 */
+	public ClosedSetAsPermutationRankBitArray(StateCodec stateCodec) {
+		if (stateCodec == null)
+			throw new IllegalArgumentException("ClosedSetAsPermutationRankBitArray requires a state codec.");
+		this.stateCodec = stateCodec;
+	}
+
+	/**
+	 * Returns rank of given state, as a permutation or as a partial permutation when the state codec is a
+	 * PartialPermutationStateCodec.
+	 * 
+	 * @param state reference to state
+	 * @return rank of state
+	 */
+	private long rank(State state) {
+		byte[] permutation = stateCodec.encode(state);
+		if (stateCodec instanceof PartialPermutationStateCodec)
+			return PermutationRanking.rank(permutation, ((PartialPermutationStateCodec) stateCodec).getElementsCount());
+		return PermutationRanking.rank(permutation);
+	}
+
+	/**
+	 * Allocates the array of bits, or the hash table of ranks if there are too many (partial) permutations, for states
+	 * like given one (unless allocated already).
+	 * 
+	 * @param graphState reference to graph state
+	 */
+	private void allocate(GraphState graphState) {
+		if ((bits != null) || (ranks != null))
+			return;
+		int k = stateCodec.encode(graphState).length;
+		int n = (stateCodec instanceof PartialPermutationStateCodec) ? ((PartialPermutationStateCodec) stateCodec).getElementsCount() : k;
+		long count = PermutationRanking.partialPermutationsCount(n, k);
+		if ((count >= 0) && ((count + 63) / 64 <= Integer.MAX_VALUE))
+			bits = new long[(int) ((count + 63) / 64)];
+		else
+			ranks = new ClosedSetAsLongHashTable(new LongStateCodec() {
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see sac.LongStateCodec#encodeAsLong(sac.State)
+				 */
+				@Override
+				public long encodeAsLong(State state) {
+					return rank(state);
+				}
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see sac.LongStateCodec#decodeFromLong(long)
+				 */
+				@Override
+				public State decodeFromLong(long key) {
+					throw new UnsupportedOperationException();
+				}
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see sac.StateCodec#encode(sac.State)
+				 */
+				@Override
+				public byte[] encode(State state) {
+					return stateCodec.encode(state);
+				}
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see sac.StateCodec#decode(byte[])
+				 */
+				@Override
+				public State decode(byte[] code) {
+					return stateCodec.decode(code);
+				}
+			});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#contains(sac.graph.GraphState)
+	 */
+	@Override
+	public boolean contains(GraphState graphState) {
+		allocate(graphState);
+		if (ranks != null)
+			return ranks.contains(graphState);
+		long rank = rank(graphState);
+		return (bits[(int) (rank >>> 6)] & (1L << rank)) != 0L;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#get(sac.graph.GraphState)
+	 */
+	@Override
+	public GraphState get(GraphState graphState) {
+		return contains(graphState) ? graphState : null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#put(sac.graph.GraphState)
+	 */
+	@Override
+	public void put(GraphState graphState) {
+		allocate(graphState);
+		if (ranks != null) {
+			ranks.put(graphState);
+			size = ranks.size();
+			return;
+		}
+		long rank = rank(graphState);
+		int word = (int) (rank >>> 6);
+		if ((bits[word] & (1L << rank)) == 0L) {
+			bits[word] |= (1L << rank);
+			size++;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#remove(sac.graph.GraphState)
+	 */
+	@Override
+	public void remove(GraphState graphState) {
+		allocate(graphState);
+		if (ranks != null) {
+			ranks.remove(graphState);
+			size = ranks.size();
+			return;
+		}
+		long rank = rank(graphState);
+		int word = (int) (rank >>> 6);
+		if ((bits[word] & (1L << rank)) != 0L) {
+			bits[word] &= ~(1L << rank);
+			size--;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#isEmpty()
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.ClosedSet#clear()
+	 */
+	@Override
+	public void clear() {
+		bits = null;
+		ranks = null;
+		size = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[" + size + " closed permutations]";
+	}
+}
\ No newline at end of file
@@ -1,9 +1,9 @@
 package sac.graph;
 
-import java.util.Comparator;
-
 /**
- * Depth First Search algorithm.
+ * Depth First Search algorithm. If in-place walking is on (see GraphSearchConfigurator.setInPlaceWalkingOn(...)),
+ * the initial state is a ReversibleGraphState and closed set is off, the algorithm walks the search tree in place (on
+ * a single mutable state, applying and undoing operators), without creating state objects.
  * 
  * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
  * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
@@ -37,10 +37,38 @@ public class DepthFirstSearch extends GraphSearchAlgorithm {
 		this(null, null);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphSearchAlgorithm#doExecute()
+	 */
+	@Override
+	protected void doExecute() {
+		if ((InPlaceDepthFirstWalker.isApplicable(this)) && (!configurator.isClosedSetOn())) {
+			startTime = System.currentTimeMillis();
+			step = 0;
+			InPlaceDepthFirstWalker walker = new InPlaceDepthFirstWalker(this, startTime);
+			walker.walk(Double.POSITIVE_INFINITY);
+			bestSoFar = (solutions.isEmpty()) ? walker.getBestSoFar() : solutions.get(0);
+			endTime = System.currentTimeMillis();
+		} else
+			super.doExecute();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphSearchAlgorithm#isSolutionCheckedOnGeneration()
+	 */
+	@Override
+	protected boolean isSolutionCheckedOnGeneration() {
+		return true; // no optimality guarantees, hence the first generated solution can be returned
+	}
+
 	/**
 	 * Comparator for Depth First Search algorithm.
 	 */
-	private class DepthFirstSearchComparator implements Comparator<GraphState> {
+	private class DepthFirstSearchComparator implements PriorityComparator {
 
 		/*
 		 * (non-Javadoc)
@@ -56,5 +84,15 @@ public class DepthFirstSearch extends GraphSearchAlgorithm {
 				return (difference > 0.0) ? 1 : -1;
 			}
 		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.graph.PriorityComparator#getPriority(sac.graph.GraphState)
+		 */
+		@Override
+		public double getPriority(GraphState graphState) {
+			return -graphState.getDepth();
+		}
 	}
 }
\ No newline at end of file
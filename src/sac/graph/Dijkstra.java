@@ -1,7 +1,5 @@
 package sac.graph;
 
-import java.util.Comparator;
-
 /**
  * Dijkstra's algorithm.
  * 
@@ -40,7 +38,7 @@ public class Dijkstra extends GraphSearchAlgorithm {
 	/**
 	 * Comparator for Dijkstra's algorithm.
 	 */
-	private class DijkstraComparator implements Comparator<GraphState> {
+	private class DijkstraComparator implements PriorityComparator {
 
 		/*
 		 * (non-Javadoc)
@@ -56,5 +54,15 @@ public class Dijkstra extends GraphSearchAlgorithm {
 				return (difference > 0.0) ? 1 : -1;
 			}
 		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see sac.graph.PriorityComparator#getPriority(sac.graph.GraphState)
+		 */
+		@Override
+		public double getPriority(GraphState graphState) {
+			return graphState.getG();
+		}
 	}
 }
\ No newline at end of file
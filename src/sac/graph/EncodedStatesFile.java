@@ -0,0 +1,412 @@
+package sac.graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sorted, compressed file of encoded states, used by external memory searches. Each record consists of a state code
+ * and an optional payload (e.g. code of parent state). Records are kept in lexicographic order of codes without
+ * duplicates, which allows delayed duplicate detection by streaming merges of such files. Files are read and written
+ * via NIO file channels.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class EncodedStatesFile {
+
+	/**
+	 * Empty payload.
+	 */
+	public static final byte[] NO_PAYLOAD = new byte[0];
+
+	/**
+	 * Lexicographic comparator for codes (bytes treated as unsigned).
+	 */
+	public static final Comparator<byte[]> CODES_COMPARATOR = new Comparator<byte[]>() {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+		 */
+		@Override
+		public int compare(byte[] code1, byte[] code2) {
+			int length = Math.min(code1.length, code2.length);
+			for (int i = 0; i < length; i++) {
+				int difference = (code1[i] & 0xFF) - (code2[i] & 0xFF);
+				if (difference != 0)
+					return difference;
+			}
+			return code1.length - code2.length;
+		}
+	};
+
+	/**
+	 * Single record of file: state code and payload.
+	 */
+	public static class Record {
+
+		/**
+		 * Code of state.
+		 */
+		private byte[] code;
+
+		/**
+		 * Payload related to state.
+		 */
+		private byte[] payload;
+
+		/**
+		 * Creates new record.
+		 * 
+		 * @param code code of state
+		 * @param payload payload related to state (or NO_PAYLOAD)
+		 */
+		public Record(byte[] code, byte[] payload) {
+			this.code = code;
+			this.payload = payload;
+		}
+
+		/**
+		 * Returns code of state.
+		 * 
+		 * @return code of state
+		 */
+		public byte[] getCode() {
+			return code;
+		}
+
+		/**
+		 * Returns payload related to state.
+		 * 
+		 * @return payload related to state
+		 */
+		public byte[] getPayload() {
+			return payload;
+		}
+	}
+
+	/**
+	 * Comparator for records (by codes only).
+	 */
+	private static final Comparator<Record> RECORDS_COMPARATOR = new Comparator<Record>() {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+		 */
+		@Override
+		public int compare(Record record1, Record record2) {
+			return CODES_COMPARATOR.compare(record1.code, record2.code);
+		}
+	};
+
+	/**
+	 * Sequential reader of records of file.
+	 */
+	public class Reader {
+
+		/**
+		 * Underlying input stream.
+		 */
+		private DataInputStream input;
+
+		/**
+		 * Record read most recently (head of reader), null if end of file was reached.
+		 */
+		private Record head = null;
+
+		/**
+		 * Creates new reader and reads the first record.
+		 * 
+		 * @throws IOException whenever reading fails
+		 */
+		private Reader() throws IOException {
+			FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Channels.newInputStream(channel), BUFFER_SIZE), BUFFER_SIZE));
+			next();
+		}
+
+		/**
+		 * Returns most recently read record (or null when end of file was reached).
+		 * 
+		 * @return most recently read record
+		 */
+		public Record head() {
+			return head;
+		}
+
+		/**
+		 * Reads next record and returns it (or null when end of file was reached, the reader gets closed then).
+		 * 
+		 * @return next record
+		 * @throws IOException whenever reading fails
+		 */
+		public Record next() throws IOException {
+			if (input == null)
+				return null;
+			int codeLength;
+			try {
+				codeLength = readLength(input);
+			} catch (EOFException e) {
+				close();
+				return null;
+			}
+			byte[] code = new byte[codeLength];
+			input.readFully(code);
+			int payloadLength = readLength(input);
+			byte[] payload = NO_PAYLOAD;
+			if (payloadLength > 0) {
+				payload = new byte[payloadLength];
+				input.readFully(payload);
+			}
+			head = new Record(code, payload);
+			return head;
+		}
+
+		/**
+		 * Closes this reader.
+		 * 
+		 * @throws IOException whenever closing fails
+		 */
+		public void close() throws IOException {
+			head = null;
+			if (input != null) {
+				input.close();
+				input = null;
+			}
+		}
+	}
+
+	/**
+	 * Size of I/O buffers.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * File on disk.
+	 */
+	private File file;
+
+	/**
+	 * Number of records in file.
+	 */
+	private long count = 0;
+
+	/**
+	 * Creates new (empty) encoded states file.
+	 * 
+	 * @param file file on disk
+	 */
+	private EncodedStatesFile(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Sorts given records, removes duplicates among them (first occurrences are kept), and writes them to a new file.
+	 * 
+	 * @param file file to be written
+	 * @param records list of records (gets sorted)
+	 * @return new encoded states file
+	 * @throws IOException whenever writing fails
+	 */
+	public static EncodedStatesFile write(File file, List<Record> records) throws IOException {
+		Collections.sort(records, RECORDS_COMPARATOR); // stable sort, first occurrences come first
+		EncodedStatesFile result = new EncodedStatesFile(file);
+		DataOutputStream output = openOutput(file);
+		byte[] previousCode = null;
+		for (Record record : records) {
+			if ((previousCode != null) && (CODES_COMPARATOR.compare(previousCode, record.code) == 0))
+				continue;
+			writeRecord(output, record);
+			previousCode = record.code;
+			result.count++;
+		}
+		output.close();
+		return result;
+	}
+
+	/**
+	 * Merges given sorted files into a new one, dropping duplicates among them (occurrences from files earlier on the
+	 * list are kept) and all records with codes present in any of subtracted files.
+	 * 
+	 * @param file file to be written
+	 * @param merged list of files to be merged
+	 * @param subtracted list of files to be subtracted (nulls allowed)
+	 * @return new encoded states file
+	 * @throws IOException whenever reading or writing fails
+	 */
+	public static EncodedStatesFile merge(File file, List<EncodedStatesFile> merged, List<EncodedStatesFile> subtracted) throws IOException {
+		final List<Reader> readers = new ArrayList<Reader>();
+		PriorityQueue<Integer> queue = new PriorityQueue<Integer>(Math.max(1, merged.size()), new Comparator<Integer>() {
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+			 */
+			@Override
+			public int compare(Integer i1, Integer i2) {
+				int difference = CODES_COMPARATOR.compare(readers.get(i1).head().code, readers.get(i2).head().code);
+				return (difference != 0) ? difference : i1 - i2;
+			}
+		});
+		for (EncodedStatesFile encodedStatesFile : merged) {
+			Reader reader = encodedStatesFile.openReader();
+			readers.add(reader);
+			if (reader.head() != null)
+				queue.add(readers.size() - 1);
+		}
+		List<Reader> subtractedReaders = new ArrayList<Reader>();
+		for (EncodedStatesFile encodedStatesFile : subtracted)
+			if (encodedStatesFile != null)
+				subtractedReaders.add(encodedStatesFile.openReader());
+
+		EncodedStatesFile result = new EncodedStatesFile(file);
+		DataOutputStream output = openOutput(file);
+		byte[] previousCode = null;
+		while (!queue.isEmpty()) {
+			int index = queue.poll();
+			Reader reader = readers.get(index);
+			Record record = reader.head();
+			if (reader.next() != null)
+				queue.add(index);
+
+			// duplicate among merged files
+			if ((previousCode != null) && (CODES_COMPARATOR.compare(previousCode, record.code) == 0))
+				continue;
+			previousCode = record.code;
+
+			// duplicate in subtracted files
+			boolean duplicate = false;
+			for (Reader subtractedReader : subtractedReaders) {
+				while ((subtractedReader.head() != null) && (CODES_COMPARATOR.compare(subtractedReader.head().code, record.code) < 0))
+					subtractedReader.next();
+				if ((subtractedReader.head() != null) && (CODES_COMPARATOR.compare(subtractedReader.head().code, record.code) == 0)) {
+					duplicate = true;
+					break;
+				}
+			}
+			if (duplicate)
+				continue;
+
+			writeRecord(output, record);
+			result.count++;
+		}
+		output.close();
+		for (Reader subtractedReader : subtractedReaders)
+			subtractedReader.close();
+		return result;
+	}
+
+	/**
+	 * Opens a new reader positioned at the first record of this file.
+	 * 
+	 * @return new reader
+	 * @throws IOException whenever opening file fails
+	 */
+	public Reader openReader() throws IOException {
+		return new Reader();
+	}
+
+	/**
+	 * Returns the number of records in this file.
+	 * 
+	 * @return number of records in this file
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns file on disk.
+	 * 
+	 * @return file on disk
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Deletes this file from disk.
+	 */
+	public void delete() {
+		file.delete();
+	}
+
+	/**
+	 * Opens compressed output stream for given file (via file channel).
+	 * 
+	 * @param file file to be written
+	 * @return output stream
+	 * @throws IOException whenever opening file fails
+	 */
+	private static DataOutputStream openOutput(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		return new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), BUFFER_SIZE));
+	}
+
+	/**
+	 * Writes a single record to given output.
+	 * 
+	 * @param output output stream
+	 * @param record record to be written
+	 * @throws IOException whenever writing fails
+	 */
+	private static void writeRecord(DataOutputStream output, Record record) throws IOException {
+		writeLength(output, record.code.length);
+		output.write(record.code);
+		writeLength(output, record.payload.length);
+		output.write(record.payload);
+	}
+
+	/**
+	 * Writes length as a variable-length quantity (7 bits per byte).
+	 * 
+	 * @param output output stream
+	 * @param length length to be written
+	 * @throws IOException whenever writing fails
+	 */
+	private static void writeLength(DataOutputStream output, int length) throws IOException {
+		while ((length & ~0x7F) != 0) {
+			output.writeByte((length & 0x7F) | 0x80);
+			length >>>= 7;
+		}
+		output.writeByte(length);
+	}
+
+	/**
+	 * Reads length written as a variable-length quantity (7 bits per byte).
+	 * 
+	 * @param input input stream
+	 * @return length read
+	 * @throws IOException whenever reading fails (EOFException at end of file)
+	 */
+	private static int readLength(DataInputStream input) throws IOException {
+		int length = 0;
+		int shift = 0;
+		while (true) {
+			int b = input.readUnsignedByte();
+			length |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return length;
+			shift += 7;
+		}
+	}
+}
@@ -0,0 +1,427 @@
+package sac.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import sac.util.ConsoleLogger;
+
+/**
+ * External memory A* algorithm with delayed duplicate elimination. Meant for optimal solving of instances, for which
+ * open set does not fit in memory. Open set is partitioned into (g, h) buckets kept on disk as sorted, compressed files
+ * of encoded states (see EncodedStatesFile), each state accompanied by the code of its parent. Buckets are expanded in
+ * the order of increasing f, and (for equal f) increasing g. Before expansion, a bucket is merged from its runs and
+ * duplicates are eliminated against closed buckets with the same h (equal states have equal h). Paths of solutions
+ * are rebuilt from closed buckets after the search. The algorithm requires a state codec to be specified in
+ * configurator, positive costs of moves and a consistent heuristic.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class ExternalAStar extends GraphSearchAlgorithm {
+
+	/**
+	 * Bucket of open or closed states, described by common values of g and h.
+	 */
+	private static class Bucket implements Comparable<Bucket> {
+
+		/**
+		 * Common g value of states in bucket.
+		 */
+		private double g;
+
+		/**
+		 * Common h value of states in bucket.
+		 */
+		private double h;
+
+		/**
+		 * Creates new bucket description.
+		 * 
+		 * @param g common g value
+		 * @param h common h value
+		 */
+		private Bucket(double g, double h) {
+			this.g = g;
+			this.h = h;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Comparable#compareTo(java.lang.Object)
+		 */
+		@Override
+		public int compareTo(Bucket other) {
+			double difference = (g + h) - (other.g + other.h);
+			if (difference == 0.0)
+				difference = g - other.g;
+			return (difference == 0.0) ? 0 : ((difference > 0.0) ? 1 : -1);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object other) {
+			return (other instanceof Bucket) && (compareTo((Bucket) other) == 0);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return 31 * Double.hashCode(g + 0.0) + Double.hashCode(h + 0.0); // + 0.0 turns -0.0 into 0.0 (equal buckets)
+		}
+	}
+
+	/**
+	 * Open buckets with their runs (files) on disk.
+	 */
+	private TreeMap<Bucket, List<EncodedStatesFile>> openBuckets = new TreeMap<Bucket, List<EncodedStatesFile>>();
+
+	/**
+	 * Open buckets with records not yet flushed to disk.
+	 */
+	private Map<Bucket, List<EncodedStatesFile.Record>> openBuffers = new HashMap<Bucket, List<EncodedStatesFile.Record>>();
+
+	/**
+	 * Number of records not yet flushed to disk.
+	 */
+	private int openBuffersSize = 0;
+
+	/**
+	 * Closed buckets grouped by h value.
+	 */
+	private Map<Double, List<EncodedStatesFile>> closedBuckets = new HashMap<Double, List<EncodedStatesFile>>();
+
+	/**
+	 * Closed buckets in the order of expansion.
+	 */
+	private List<Bucket> closedBucketsOrder = new ArrayList<Bucket>();
+
+	/**
+	 * Closed buckets files in the order of expansion.
+	 */
+	private List<EncodedStatesFile> closedBucketsFiles = new ArrayList<EncodedStatesFile>();
+
+	/**
+	 * Directory for files of current execution.
+	 */
+	private File directory = null;
+
+	/**
+	 * Counter of files created in current execution.
+	 */
+	private int filesCount = 0;
+
+	/**
+	 * Creates new instance of external memory A* algorithm.
+	 * 
+	 * @param initial reference to initial state
+	 * @param configurator reference to configurator object
+	 */
+	public ExternalAStar(GraphState initial, GraphSearchConfigurator configurator) {
+		super(initial, configurator);
+		setupOpenAndClosedSets(new ExternalAStarComparator());
+	}
+
+	/**
+	 * Creates new instance of external memory A* algorithm.
+	 * 
+	 * @param initial reference to initial state
+	 */
+	public ExternalAStar(GraphState initial) {
+		this(initial, null);
+	}
+
+	/**
+	 * Creates new instance of external memory A* algorithm.
+	 */
+	public ExternalAStar() {
+		this(null, null);
+	}
+
+	/**
+	 * Comparator for external memory A* algorithm (same as for A*, states are not kept in open set though).
+	 */
+	private class ExternalAStarComparator implements Comparator<GraphState> {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+		 */
+		@Override
+		public int compare(GraphState gs1, GraphState gs2) {
+			double difference = gs1.getF() - gs2.getF();
+			if (difference == 0.0)
+				return gs1.getIdentifier().compareTo(gs2.getIdentifier());
+			else
+				return (difference > 0.0) ? 1 : -1;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphSearchAlgorithm#setupOpenAndClosedSets(java.util.Comparator)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void setupOpenAndClosedSets(Comparator<GraphState> openSetComparator) {
+		// state codec
+		setupStateCodec();
+
+		// open set (kept empty, only for monitors and statistics)
+		try {
+			Constructor<OpenSet> constructor = (Constructor<OpenSet>) Class.forName(configurator.getOpenSetClassName()).getConstructor(Comparator.class);
+			this.openSet = constructor.newInstance(openSetComparator);
+		} catch (Exception e) {
+			this.openSet = new OpenSetAsPriorityQueueFastContainsFastReplace(openSetComparator);
+		}
+
+		// closed set not used by external memory A* algorithm (!), buckets are kept on disk
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphSearchAlgorithm#doExecute()
+	 */
+	@Override
+	protected void doExecute() {
+		startTime = System.currentTimeMillis();
+		step = 0;
+		if (initial == null)
+			return;
+		if (stateCodec == null) {
+			ConsoleLogger.info("External memory A* requires a state codec (see GraphSearchConfigurator.setStateCodecClassName(...)).");
+			endTime = System.currentTimeMillis();
+			return;
+		}
+
+		directory = new File(configurator.getExternalMemoryDirectory(), "sac_external_astar_" + System.nanoTime());
+		directory.mkdirs();
+		filesCount = 0;
+		try {
+			addToOpenBucket(new Bucket(initial.getG(), initial.getH()), new EncodedStatesFile.Record(stateCodec.encode(initial), EncodedStatesFile.NO_PAYLOAD));
+			List<EncodedStatesFile.Record> solutionsRecords = new ArrayList<EncodedStatesFile.Record>();
+			List<Bucket> solutionsBuckets = new ArrayList<Bucket>();
+			boolean stopped = false;
+
+			while ((!stopped) && ((!openBuckets.isEmpty()) || (!openBuffers.isEmpty()))) {
+				// picking bucket with smallest f (and smallest g)
+				Bucket bucket = null;
+				if (!openBuckets.isEmpty())
+					bucket = openBuckets.firstKey();
+				for (Bucket bufferedBucket : openBuffers.keySet())
+					if ((bucket == null) || (bufferedBucket.compareTo(bucket) < 0))
+						bucket = bufferedBucket;
+
+				// merging bucket (delayed duplicate elimination against closed buckets with the same h)
+				flushOpenBucket(bucket);
+				List<EncodedStatesFile> runs = openBuckets.remove(bucket);
+				List<EncodedStatesFile> closedWithSameH = closedBuckets.get(bucket.h);
+				if (closedWithSameH == null) {
+					closedWithSameH = new ArrayList<EncodedStatesFile>();
+					closedBuckets.put(bucket.h, closedWithSameH);
+				}
+				EncodedStatesFile bucketFile = EncodedStatesFile.merge(newFile(), runs, closedWithSameH);
+				for (EncodedStatesFile run : runs)
+					run.delete();
+				closedWithSameH.add(bucketFile);
+				closedBucketsOrder.add(bucket);
+				closedBucketsFiles.add(bucketFile);
+
+				// expanding bucket
+				EncodedStatesFile.Reader reader = bucketFile.openReader();
+				for (EncodedStatesFile.Record record = reader.head(); record != null; record = reader.next()) {
+					step++;
+
+					// time limit check
+					if (configurator.getTimeLimit() < Long.MAX_VALUE) {
+						long currentTime = System.currentTimeMillis();
+						if (currentTime - startTime > configurator.getTimeLimit()) {
+							stopped = true;
+							break;
+						}
+					}
+
+					current = (GraphState) stateCodec.decode(record.getCode());
+					current.refreshCosts();
+
+					// keeping best so far
+					if ((bestSoFar == null) || (bucket.h < bestSoFar.getH()))
+						bestSoFar = current;
+
+					// registering solution (path is rebuilt later)
+					if (current.isSolution()) {
+						solutionsRecords.add(record);
+						solutionsBuckets.add(bucket);
+						if (configurator.getWantedNumberOfSolutions() == solutionsRecords.size()) {
+							stopped = true;
+							break;
+						}
+					}
+
+					// generating children (g of child = g of bucket + cost of move)
+					for (GraphState child : current.generateChildren()) {
+						child.setParent(current);
+						child.refreshCosts();
+						double childG = bucket.g + (child.getG() - current.getG());
+						addToOpenBucket(new Bucket(childG, child.getH()), new EncodedStatesFile.Record(stateCodec.encode(child), record.getCode()));
+					}
+				}
+				reader.close();
+			}
+
+			// rebuilding paths of solutions
+			for (int i = 0; i < solutionsRecords.size(); i++) {
+				GraphState solution = rebuildPath(solutionsRecords.get(i), solutionsBuckets.get(i));
+				if (solution != null) {
+					if (solutions.isEmpty())
+						bestSoFar = solution;
+					solutions.add(solution);
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			for (List<EncodedStatesFile> runs : openBuckets.values())
+				for (EncodedStatesFile run : runs)
+					run.delete();
+			for (EncodedStatesFile bucketFile : closedBucketsFiles)
+				bucketFile.delete();
+			openBuckets.clear();
+			openBuffers.clear();
+			openBuffersSize = 0;
+			closedBuckets.clear();
+			closedBucketsOrder.clear();
+			closedBucketsFiles.clear();
+			directory.delete();
+		}
+		endTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Adds a record to open bucket (in memory), flushes all buffered records to disk if buffer size is exceeded.
+	 * 
+	 * @param bucket bucket description
+	 * @param record record to be added
+	 * @throws IOException whenever writing fails
+	 */
+	private void addToOpenBucket(Bucket bucket, EncodedStatesFile.Record record) throws IOException {
+		List<EncodedStatesFile.Record> buffer = openBuffers.get(bucket);
+		if (buffer == null) {
+			buffer = new ArrayList<EncodedStatesFile.Record>();
+			openBuffers.put(bucket, buffer);
+		}
+		buffer.add(record);
+		openBuffersSize++;
+		if (openBuffersSize >= configurator.getExternalMemoryBufferSize())
+			for (Bucket bufferedBucket : new ArrayList<Bucket>(openBuffers.keySet()))
+				flushOpenBucket(bufferedBucket);
+	}
+
+	/**
+	 * Flushes buffered records of given open bucket to disk as a new sorted run.
+	 * 
+	 * @param bucket bucket description
+	 * @throws IOException whenever writing fails
+	 */
+	private void flushOpenBucket(Bucket bucket) throws IOException {
+		List<EncodedStatesFile> runs = openBuckets.get(bucket);
+		if (runs == null) {
+			runs = new ArrayList<EncodedStatesFile>();
+			openBuckets.put(bucket, runs);
+		}
+		List<EncodedStatesFile.Record> buffer = openBuffers.remove(bucket);
+		if (buffer != null) {
+			runs.add(EncodedStatesFile.write(newFile(), buffer));
+			openBuffersSize -= buffer.size();
+		}
+	}
+
+	/**
+	 * Returns new file for current execution.
+	 * 
+	 * @return new file
+	 */
+	private File newFile() {
+		return new File(directory, "bucket_file_" + (filesCount++));
+	}
+
+	/**
+	 * Rebuilds path of solution. Records of ancestors are found in closed buckets (following the parent codes), then
+	 * the path is replayed from initial state by generating children, so that states get proper parents, moves names,
+	 * depths and costs.
+	 * 
+	 * @param solutionRecord record of solution state
+	 * @param solutionBucket bucket of solution state
+	 * @return reference to solution state linked with its path, or null if path could not be rebuilt
+	 * @throws IOException whenever reading fails
+	 */
+	private GraphState rebuildPath(EncodedStatesFile.Record solutionRecord, Bucket solutionBucket) throws IOException {
+		LinkedList<byte[]> codes = new LinkedList<byte[]>();
+		codes.addFirst(solutionRecord.getCode());
+		byte[] parentCode = solutionRecord.getPayload();
+		double g = solutionBucket.g;
+		while (parentCode.length > 0) {
+			codes.addFirst(parentCode);
+
+			// record of parent lies in a bucket with smaller g
+			byte[] grandparentCode = null;
+			for (int i = closedBucketsOrder.size() - 1; (i >= 0) && (grandparentCode == null); i--) {
+				if (closedBucketsOrder.get(i).g >= g)
+					continue;
+				EncodedStatesFile.Reader reader = closedBucketsFiles.get(i).openReader();
+				for (EncodedStatesFile.Record record = reader.head(); record != null; record = reader.next()) {
+					int comparison = EncodedStatesFile.CODES_COMPARATOR.compare(record.getCode(), parentCode);
+					if (comparison == 0) {
+						grandparentCode = record.getPayload();
+						g = closedBucketsOrder.get(i).g;
+						break;
+					} else if (comparison > 0)
+						break;
+				}
+				reader.close();
+			}
+			if (grandparentCode == null)
+				return null;
+			parentCode = grandparentCode;
+		}
+
+		// replaying path from initial state
+		GraphState state = initial;
+		codes.removeFirst();
+		for (byte[] nextCode : codes) {
+			GraphState next = null;
+			for (GraphState child : state.generateChildren())
+				if (Arrays.equals(stateCodec.encode(child), nextCode)) {
+					next = child;
+					break;
+				}
+			if (next == null)
+				return null;
+			next.setParent(state);
+			next.setDepth(state.getDepth() + 1);
+			next.refreshCosts();
+			state = next;
+		}
+		return state;
+	}
+}
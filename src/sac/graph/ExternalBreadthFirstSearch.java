@@ -0,0 +1,212 @@
+package sac.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import sac.util.ConsoleLogger;
+
+/**
+ * External memory Breadth First Search algorithm with delayed duplicate detection. Meant for enumerations of state
+ * spaces too large for memory. Each BFS layer is kept on disk as a sorted, compressed file of encoded states (see
+ * EncodedStatesFile). Children of a layer are collected in memory up to configured buffer size, then sorted and
+ * flushed as runs, finally merged into the next layer, while duplicates are removed against the current and the
+ * previous layer. The latter is exact for graphs with reversible moves (undirected graphs). The algorithm requires a
+ * state codec to be specified in configurator. States are not linked with their parents (solutions have depth set,
+ * but no path).
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class ExternalBreadthFirstSearch extends GraphSearchAlgorithm {
+
+	/**
+	 * Sizes (numbers of distinct states) of consecutive BFS layers.
+	 */
+	private List<Long> layersSizes = new ArrayList<Long>();
+
+	/**
+	 * Creates new instance of external memory Breadth First Search algorithm.
+	 * 
+	 * @param initial reference to initial state
+	 * @param configurator reference to configurator object
+	 */
+	public ExternalBreadthFirstSearch(GraphState initial, GraphSearchConfigurator configurator) {
+		super(initial, configurator);
+		setupOpenAndClosedSets(new ExternalBreadthFirstSearchComparator());
+	}
+
+	/**
+	 * Creates new instance of external memory Breadth First Search algorithm.
+	 * 
+	 * @param initial reference to initial state
+	 */
+	public ExternalBreadthFirstSearch(GraphState initial) {
+		this(initial, null);
+	}
+
+	/**
+	 * Creates new instance of external memory Breadth First Search algorithm.
+	 */
+	public ExternalBreadthFirstSearch() {
+		this(null, null);
+	}
+
+	/**
+	 * Comparator for external memory Breadth First Search algorithm (same as for BFS, states are not kept in open set
+	 * though).
+	 */
+	private class ExternalBreadthFirstSearchComparator implements Comparator<GraphState> {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+		 */
+		@Override
+		public int compare(GraphState gs1, GraphState gs2) {
+			double difference = gs1.getDepth() - gs2.getDepth();
+			if (difference == 0.0)
+				return gs1.getIdentifier().compareTo(gs2.getIdentifier());
+			else
+				return (difference > 0.0) ? 1 : -1;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphSearchAlgorithm#setupOpenAndClosedSets(java.util.Comparator)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void setupOpenAndClosedSets(Comparator<GraphState> openSetComparator) {
+		// state codec
+		setupStateCodec();
+
+		// open set (kept empty, only for monitors and statistics)
+		try {
+			Constructor<OpenSet> constructor = (Constructor<OpenSet>) Class.forName(configurator.getOpenSetClassName()).getConstructor(Comparator.class);
+			this.openSet = constructor.newInstance(openSetComparator);
+		} catch (Exception e) {
+			this.openSet = new OpenSetAsPriorityQueueFastContainsFastReplace(openSetComparator);
+		}
+
+		// closed set not used by external memory BFS algorithm (!), layers are kept on disk
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphSearchAlgorithm#doExecute()
+	 */
+	@Override
+	protected void doExecute() {
+		startTime = System.currentTimeMillis();
+		step = 0;
+		layersSizes.clear();
+		if (initial == null)
+			return;
+		if (stateCodec == null) {
+			ConsoleLogger.info("External memory BFS requires a state codec (see GraphSearchConfigurator.setStateCodecClassName(...)).");
+			endTime = System.currentTimeMillis();
+			return;
+		}
+
+		File directory = new File(configurator.getExternalMemoryDirectory(), "sac_external_bfs_" + System.nanoTime());
+		directory.mkdirs();
+		EncodedStatesFile previousLayer = null;
+		EncodedStatesFile currentLayer = null;
+		try {
+			List<EncodedStatesFile.Record> buffer = new ArrayList<EncodedStatesFile.Record>();
+			buffer.add(new EncodedStatesFile.Record(stateCodec.encode(initial), EncodedStatesFile.NO_PAYLOAD));
+			currentLayer = EncodedStatesFile.write(new File(directory, "layer_0"), buffer);
+			buffer.clear();
+			int depth = 0;
+			boolean stopped = false;
+
+			while ((!stopped) && (currentLayer.getCount() > 0)) {
+				layersSizes.add(currentLayer.getCount());
+
+				// expanding current layer into sorted runs
+				List<EncodedStatesFile> runs = new ArrayList<EncodedStatesFile>();
+				EncodedStatesFile.Reader reader = currentLayer.openReader();
+				for (EncodedStatesFile.Record record = reader.head(); record != null; record = reader.next()) {
+					step++;
+
+					// time limit check
+					if (configurator.getTimeLimit() < Long.MAX_VALUE) {
+						long currentTime = System.currentTimeMillis();
+						if (currentTime - startTime > configurator.getTimeLimit()) {
+							stopped = true;
+							break;
+						}
+					}
+
+					current = (GraphState) stateCodec.decode(record.getCode());
+					current.setDepth(depth);
+
+					// registering solution
+					if (current.isSolution()) {
+						if (solutions.isEmpty())
+							bestSoFar = current;
+						solutions.add(current);
+						if (configurator.getWantedNumberOfSolutions() == solutions.size()) {
+							stopped = true;
+							break;
+						}
+					}
+
+					// generating children
+					for (GraphState child : current.generateChildren()) {
+						buffer.add(new EncodedStatesFile.Record(stateCodec.encode(child), EncodedStatesFile.NO_PAYLOAD));
+						if (buffer.size() >= configurator.getExternalMemoryBufferSize()) {
+							runs.add(EncodedStatesFile.write(new File(directory, "layer_" + (depth + 1) + "_run_" + runs.size()), buffer));
+							buffer.clear();
+						}
+					}
+				}
+				reader.close();
+				if (!buffer.isEmpty()) {
+					runs.add(EncodedStatesFile.write(new File(directory, "layer_" + (depth + 1) + "_run_" + runs.size()), buffer));
+					buffer.clear();
+				}
+
+				// merging runs into next layer (delayed duplicate detection against current and previous layers)
+				EncodedStatesFile nextLayer = null;
+				if (!stopped)
+					nextLayer = EncodedStatesFile.merge(new File(directory, "layer_" + (depth + 1)), runs, Arrays.asList(currentLayer, previousLayer));
+				for (EncodedStatesFile run : runs)
+					run.delete();
+				if (previousLayer != null)
+					previousLayer.delete();
+				previousLayer = currentLayer;
+				currentLayer = nextLayer;
+				depth++;
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			if (previousLayer != null)
+				previousLayer.delete();
+			if (currentLayer != null)
+				currentLayer.delete();
+			directory.delete();
+		}
+		endTime = System.currentTimeMillis();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphSearchAlgorithm#getLayersSizes()
+	 */
+	@Override
+	public final List<Long> getLayersSizes() {
+		return layersSizes;
+	}
+}
@@ -2,11 +2,14 @@ package sac.graph;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 
 import sac.Identifier;
 import sac.SearchAlgorithm;
+import sac.StateCodec;
 
 /**
  * Abstract graph search algorithm. Meant to be extended by actual algorithms e.g.: Breadth First Search, Depth First
@@ -47,16 +50,37 @@ public abstract class GraphSearchAlgorithm extends SearchAlgorithm {
 	 */
 	protected int step = 0;
 
+	/**
+	 * Number of children generated in last execution.
+	 */
+	protected long generatedStatesCount = 0;
+
+	/**
+	 * Number of generated children recognized as duplicates (of closed states or states in open set) in last
+	 * execution.
+	 */
+	protected long duplicateStatesCount = 0;
+
 	/**
 	 * Reference to currently examined state in the main searching loop.
 	 */
 	protected GraphState current = null;
 
+	/**
+	 * Reusable buffer for children of currently examined state (cleared before each expansion).
+	 */
+	protected final List<GraphState> childrenBuffer = new ArrayList<GraphState>();
+
 	/**
 	 * Reference to state with best (so far) value of h function.
 	 */
 	protected GraphState bestSoFar = null;
 
+	/**
+	 * State codec (if specified in configurator).
+	 */
+	protected StateCodec stateCodec = null;
+
 	/**
 	 * Creates new instance of graph search algorithm.
 	 * 
@@ -78,26 +102,61 @@ public abstract class GraphSearchAlgorithm extends SearchAlgorithm {
 	 */
 	@SuppressWarnings("unchecked")
 	protected void setupOpenAndClosedSets(Comparator<GraphState> openSetComparator) {
-		// open set
+		// state codec
+		setupStateCodec();
+
+		// open set (constructor taking state codec preferred, if codec specified)
 		try {
-			Constructor<OpenSet> constructor = (Constructor<OpenSet>) Class.forName(configurator.getOpenSetClassName()).getConstructor(Comparator.class);
-			this.openSet = (OpenSet) constructor.newInstance(openSetComparator);
+			Class<?> openSetClass = Class.forName(configurator.getOpenSetClassName());
+			Constructor<OpenSet> constructor = null;
+			if (stateCodec != null)
+				try {
+					constructor = (Constructor<OpenSet>) openSetClass.getConstructor(Comparator.class, StateCodec.class);
+				} catch (NoSuchMethodException e) {
+				}
+			if (constructor != null)
+				this.openSet = (OpenSet) constructor.newInstance(openSetComparator, stateCodec);
+			else
+				this.openSet = (OpenSet) openSetClass.getConstructor(Comparator.class).newInstance(openSetComparator);
 		} catch (Exception e) {
 			this.openSet = new OpenSetAsPriorityQueueFastContainsFastReplace(openSetComparator);
 			e.printStackTrace();
 		}
 
-		// closed set
+		// closed set (constructor taking state codec preferred, if codec specified)
 		if (configurator.isClosedSetOn())
 			try {
-				Constructor<ClosedSet> constructor = (Constructor<ClosedSet>) Class.forName(configurator.getClosedSetClassName()).getConstructor();
-				this.closedSet = (ClosedSet) constructor.newInstance();
+				Class<?> closedSetClass = Class.forName(configurator.getClosedSetClassName());
+				Constructor<ClosedSet> constructor = null;
+				if (stateCodec != null)
+					try {
+						constructor = (Constructor<ClosedSet>) closedSetClass.getConstructor(StateCodec.class);
+					} catch (NoSuchMethodException e) {
+					}
+				if (constructor != null)
+					this.closedSet = (ClosedSet) constructor.newInstance(stateCodec);
+				else
+					this.closedSet = (ClosedSet) closedSetClass.getConstructor().newInstance();
 			} catch (Exception e) {
 				this.closedSet = new ClosedSetAsHashMap();
 				e.printStackTrace();
 			}
 	}
 
+	/**
+	 * Creates (via reflection) state codec according to configurator object, or sets it to null if no codec is
+	 * specified.
+	 */
+	protected void setupStateCodec() {
+		this.stateCodec = null;
+		if (configurator.getStateCodecClassName() != null)
+			try {
+				this.stateCodec = (StateCodec) Class.forName(configurator.getStateCodecClassName()).getConstructor().newInstance();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -175,7 +234,14 @@ public abstract class GraphSearchAlgorithm extends SearchAlgorithm {
 			return;
 		openSet.add(initial);
 		step = 0;
-		while (!openSet.isEmpty()) {
+		generatedStatesCount = 0;
+		duplicateStatesCount = 0;
+		boolean statesInterning = configurator.isStatesInterningOn();
+		boolean pathRebuilding = configurator.isPathRebuildingOn() && configurator.isClosedSetOn() && (closedSet instanceof PredecessorMemorizingClosedSet);
+		boolean solutionCheckedOnGeneration = configurator.isSolutionsCheckedOnGenerationOn() && isSolutionCheckedOnGeneration()
+				&& (configurator.getWantedNumberOfSolutions() == 1);
+		boolean solutionFoundOnGeneration = false;
+		while ((!openSet.isEmpty()) && (!solutionFoundOnGeneration)) {
 			step++;
 
 			// time limit check
@@ -203,20 +269,35 @@ public abstract class GraphSearchAlgorithm extends SearchAlgorithm {
 			// solution check
 			boolean isSolution = current.isSolution();
 
-			// registering solution
+			// registering solution (with path rebuilt from closed set, if needed)
 			if (isSolution) {
+				GraphState solution = (pathRebuilding) ? ((PredecessorMemorizingClosedSet) closedSet).rebuildPath(current) : current;
 				if (solutions.isEmpty())
-					bestSoFar = current;
-				solutions.add(current);
+					bestSoFar = solution;
+				solutions.add(solution);
 				if (configurator.getWantedNumberOfSolutions() == solutions.size())
 					break;
 			}
 
-			// generating children
-			List<GraphState> children = current.generateChildren();
+			// releasing current from its parent (predecessor memorized by closed set), so that chains of parents are
+			// not pinned in memory by states in open set
+			if (pathRebuilding)
+				current.setParent(null);
+
+			// generating children (lazily if solutions are checked on generation, otherwise into reusable buffer)
+			Iterator<GraphState> children = null;
+			if (solutionCheckedOnGeneration)
+				children = current.generateChildrenLazily();
+			else {
+				childrenBuffer.clear();
+				current.generateChildren(childrenBuffer);
+				children = childrenBuffer.iterator();
+			}
 
 			// iterating over children
-			for (GraphState child : children) {
+			while (children.hasNext()) {
+				GraphState child = children.next();
+				generatedStatesCount++;
 
 				// check if child was closed
 				boolean closedSetContains = (configurator.isClosedSetOn()) ? closedSet.contains(child) : false;
@@ -227,11 +308,31 @@ public abstract class GraphSearchAlgorithm extends SearchAlgorithm {
 					child.setParent(current);
 					child.setDepth(current.getDepth() + 1);
 
+					// interning child against open set (before heuristic calculations)
+					if ((statesInterning) && (openSet.contains(child))) {
+						GraphState existingChild = openSet.get(child);
+						duplicateStatesCount++;
+						child.setH(existingChild.getH());
+						child.refreshG();
+						replaceIfBetter(existingChild, child);
+						continue;
+					}
+
 					// update scores g, h, f
 					child.refreshCosts();
 
-					// check if child is in open set
-					boolean openSetContains = openSet.contains(child);
+					// registering solution found on generation (remaining children are not generated)
+					if ((solutionCheckedOnGeneration) && (child.isSolution())) {
+						if (pathRebuilding)
+							child.setParent(((PredecessorMemorizingClosedSet) closedSet).rebuildPath(current));
+						bestSoFar = child;
+						solutions.add(child);
+						solutionFoundOnGeneration = true;
+						break;
+					}
+
+					// check if child is in open set (already known if interning)
+					boolean openSetContains = (statesInterning) ? false : openSet.contains(child);
 
 					if (!openSetContains) {
 						// add child reference to parent
@@ -242,28 +343,54 @@ public abstract class GraphSearchAlgorithm extends SearchAlgorithm {
 						openSet.add(child);
 
 					} else {
-						// getting reference to child existing in open set
-						GraphState existingChild = openSet.get(child);
-
-						// replacing, if new child better than existing
-						if (openSet.getComparator().compare(child, existingChild) < 0) {
-							openSet.replace(existingChild, child);
-
-							// add child reference to parent (better child)
-							if (configurator.isParentsMemorizingChildren())
-								current.getChildren().add(child);
-
-							// removing from some other parent reference to worse existing child
-							existingChild.getParent().getChildren().remove(existingChild);
-						}
+						duplicateStatesCount++;
+						replaceIfBetter(openSet.get(child), child);
 					}
-				}
+				} else
+					duplicateStatesCount++;
 			}
 		}
 
+		// rebuilding path of best so far state (if not a solution)
+		if ((pathRebuilding) && (bestSoFar != null) && (!solutions.contains(bestSoFar)))
+			bestSoFar = ((PredecessorMemorizingClosedSet) closedSet).rebuildPath(bestSoFar);
+
 		endTime = System.currentTimeMillis();
 	}
 
+	/**
+	 * Replaces given existing state in open set by given new child of current state, if the latter is better.
+	 * 
+	 * @param existingChild reference to state existing in open set
+	 * @param child reference to new child (equal to the existing one)
+	 */
+	private void replaceIfBetter(GraphState existingChild, GraphState child) {
+		if (openSet.getComparator().compare(child, existingChild) < 0) {
+			openSet.replace(existingChild, child);
+
+			// add child reference to parent (better child)
+			if (configurator.isParentsMemorizingChildren())
+				current.getChildren().add(child);
+
+			// removing from some other parent reference to worse existing child
+			if (configurator.isParentsMemorizingChildren())
+				existingChild.getParent().getChildren().remove(existingChild);
+		}
+	}
+
+	/**
+	 * Returns boolean flag stating if this algorithm may check children for being solutions as soon as they are
+	 * generated (applied only when switched on in configurator and one solution is wanted, see
+	 * GraphSearchConfigurator.setSolutionsCheckedOnGenerationOn(...)). If so, children are generated lazily and the
+	 * search terminates on the first generated solution, without constructing remaining children. By default: false
+	 * (solutions are checked when polled from open set, as required e.g. for optimality of A*).
+	 * 
+	 * @return boolean flag stating if solutions are checked on generation
+	 */
+	protected boolean isSolutionCheckedOnGeneration() {
+		return false;
+	}
+
 	/**
 	 * Returns list of solutions.
 	 * 
@@ -327,6 +454,15 @@ public abstract class GraphSearchAlgorithm extends SearchAlgorithm {
 		this.initial = initial;
 	}
 
+	/**
+	 * Returns reference to state codec (or null if no codec is specified in configurator).
+	 * 
+	 * @return reference to state codec
+	 */
+	public final StateCodec getStateCodec() {
+		return stateCodec;
+	}
+
 	/**
 	 * Gets reference to configurator object.
 	 * 
@@ -349,4 +485,33 @@ public abstract class GraphSearchAlgorithm extends SearchAlgorithm {
 	public final int getClosedStatesCount() {
 		return step;
 	}
+
+	/**
+	 * Returns number of children generated in last execution.
+	 * 
+	 * @return number of generated children
+	 */
+	public final long getGeneratedStatesCount() {
+		return generatedStatesCount;
+	}
+
+	/**
+	 * Returns number of generated children recognized as duplicates (of closed states or states in open set) in last
+	 * execution. Together with the number of generated children it gives the hit rate of states interning.
+	 * 
+	 * @return number of duplicate children
+	 */
+	public final long getDuplicateStatesCount() {
+		return duplicateStatesCount;
+	}
+
+	/**
+	 * Returns sizes (numbers of distinct states) of consecutive layers reached by last execution, for algorithms
+	 * searching layer by layer (see ExternalBreadthFirstSearch). Empty list by default.
+	 * 
+	 * @return list of layers sizes
+	 */
+	public List<Long> getLayersSizes() {
+		return Collections.emptyList();
+	}
 }
\ No newline at end of file
@@ -67,6 +67,55 @@ public class GraphSearchConfigurator {
 	 */
 	private long monitorRefreshTime = 1000;
 
+	/**
+	 * Class name for state codec (compact binary form of states). By default: null (no codec). Required by searches
+	 * keeping states outside of objects, e.g. sac.graph.ExternalBreadthFirstSearch.
+	 */
+	private String stateCodecClassName = null;
+
+	/**
+	 * Directory for files of external memory searches. By default: system temporary directory (java.io.tmpdir).
+	 */
+	private String externalMemoryDirectory = System.getProperty("java.io.tmpdir");
+
+	/**
+	 * Number of encoded states kept in memory by external memory searches before they are sorted and flushed to disk.
+	 * By default: 1048576.
+	 */
+	private int externalMemoryBufferSize = 1024 * 1024;
+
+	/**
+	 * Are paths rebuilt from closed set instead of being kept by parent references. If set to true and closed set
+	 * memorizes predecessors of states (see PredecessorMemorizingClosedSet), closed states are released from their
+	 * parents, so that chains of parents are not pinned in memory, and paths of solutions are rebuilt on demand. By
+	 * default: false.
+	 */
+	private boolean pathRebuildingOn = false;
+
+	/**
+	 * Are generated states interned against open set. If set to true, each generated child (not closed) is probed in
+	 * open set right after construction, and if an equal state is already there, its h value is reused, so duplicates
+	 * are dropped (or replace worse ones) without heuristic calculations. Assumes h depends on the content of state
+	 * only. By default: false.
+	 */
+	private boolean statesInterningOn = false;
+
+	/**
+	 * Are children checked for being solutions as soon as they are generated, by algorithms without optimality
+	 * guarantees (Best First Search, Depth First Search) and when one solution is wanted. If set to true, children are
+	 * generated lazily and the search terminates on the first generated solution (which may differ from the one found
+	 * otherwise), without constructing remaining children. Note that Depth First Search still generates all children of
+	 * each expanded state when none of them is a solution. By default: false.
+	 */
+	private boolean solutionsCheckedOnGenerationOn = false;
+
+	/**
+	 * Are search trees walked in place by depth-first algorithms (Depth First Search without closed set, IDA*), when
+	 * the initial state is a sac.graph.ReversibleGraphState and the default g function is set. If set to true, a single
+	 * mutable state is walked by applying and undoing operators, without creating state objects. By default: false.
+	 */
+	private boolean inPlaceWalkingOn = false;
+
 	/**
 	 * Creates new configurator with default settings.
 	 */
@@ -104,6 +153,25 @@ public class GraphSearchConfigurator {
 		monitorOn = Boolean.valueOf(properties.getProperty("monitorOn"));
 		monitorClassName = properties.getProperty("monitorClassName");
 		monitorRefreshTime = Long.valueOf(properties.getProperty("monitorRefreshTime"));
+		String stateCodecClassNameString = properties.getProperty("stateCodecClassName");
+		if ((stateCodecClassNameString != null) && (stateCodecClassNameString.trim().length() > 0))
+			stateCodecClassName = stateCodecClassNameString.trim();
+		String externalMemoryDirectoryString = properties.getProperty("externalMemoryDirectory");
+		if ((externalMemoryDirectoryString != null) && (externalMemoryDirectoryString.trim().length() > 0))
+			externalMemoryDirectory = externalMemoryDirectoryString.trim();
+		String externalMemoryBufferSizeString = properties.getProperty("externalMemoryBufferSize");
+		if ((externalMemoryBufferSizeString != null) && (externalMemoryBufferSizeString.trim().length() > 0))
+			externalMemoryBufferSize = Integer.valueOf(externalMemoryBufferSizeString.trim());
+		pathRebuildingOn = Boolean.valueOf(properties.getProperty("pathRebuildingOn"));
+		String statesInterningOnString = properties.getProperty("statesInterningOn");
+		if ((statesInterningOnString != null) && (statesInterningOnString.trim().length() > 0))
+			statesInterningOn = Boolean.valueOf(statesInterningOnString.trim());
+		String solutionsCheckedOnGenerationOnString = properties.getProperty("solutionsCheckedOnGenerationOn");
+		if ((solutionsCheckedOnGenerationOnString != null) && (solutionsCheckedOnGenerationOnString.trim().length() > 0))
+			solutionsCheckedOnGenerationOn = Boolean.valueOf(solutionsCheckedOnGenerationOnString.trim());
+		String inPlaceWalkingOnString = properties.getProperty("inPlaceWalkingOn");
+		if ((inPlaceWalkingOnString != null) && (inPlaceWalkingOnString.trim().length() > 0))
+			inPlaceWalkingOn = Boolean.valueOf(inPlaceWalkingOnString.trim());
 	}
 
 	/**
@@ -286,6 +354,134 @@ public class GraphSearchConfigurator {
 		this.monitorRefreshTime = monitorRefreshTime;
 	}
 
+	/**
+	 * Returns state codec class name.
+	 * 
+	 * @return state codec class name
+	 */
+	public String getStateCodecClassName() {
+		return stateCodecClassName;
+	}
+
+	/**
+	 * Sets state codec class name.
+	 * 
+	 * @param stateCodecClassName state codec class name to be set
+	 */
+	public void setStateCodecClassName(String stateCodecClassName) {
+		this.stateCodecClassName = stateCodecClassName;
+	}
+
+	/**
+	 * Returns directory for files of external memory searches.
+	 * 
+	 * @return directory for files of external memory searches
+	 */
+	public String getExternalMemoryDirectory() {
+		return externalMemoryDirectory;
+	}
+
+	/**
+	 * Sets directory for files of external memory searches.
+	 * 
+	 * @param externalMemoryDirectory directory to be set
+	 */
+	public void setExternalMemoryDirectory(String externalMemoryDirectory) {
+		this.externalMemoryDirectory = externalMemoryDirectory;
+	}
+
+	/**
+	 * Returns number of encoded states kept in memory by external memory searches before flushing them to disk.
+	 * 
+	 * @return number of encoded states kept in memory
+	 */
+	public int getExternalMemoryBufferSize() {
+		return externalMemoryBufferSize;
+	}
+
+	/**
+	 * Sets number of encoded states kept in memory by external memory searches before flushing them to disk.
+	 * 
+	 * @param externalMemoryBufferSize value to be set
+	 */
+	public void setExternalMemoryBufferSize(int externalMemoryBufferSize) {
+		this.externalMemoryBufferSize = externalMemoryBufferSize;
+	}
+
+	/**
+	 * Returns boolean flag deciding if paths are rebuilt from closed set instead of being kept by parent references.
+	 * 
+	 * @return boolean flag deciding if paths are rebuilt from closed set
+	 */
+	public boolean isPathRebuildingOn() {
+		return pathRebuildingOn;
+	}
+
+	/**
+	 * Sets boolean flag deciding if paths are rebuilt from closed set instead of being kept by parent references.
+	 * 
+	 * @param pathRebuildingOn boolean flag to be set
+	 */
+	public void setPathRebuildingOn(boolean pathRebuildingOn) {
+		this.pathRebuildingOn = pathRebuildingOn;
+	}
+
+	/**
+	 * Returns boolean flag deciding if generated states are interned against open set (before heuristic calculations).
+	 * 
+	 * @return boolean flag deciding if generated states are interned
+	 */
+	public boolean isStatesInterningOn() {
+		return statesInterningOn;
+	}
+
+	/**
+	 * Sets boolean flag deciding if generated states are interned against open set (before heuristic calculations).
+	 * 
+	 * @param statesInterningOn boolean flag to be set
+	 */
+	public void setStatesInterningOn(boolean statesInterningOn) {
+		this.statesInterningOn = statesInterningOn;
+	}
+
+	/**
+	 * Returns boolean flag deciding if children are checked for being solutions as soon as they are generated (by
+	 * algorithms without optimality guarantees).
+	 * 
+	 * @return boolean flag deciding if solutions are checked on generation
+	 */
+	public boolean isSolutionsCheckedOnGenerationOn() {
+		return solutionsCheckedOnGenerationOn;
+	}
+
+	/**
+	 * Sets boolean flag deciding if children are checked for being solutions as soon as they are generated (by
+	 * algorithms without optimality guarantees).
+	 * 
+	 * @param solutionsCheckedOnGenerationOn boolean flag to be set
+	 */
+	public void setSolutionsCheckedOnGenerationOn(boolean solutionsCheckedOnGenerationOn) {
+		this.solutionsCheckedOnGenerationOn = solutionsCheckedOnGenerationOn;
+	}
+
+	/**
+	 * Returns boolean flag deciding if search trees are walked in place by depth-first algorithms.
+	 * 
+	 * @return boolean flag deciding if search trees are walked in place
+	 */
+	public boolean isInPlaceWalkingOn() {
+		return inPlaceWalkingOn;
+	}
+
+	/**
+	 * Sets boolean flag deciding if search trees are walked in place by depth-first algorithms.
+	 * 
+	 * @param inPlaceWalkingOn boolean flag to be set
+	 */
+	public void setInPlaceWalkingOn(boolean inPlaceWalkingOn) {
+		this.inPlaceWalkingOn = inPlaceWalkingOn;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -313,6 +509,20 @@ public class GraphSearchConfigurator {
 		builder.append("monitorClassName = " + monitorClassName);
 		builder.append("\n");
 		builder.append("monitorRefreshTime = " + ((monitorRefreshTime < Long.MAX_VALUE) ? monitorRefreshTime : "Long.MAX_VALUE"));
+		builder.append("\n");
+		builder.append("stateCodecClassName = " + stateCodecClassName);
+		builder.append("\n");
+		builder.append("externalMemoryDirectory = " + externalMemoryDirectory);
+		builder.append("\n");
+		builder.append("externalMemoryBufferSize = " + externalMemoryBufferSize);
+		builder.append("\n");
+		builder.append("pathRebuildingOn = " + pathRebuildingOn);
+		builder.append("\n");
+		builder.append("statesInterningOn = " + statesInterningOn);
+		builder.append("\n");
+		builder.append("solutionsCheckedOnGenerationOn = " + solutionsCheckedOnGenerationOn);
+		builder.append("\n");
+		builder.append("inPlaceWalkingOn = " + inPlaceWalkingOn);
 		return builder.toString();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,278 @@
+package sac.graph;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running server solving a stream of problem instances, meant to avoid JVM startup, class loading and warm-up
+ * costs per instance. Instances arrive as text lines (on standard input or via connections to a localhost socket) and
+ * are solved concurrently on a bounded pool of workers, each worker having its own search algorithm object (own open
+ * and closed sets). Responses are written as soon as instances are solved (hence possibly out of order), as
+ * tab-separated lines: request number (line number within input or connection), status (SOLVED, NOT_SOLVED or ERROR),
+ * duration time of search [ms], latency since request arrival [ms], number of closed states, cost of solution and
+ * moves along path (or error message). Since states of particular problems may keep static settings (e.g. size of
+ * puzzle, map of TSP, heuristics), one server is meant to serve instances of one problem with fixed such settings; if
+ * parsing of an instance changes static settings, the server should be run with one worker.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class GraphSearchServer {
+
+	/**
+	 * Parser of problem instances (called by workers).
+	 */
+	public static interface InstanceParser {
+
+		/**
+		 * Parses given line into initial state of a problem instance.
+		 * 
+		 * @param line text line with problem instance
+		 * @return initial state
+		 * @throws Exception whenever line is not a valid instance
+		 */
+		public GraphState parse(String line) throws Exception;
+	}
+
+	/**
+	 * Number of requests allowed to wait for workers (per worker) before reading of input is suspended.
+	 */
+	private static final int QUEUED_REQUESTS_PER_WORKER = 16;
+
+	/**
+	 * Line ending the session (of standard input or connection).
+	 */
+	public static final String QUIT_LINE = "quit";
+
+	/**
+	 * Full class name of graph search algorithm.
+	 */
+	private String algorithmClassName;
+
+	/**
+	 * Configurator shared by algorithms of workers.
+	 */
+	private GraphSearchConfigurator configurator;
+
+	/**
+	 * Parser of problem instances.
+	 */
+	private InstanceParser parser;
+
+	/**
+	 * Pool of workers.
+	 */
+	private ExecutorService workers;
+
+	/**
+	 * Permits for requests being solved or waiting (bounds memory taken by requests read ahead).
+	 */
+	private Semaphore permits;
+
+	/**
+	 * Algorithm objects of workers (one per worker thread).
+	 */
+	private ThreadLocal<GraphSearchAlgorithm> algorithms = new ThreadLocal<GraphSearchAlgorithm>() {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.ThreadLocal#initialValue()
+		 */
+		@Override
+		protected GraphSearchAlgorithm initialValue() {
+			try {
+				return (GraphSearchAlgorithm) Class.forName(algorithmClassName).getConstructor(GraphState.class, GraphSearchConfigurator.class)
+						.newInstance(null, configurator);
+			} catch (Exception e) {
+				e.printStackTrace();
+				return new AStar(null, configurator);
+			}
+		}
+	};
+
+	/**
+	 * Creates new server.
+	 * 
+	 * @param algorithmClassName full class name of graph search algorithm
+	 * @param configurator configurator object shared by algorithms of workers
+	 * @param parser parser of problem instances
+	 * @param workersCount number of workers
+	 */
+	public GraphSearchServer(String algorithmClassName, GraphSearchConfigurator configurator, InstanceParser parser, int workersCount) {
+		this.algorithmClassName = algorithmClassName;
+		this.configurator = (configurator != null) ? configurator : new GraphSearchConfigurator();
+		this.parser = parser;
+		workersCount = Math.max(1, workersCount);
+		this.workers = Executors.newFixedThreadPool(workersCount, new ThreadFactory() {
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+			 */
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "sac-graph-search-worker");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.permits = new Semaphore(workersCount * (1 + QUEUED_REQUESTS_PER_WORKER));
+	}
+
+	/**
+	 * Serves instances read from given input (until its end or a quit line), writing responses to given output. Returns
+	 * when all read instances are answered.
+	 * 
+	 * @param input input stream with instances (one per line)
+	 * @param output output stream for responses
+	 * @throws IOException whenever reading or writing fails
+	 */
+	public void serve(InputStream input, OutputStream output) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(output, "UTF-8"));
+		final Phaser session = new Phaser(1); // reading thread and requests being solved
+		int requestsCount = 0;
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			line = line.trim();
+			if (line.equals(QUIT_LINE))
+				break;
+			if (line.length() == 0)
+				continue;
+			final int requestNumber = ++requestsCount;
+			final String instance = line;
+			final long arrivalTime = System.currentTimeMillis();
+			permits.acquireUninterruptibly();
+			session.register();
+			workers.execute(new Runnable() {
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					try {
+						String response = solve(instance, arrivalTime);
+						synchronized (writer) {
+							writer.write(requestNumber + "\t" + response);
+							writer.write(System.lineSeparator());
+							writer.flush();
+						}
+					} catch (IOException e) {
+						e.printStackTrace();
+					} finally {
+						session.arriveAndDeregister();
+						permits.release();
+					}
+				}
+			});
+		}
+		session.arriveAndAwaitAdvance(); // waiting for all requests of this session
+		synchronized (writer) {
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Serves connections to given port of localhost (each connection is a session, served as by serve(input, output)).
+	 * Does not return unless accepting of connections fails.
+	 * 
+	 * @param port port number
+	 * @throws IOException whenever opening server socket or accepting connections fails
+	 */
+	public void serve(int port) throws IOException {
+		ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		try {
+			while (true) {
+				final Socket socket = serverSocket.accept();
+				Thread connectionThread = new Thread(new Runnable() {
+
+					/*
+					 * (non-Javadoc)
+					 * 
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						try {
+							serve(socket.getInputStream(), socket.getOutputStream());
+						} catch (IOException e) {
+							e.printStackTrace();
+						} finally {
+							try {
+								socket.close();
+							} catch (IOException e) {
+							}
+						}
+					}
+				}, "sac-graph-search-connection");
+				connectionThread.setDaemon(true);
+				connectionThread.start();
+			}
+		} finally {
+			serverSocket.close();
+		}
+	}
+
+	/**
+	 * Solves given instance with the algorithm object of current worker and returns response (without request number).
+	 * 
+	 * @param instance text line with problem instance
+	 * @param arrivalTime time of request arrival
+	 * @return response line
+	 */
+	private String solve(String instance, long arrivalTime) {
+		GraphState initial = null;
+		try {
+			initial = parser.parse(instance);
+		} catch (Exception e) {
+			return "ERROR\t0\t" + (System.currentTimeMillis() - arrivalTime) + "\t0\t\t" + "INVALID INSTANCE: " + e.getMessage();
+		}
+		GraphSearchAlgorithm algorithm = algorithms.get();
+		algorithm.setInitial(initial);
+		try {
+			algorithm.execute();
+		} catch (RuntimeException e) {
+			return "ERROR\t0\t" + (System.currentTimeMillis() - arrivalTime) + "\t" + algorithm.getClosedStatesCount() + "\t\t" + e;
+		}
+		StringBuilder response = new StringBuilder();
+		GraphState solution = (algorithm.getSolutions().isEmpty()) ? null : algorithm.getSolutions().get(0);
+		response.append((solution != null) ? "SOLVED" : "NOT_SOLVED");
+		response.append("\t").append(algorithm.getDurationTime());
+		response.append("\t").append(System.currentTimeMillis() - arrivalTime);
+		response.append("\t").append(algorithm.getClosedStatesCount());
+		response.append("\t").append((solution != null) ? String.valueOf(solution.getG()) : "");
+		response.append("\t").append((solution != null) ? solution.getMovesAlongPath().toString() : "");
+		algorithm.setInitial(null); // releasing searched graph
+		return response.toString();
+	}
+
+	/**
+	 * Stops workers of this server (requests being solved are completed).
+	 */
+	public void shutdown() {
+		workers.shutdown();
+		try {
+			workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+		}
+	}
+}
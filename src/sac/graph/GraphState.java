@@ -1,5 +1,6 @@
 package sac.graph;
 
+import java.util.Iterator;
 import java.util.List;
 
 import sac.State;
@@ -44,6 +45,22 @@ public interface GraphState extends State {
 	@Override
 	public List<GraphState> generateChildren();
 
+	/**
+	 * Generates children of this state into given list (meant to be a reusable buffer, cleared by the caller), so that
+	 * no new list needs to be allocated per expansion.
+	 * 
+	 * @param children list to which generated children are added
+	 */
+	public void generateChildren(List<GraphState> children);
+
+	/**
+	 * Returns an iterator over children of this state, meant to construct children lazily (only when actually visited
+	 * by a search algorithm, e.g. until a solution is found among them).
+	 * 
+	 * @return iterator over children of this state
+	 */
+	public Iterator<GraphState> generateChildrenLazily();
+
 	/**
 	 * Returns the exact distance from the initial state to this state.
 	 * 
@@ -69,4 +86,16 @@ public interface GraphState extends State {
 	 * Updates g, h, f values.
 	 */
 	public void refreshCosts();
+
+	/**
+	 * Updates g, f values (h value is kept, e.g. as set via setH(...)).
+	 */
+	public void refreshG();
+
+	/**
+	 * Sets g value (e.g. restored from an encoded form of state), f value is recalculated on the next call of getF().
+	 * 
+	 * @param g exact distance from initial state
+	 */
+	public void setG(double g);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package sac.graph;
 
+import java.util.Iterator;
 import java.util.List;
 
 import sac.State;
@@ -17,12 +18,12 @@ public abstract class GraphStateImpl extends StateImpl implements GraphState {
 	/**
 	 * The exact distance from the initial state.
 	 */
-	protected Double g = 0.0;
+	protected double g = 0.0;
 
 	/**
-	 * The sum of g and h. Remains null until the first call of getF().
+	 * The sum of g and h. Remains NaN until the first call of getF().
 	 */
-	protected Double f = null;
+	protected double f = Double.NaN;
 
 	/**
 	 * Default g function (returns parent's g + 1).
@@ -54,6 +55,15 @@ public abstract class GraphStateImpl extends StateImpl implements GraphState {
 		GraphStateImpl.gFunction = gFunction;
 	}
 
+	/**
+	 * Returns boolean flag stating if the default g function (see GFunction) is set.
+	 * 
+	 * @return boolean flag stating if the default g function is set
+	 */
+	public final static boolean isGFunctionDefault() {
+		return gFunction.getClass() == GFunction.class;
+	}
+
 	/**
 	 * Creates a new instance of graph state.
 	 */
@@ -79,7 +89,7 @@ public abstract class GraphStateImpl extends StateImpl implements GraphState {
 	@Override
 	@SuppressWarnings("unchecked")
 	public final List<GraphState> getChildren() {
-		return (List<GraphState>) children;
+		return (List<GraphState>) super.getChildren();
 	}
 
 	/*
@@ -93,6 +103,26 @@ public abstract class GraphStateImpl extends StateImpl implements GraphState {
 		return (List<GraphState>) super.getPath();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphState#generateChildren(java.util.List)
+	 */
+	@Override
+	public void generateChildren(List<GraphState> children) {
+		children.addAll(generateChildren()); // default implementation, to be overridden for allocation-free expansions
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphState#generateChildrenLazily()
+	 */
+	@Override
+	public Iterator<GraphState> generateChildrenLazily() {
+		return generateChildren().iterator(); // default implementation (not lazy), to be overridden
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -100,8 +130,8 @@ public abstract class GraphStateImpl extends StateImpl implements GraphState {
 	 */
 	@Override
 	public final double getG() {
-		if (g == null)
-			g = Double.valueOf(gFunction.calculate(this));
+		if (Double.isNaN(g))
+			g = gFunction.calculate(this);
 		return g;
 	}
 
@@ -112,8 +142,8 @@ public abstract class GraphStateImpl extends StateImpl implements GraphState {
 	 */
 	@Override
 	public final double getF() {
-		if (f == null)
-			f = Double.valueOf(getG() + getH());
+		if (Double.isNaN(f))
+			f = getG() + getH();
 		return f;
 	}
 
@@ -124,9 +154,31 @@ public abstract class GraphStateImpl extends StateImpl implements GraphState {
 	 */
 	@Override
 	public final void refreshCosts() {
-		g = Double.valueOf(gFunction.calculate(this));
-		h = Double.valueOf(hFunction.calculate(this));
-		f = Double.valueOf(getG() + getH());
+		g = gFunction.calculate(this);
+		h = hFunction.calculate(this);
+		f = g + h;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphState#refreshG()
+	 */
+	@Override
+	public final void refreshG() {
+		g = gFunction.calculate(this);
+		f = g + getH();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphState#setG(double)
+	 */
+	@Override
+	public final void setG(double g) {
+		this.g = g;
+		f = Double.NaN;
 	}
 
 	static {
@@ -0,0 +1,292 @@
+package sac.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Depth-first walk over the search tree performed in place on a single reversible state (see ReversibleGraphState),
+ * with a bound on f = g + h (infinite bound for plain depth-first search). Operators are applied and undone, no state
+ * objects are created during the walk. An immediate return (an operator undoing the previous one) is skipped. States
+ * with paths are rebuilt (replayed via generateChildren() from the initial state) only for found solutions and for the
+ * best so far state. Each operator increases g by one, as the default g function does, hence walks are applicable only
+ * with that function (see isApplicable(...)). Used by DepthFirstSearch and IterativeDeepeningAStar.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+class InPlaceDepthFirstWalker {
+
+	/**
+	 * Initial capacity of stacks (in depth levels).
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * Algorithm on behalf of which the walk is performed.
+	 */
+	private GraphSearchAlgorithm algorithm;
+
+	/**
+	 * The walking state (initial state of algorithm).
+	 */
+	private ReversibleGraphState state;
+
+	/**
+	 * Start time of algorithm (for time limit checks).
+	 */
+	private long startTime;
+
+	/**
+	 * Applicable operators at consecutive depth levels.
+	 */
+	private int[][] operators;
+
+	/**
+	 * Numbers of applicable operators at consecutive depth levels.
+	 */
+	private int[] counts;
+
+	/**
+	 * Indexes of next operators to be tried at consecutive depth levels.
+	 */
+	private int[] nexts;
+
+	/**
+	 * Operators taken at consecutive depth levels (path from initial state).
+	 */
+	private int[] taken;
+
+	/**
+	 * Operators undoing the ones taken at consecutive depth levels.
+	 */
+	private int[] undos;
+
+	/**
+	 * Values of g at consecutive depth levels.
+	 */
+	private double[] gs;
+
+	/**
+	 * Paths (operators) to solutions found during last walk, replayed after the walking state is restored.
+	 */
+	private List<int[]> solutionsPaths = new ArrayList<int[]>();
+
+	/**
+	 * Smallest f exceeding the cost limit of last walk.
+	 */
+	private double nextCostLimit;
+
+	/**
+	 * Flag stating if last walk was stopped (time limit or wanted number of solutions reached).
+	 */
+	private boolean stopped;
+
+	/**
+	 * Smallest h encountered so far.
+	 */
+	private double bestH = Double.POSITIVE_INFINITY;
+
+	/**
+	 * Path (operators) to the state with smallest h encountered so far.
+	 */
+	private int[] bestPath = null;
+
+	/**
+	 * Returns boolean flag stating if the search tree of given algorithm can be walked in place: in-place walking must
+	 * be on in configurator, the initial state must be a reversible one and the default g function must be set (a
+	 * custom g function depends on parents of states, absent during walks).
+	 * 
+	 * @param algorithm algorithm
+	 * @return boolean flag stating if in-place walk is applicable
+	 */
+	static boolean isApplicable(GraphSearchAlgorithm algorithm) {
+		return (algorithm.configurator.isInPlaceWalkingOn()) && (algorithm.initial instanceof ReversibleGraphState)
+				&& (algorithm.initial instanceof GraphStateImpl) && (GraphStateImpl.isGFunctionDefault());
+	}
+
+	/**
+	 * Creates new walker.
+	 * 
+	 * @param algorithm algorithm on behalf of which walks are performed
+	 * @param startTime start time of algorithm (for time limit checks)
+	 */
+	InPlaceDepthFirstWalker(GraphSearchAlgorithm algorithm, long startTime) {
+		this.algorithm = algorithm;
+		this.startTime = startTime;
+		this.state = (ReversibleGraphState) algorithm.initial;
+		this.operators = new int[INITIAL_CAPACITY][];
+		this.counts = new int[INITIAL_CAPACITY];
+		this.nexts = new int[INITIAL_CAPACITY];
+		this.taken = new int[INITIAL_CAPACITY];
+		this.undos = new int[INITIAL_CAPACITY];
+		this.gs = new double[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Performs a depth-first walk from the initial state, visiting states with f not exceeding given cost limit. Found
+	 * solutions are added to the list of solutions of algorithm. The walking state is restored to the initial one on
+	 * return.
+	 * 
+	 * @param costLimit cost limit (bound on f)
+	 */
+	void walk(double costLimit) {
+		nextCostLimit = Double.POSITIVE_INFINITY;
+		stopped = false;
+		solutionsPaths.clear();
+		int depth = 0;
+		gs[0] = state.getG();
+		algorithm.step++;
+		if (visit(0, costLimit)) {
+			expand(0);
+			while (depth >= 0) {
+				if (nexts[depth] < counts[depth]) {
+					int operator = operators[depth][nexts[depth]++];
+					if ((depth > 0) && (operator == undos[depth - 1]))
+						continue; // immediate return
+					algorithm.step++;
+
+					// time limit check
+					if (algorithm.configurator.getTimeLimit() < Long.MAX_VALUE) {
+						if (System.currentTimeMillis() - startTime > algorithm.configurator.getTimeLimit()) {
+							stopped = true;
+							break;
+						}
+					}
+
+					// applying operator (and going deeper or undoing it at once)
+					double g = gs[depth] + 1.0; // as by default g function
+					int undo = state.applyOperator(operator);
+					taken[depth] = operator;
+					undos[depth] = undo;
+					gs[depth + 1] = g;
+					if (visit(depth + 1, costLimit)) {
+						depth++;
+						expand(depth);
+					} else
+						state.applyOperator(undo);
+					if (stopped)
+						break;
+				} else {
+					// backtracking
+					depth--;
+					if (depth >= 0)
+						state.applyOperator(undos[depth]);
+				}
+			}
+		}
+
+		// restoring initial state
+		for (depth--; depth >= 0; depth--)
+			state.applyOperator(undos[depth]);
+		state.refreshH();
+
+		// replaying solutions
+		for (int[] path : solutionsPaths)
+			algorithm.solutions.add(replay(path));
+	}
+
+	/**
+	 * Writes operators applicable to the walking state at given depth (growing stacks if needed).
+	 * 
+	 * @param depth current depth
+	 */
+	private void expand(int depth) {
+		if (depth + 1 >= counts.length) {
+			int capacity = 2 * counts.length;
+			operators = Arrays.copyOf(operators, capacity);
+			counts = Arrays.copyOf(counts, capacity);
+			nexts = Arrays.copyOf(nexts, capacity);
+			taken = Arrays.copyOf(taken, capacity);
+			undos = Arrays.copyOf(undos, capacity);
+			gs = Arrays.copyOf(gs, capacity);
+		}
+		if (operators[depth] == null)
+			operators[depth] = new int[state.getMaxNumberOfOperators()];
+		counts[depth] = state.getOperators(operators[depth]);
+		nexts[depth] = 0;
+	}
+
+	/**
+	 * Visits the walking state at given depth: checks the cost limit, keeps best so far and memorizes solution.
+	 * 
+	 * @param depth current depth
+	 * @param costLimit cost limit (bound on f)
+	 * @return true if the walk should go deeper below the state, false otherwise
+	 */
+	private boolean visit(int depth, double costLimit) {
+		state.refreshH();
+		double h = state.getH();
+		double f = gs[depth] + h;
+		if (f > costLimit) {
+			if (f < nextCostLimit)
+				nextCostLimit = f;
+			return false;
+		}
+		if (h < bestH) {
+			bestH = h;
+			bestPath = Arrays.copyOf(taken, depth);
+		}
+		if (state.isSolution()) {
+			solutionsPaths.add(Arrays.copyOf(taken, depth));
+			if (algorithm.configurator.getWantedNumberOfSolutions() == algorithm.solutions.size() + solutionsPaths.size())
+				stopped = true;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Rebuilds state reached by given path from the initial state, by replaying its operators via generateChildren()
+	 * (children are matched by move names), so that the state has its parents, depth and costs set.
+	 * 
+	 * @param path operators along path
+	 * @return rebuilt state
+	 */
+	GraphState replay(int[] path) {
+		GraphState current = algorithm.initial;
+		for (int operator : path) {
+			String moveName = state.getOperatorName(operator);
+			GraphState next = null;
+			for (GraphState child : current.generateChildren())
+				if (moveName.equals(child.getMoveName())) {
+					next = child;
+					break;
+				}
+			if (next == null)
+				throw new IllegalStateException("No child for operator " + moveName + " (operator names must match move names).");
+			next.setParent(current);
+			next.setDepth(current.getDepth() + 1);
+			next.refreshCosts();
+			current = next;
+		}
+		return current;
+	}
+
+	/**
+	 * Returns smallest f exceeding the cost limit of last walk.
+	 * 
+	 * @return next cost limit
+	 */
+	double getNextCostLimit() {
+		return nextCostLimit;
+	}
+
+	/**
+	 * Returns flag stating if last walk was stopped (time limit or wanted number of solutions reached).
+	 * 
+	 * @return flag stating if last walk was stopped
+	 */
+	boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Returns state with smallest h encountered so far, with path rebuilt (or null if nothing was visited).
+	 * 
+	 * @return best so far state
+	 */
+	GraphState getBestSoFar() {
+		return (bestPath != null) ? replay(bestPath) : null;
+	}
+}
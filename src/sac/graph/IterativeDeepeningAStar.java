@@ -2,10 +2,11 @@ package sac.graph;
 
 import java.lang.reflect.Constructor;
 import java.util.Comparator;
-import java.util.List;
 
 /**
- * IDA* algorithm.
+ * IDA* algorithm. If in-place walking is on (see GraphSearchConfigurator.setInPlaceWalkingOn(...)) and the initial
+ * state is a ReversibleGraphState, the algorithm walks the search tree in place (on a single mutable state, applying
+ * and undoing operators), without creating state objects.
  * 
  * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
  * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
@@ -90,6 +91,10 @@ public class IterativeDeepeningAStar extends GraphSearchAlgorithm {
 	 */
 	@Override
 	protected void doExecute() {
+		if (InPlaceDepthFirstWalker.isApplicable(this)) {
+			doExecuteInPlace();
+			return;
+		}
 		startTime = System.currentTimeMillis();
 		openSet.add(initial);
 		step = 0;
@@ -140,12 +145,14 @@ public class IterativeDeepeningAStar extends GraphSearchAlgorithm {
 					break;
 			}
 
-			// generating children
-			List<GraphState> children = current.generateChildren();
-			current.getChildren().clear();
+			// generating children (into reusable buffer)
+			childrenBuffer.clear();
+			current.generateChildren(childrenBuffer);
+			if (configurator.isParentsMemorizingChildren())
+				current.getChildren().clear();
 
 			// iterating over children
-			for (GraphState child : children) {
+			for (GraphState child : childrenBuffer) {
 
 				// set child -> parent link and depth
 				child.setParent(current);
@@ -184,5 +191,24 @@ public class IterativeDeepeningAStar extends GraphSearchAlgorithm {
 			}
 		}
 		endTime = System.currentTimeMillis();
-	}	
-}
\ No newline at end of file
+	}
+
+	/**
+	 * Execution of IDA* in place, on a reversible initial state (consecutive depth-first walks with growing cost
+	 * limits).
+	 */
+	private void doExecuteInPlace() {
+		startTime = System.currentTimeMillis();
+		step = 0;
+		InPlaceDepthFirstWalker walker = new InPlaceDepthFirstWalker(this, startTime);
+		double costLimit = initial.getF();
+		while (true) {
+			walker.walk(costLimit);
+			if ((!solutions.isEmpty()) || (walker.isStopped()) || (walker.getNextCostLimit() == Double.POSITIVE_INFINITY))
+				break;
+			costLimit = walker.getNextCostLimit();
+		}
+		bestSoFar = (solutions.isEmpty()) ? walker.getBestSoFar() : solutions.get(0);
+		endTime = System.currentTimeMillis();
+	}
+}
@@ -0,0 +1,601 @@
+package sac.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import sac.Identifier;
+import sac.IdentifierType;
+import sac.StateCodec;
+
+/**
+ * Open set implementation via: own-implementation of binary heap kept in direct (off-heap) buffers. Priorities of
+ * states (see PriorityComparator) are kept in the heap itself, while states are kept in encoded form (see StateCodec)
+ * together with their depths, g and h values in an arena of direct buffers. Objects are decoded only when polled or
+ * asked for (without calculating their costs again), hence large frontiers do not burden the garbage collector. Only
+ * references to parents (closed states, present in memory anyway) are kept on-heap.
+ * Requires a comparator implementing PriorityComparator and a state codec (set in configurator).
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class OpenSetAsOffHeapBinaryHeap extends OpenSetImpl {
+
+	/**
+	 * Size of heap slot in bytes: priority (double), hash code of identifier (int), handle of state (int).
+	 */
+	private static final int HEAP_SLOT_SIZE = 16;
+
+	/**
+	 * Initial capacity (in states).
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * Size of a single chunk of arena in bytes.
+	 */
+	private static final int ARENA_CHUNK_SIZE = 16 * 1024 * 1024;
+
+	/**
+	 * Charset for names of moves.
+	 */
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * Comparator providing priorities.
+	 */
+	private PriorityComparator priorityComparator;
+
+	/**
+	 * State codec.
+	 */
+	private StateCodec stateCodec;
+
+	/**
+	 * The binary heap (direct buffer).
+	 */
+	private ByteBuffer binaryHeap;
+
+	/**
+	 * Current number of states in heap.
+	 */
+	private int size;
+
+	/**
+	 * Addresses of records (encoded states) in arena, indexed by handles.
+	 */
+	private long[] recordsAddresses;
+
+	/**
+	 * Sizes of records in arena, indexed by handles.
+	 */
+	private int[] recordsSizes;
+
+	/**
+	 * Indexes in binary heap, indexed by handles.
+	 */
+	private int[] binaryHeapIndexes;
+
+	/**
+	 * Hash codes of identifiers, indexed by handles.
+	 */
+	private int[] hashes;
+
+	/**
+	 * References to parents, indexed by handles.
+	 */
+	private GraphState[] parents;
+
+	/**
+	 * Stack of free handles.
+	 */
+	private int[] freeHandles;
+
+	/**
+	 * Number of free handles on stack.
+	 */
+	private int freeHandlesCount;
+
+	/**
+	 * Number of handles ever allocated.
+	 */
+	private int handlesCount;
+
+	/**
+	 * Hash index of handles (open addressing, linear probing), values are handles plus one, zero means empty.
+	 */
+	private int[] index;
+
+	/**
+	 * Chunks of arena (direct buffers).
+	 */
+	private List<ByteBuffer> arena;
+
+	/**
+	 * Total number of bytes written to arena.
+	 */
+	private long usedBytes;
+
+	/**
+	 * Number of bytes of arena occupied by states currently in heap.
+	 */
+	private long liveBytes;
+
+	/**
+	 * Creates new instance of OpenSetAsOffHeapBinaryHeap.
+	 * 
+	 * @param comparator reference to comparator to be used by this open set (must implement PriorityComparator)
+	 * @param stateCodec reference to state codec
+	 */
+	public OpenSetAsOffHeapBinaryHeap(Comparator<GraphState> comparator, StateCodec stateCodec) {
+		super(comparator);
+		if (!(comparator instanceof PriorityComparator))
+			throw new IllegalArgumentException("Comparator for OpenSetAsOffHeapBinaryHeap must implement PriorityComparator.");
+		if (stateCodec == null)
+			throw new IllegalArgumentException("OpenSetAsOffHeapBinaryHeap requires a state codec.");
+		this.priorityComparator = (PriorityComparator) comparator;
+		this.stateCodec = stateCodec;
+		clear();
+	}
+
+	/**
+	 * Checks if slot i of the heap should precede slot j.
+	 * 
+	 * @param i index of first slot
+	 * @param j index of second slot
+	 * @return boolean flag stating if slot i precedes slot j
+	 */
+	private boolean precedes(int i, int j) {
+		double difference = binaryHeap.getDouble(i * HEAP_SLOT_SIZE) - binaryHeap.getDouble(j * HEAP_SLOT_SIZE);
+		if (difference != 0.0)
+			return difference < 0.0;
+		int hash1 = binaryHeap.getInt(i * HEAP_SLOT_SIZE + 8);
+		int hash2 = binaryHeap.getInt(j * HEAP_SLOT_SIZE + 8);
+		if (hash1 != hash2)
+			return hash1 < hash2;
+		return binaryHeap.getInt(i * HEAP_SLOT_SIZE + 12) < binaryHeap.getInt(j * HEAP_SLOT_SIZE + 12);
+	}
+
+	/**
+	 * Returns handle of state kept in given slot of heap.
+	 * 
+	 * @param i index of slot
+	 * @return handle of state
+	 */
+	private int handleAt(int i) {
+		return binaryHeap.getInt(i * HEAP_SLOT_SIZE + 12);
+	}
+
+	/**
+	 * Swaps two slots of the heap.
+	 * 
+	 * @param i index of first slot
+	 * @param j index of second slot
+	 */
+	private void swap(int i, int j) {
+		double priority = binaryHeap.getDouble(i * HEAP_SLOT_SIZE);
+		int hash = binaryHeap.getInt(i * HEAP_SLOT_SIZE + 8);
+		int handle = binaryHeap.getInt(i * HEAP_SLOT_SIZE + 12);
+		setSlot(i, binaryHeap.getDouble(j * HEAP_SLOT_SIZE), binaryHeap.getInt(j * HEAP_SLOT_SIZE + 8), binaryHeap.getInt(j * HEAP_SLOT_SIZE + 12));
+		setSlot(j, priority, hash, handle);
+	}
+
+	/**
+	 * Sets content of given slot of the heap.
+	 * 
+	 * @param i index of slot
+	 * @param priority priority of state
+	 * @param hash hash code of identifier of state
+	 * @param handle handle of state
+	 */
+	private void setSlot(int i, double priority, int hash, int handle) {
+		binaryHeap.putDouble(i * HEAP_SLOT_SIZE, priority);
+		binaryHeap.putInt(i * HEAP_SLOT_SIZE + 8, hash);
+		binaryHeap.putInt(i * HEAP_SLOT_SIZE + 12, handle);
+		binaryHeapIndexes[handle] = i;
+	}
+
+	/**
+	 * Reorganizes the heap by moving its element with given index upwards until the heap condition is satisified.
+	 * 
+	 * @param childIndex index of element to be reheaped up
+	 */
+	protected void reheapUp(int childIndex) {
+		while (childIndex > 0) {
+			int parentIndex = (childIndex - 1) / 2;
+			if (!precedes(childIndex, parentIndex))
+				return;
+			swap(childIndex, parentIndex);
+			childIndex = parentIndex;
+		}
+	}
+
+	/**
+	 * Reorganizes the heap by moving its element with given index downwards until the heap condition is satisified.
+	 * 
+	 * @param parentIndex index of element to be reheaped down
+	 */
+	protected void reheapDown(int parentIndex) {
+		while (true) {
+			int childIndex = 2 * parentIndex + 1;
+			if (childIndex >= size)
+				return;
+			if ((childIndex + 1 < size) && (precedes(childIndex + 1, childIndex)))
+				childIndex++;
+			if (!precedes(childIndex, parentIndex))
+				return;
+			swap(childIndex, parentIndex);
+			parentIndex = childIndex;
+		}
+	}
+
+	/**
+	 * Returns index in hash index for given hash code.
+	 * 
+	 * @param hash hash code
+	 * @return index in hash index
+	 */
+	private int indexSlot(int hash) {
+		int mixed = hash * 0x9E3779B9;
+		return (mixed ^ (mixed >>> 16)) & (index.length - 1);
+	}
+
+	/**
+	 * Puts handle into hash index (growing the index if needed).
+	 * 
+	 * @param handle handle of state
+	 */
+	private void indexPut(int handle) {
+		if (2 * (size + 1) > index.length) {
+			int[] oldIndex = index;
+			index = new int[2 * oldIndex.length];
+			for (int i = 0; i < oldIndex.length; i++)
+				if (oldIndex[i] != 0)
+					indexPut(oldIndex[i] - 1);
+		}
+		int slot = indexSlot(hashes[handle]);
+		while (index[slot] != 0)
+			slot = (slot + 1) & (index.length - 1);
+		index[slot] = handle + 1;
+	}
+
+	/**
+	 * Removes handle from hash index (by backward shifting of subsequent entries).
+	 * 
+	 * @param handle handle of state
+	 */
+	private void indexRemove(int handle) {
+		int mask = index.length - 1;
+		int slot = indexSlot(hashes[handle]);
+		while (index[slot] != handle + 1)
+			slot = (slot + 1) & mask;
+		int next = slot;
+		while (true) {
+			next = (next + 1) & mask;
+			if (index[next] == 0)
+				break;
+			int home = indexSlot(hashes[index[next] - 1]);
+			// moving entry back if its home slot is not in cyclic range (slot, next]
+			boolean inRange = (slot <= next) ? ((slot < home) && (home <= next)) : ((slot < home) || (home <= next));
+			if (!inRange) {
+				index[slot] = index[next];
+				slot = next;
+			}
+		}
+		index[slot] = 0;
+	}
+
+	/**
+	 * Finds handle of given graph state (or its equivalent) in this open set.
+	 * 
+	 * @param graphState reference to graph state
+	 * @return handle of state or -1 if not found
+	 */
+	private int findHandle(GraphState graphState) {
+		Identifier identifier = graphState.getIdentifier();
+		int hash = identifier.hashCode();
+		int slot = indexSlot(hash);
+		while (index[slot] != 0) {
+			int handle = index[slot] - 1;
+			if (hashes[handle] == hash) {
+				// hash codes identify states unless identifiers are strings
+				if ((Identifier.getType() == IdentifierType.HASH_CODE) || (decodeContent(handle).getIdentifier().equals(identifier)))
+					return handle;
+			}
+			slot = (slot + 1) & (index.length - 1);
+		}
+		return -1;
+	}
+
+	/**
+	 * Allocates new handle (growing arrays indexed by handles if needed).
+	 * 
+	 * @return new handle
+	 */
+	private int allocateHandle() {
+		if (freeHandlesCount > 0)
+			return freeHandles[--freeHandlesCount];
+		if (handlesCount == recordsAddresses.length) {
+			int capacity = 2 * recordsAddresses.length;
+			recordsAddresses = Arrays.copyOf(recordsAddresses, capacity);
+			recordsSizes = Arrays.copyOf(recordsSizes, capacity);
+			binaryHeapIndexes = Arrays.copyOf(binaryHeapIndexes, capacity);
+			hashes = Arrays.copyOf(hashes, capacity);
+			parents = Arrays.copyOf(parents, capacity);
+			freeHandles = Arrays.copyOf(freeHandles, capacity);
+		}
+		return handlesCount++;
+	}
+
+	/**
+	 * Releases given handle together with its record in arena.
+	 * 
+	 * @param handle handle to be released
+	 */
+	private void releaseHandle(int handle) {
+		indexRemove(handle);
+		liveBytes -= recordsSizes[handle];
+		parents[handle] = null;
+		freeHandles[freeHandlesCount++] = handle;
+	}
+
+	/**
+	 * Writes given graph state as record in arena, and memorizes its address under given handle.
+	 * 
+	 * @param handle handle of state
+	 * @param graphState reference to graph state
+	 */
+	private void writeRecord(int handle, GraphState graphState) {
+		byte[] code = stateCodec.encode(graphState);
+		byte[] moveName = (graphState.getMoveName() != null) ? graphState.getMoveName().getBytes(CHARSET) : null;
+		int recordSize = 4 + code.length + 8 + 8 + 8 + 4 + ((moveName != null) ? moveName.length : 0);
+
+		ByteBuffer chunk = arena.isEmpty() ? null : arena.get(arena.size() - 1);
+		if ((chunk == null) || (chunk.remaining() < recordSize)) {
+			chunk = ByteBuffer.allocateDirect(Math.max(ARENA_CHUNK_SIZE, recordSize));
+			arena.add(chunk);
+		}
+		recordsAddresses[handle] = (((long) (arena.size() - 1)) << 32) | chunk.position();
+		recordsSizes[handle] = recordSize;
+		chunk.putInt(code.length);
+		chunk.put(code);
+		chunk.putDouble(graphState.getDepth());
+		chunk.putDouble(graphState.getG());
+		chunk.putDouble(graphState.getH());
+		chunk.putInt((moveName != null) ? moveName.length : -1);
+		if (moveName != null)
+			chunk.put(moveName);
+		usedBytes += recordSize;
+		liveBytes += recordSize;
+	}
+
+	/**
+	 * Returns a view of the record of given handle (positioned at its beginning).
+	 * 
+	 * @param handle handle of state
+	 * @return view of record
+	 */
+	private ByteBuffer recordView(int handle) {
+		ByteBuffer view = arena.get((int) (recordsAddresses[handle] >>> 32)).duplicate();
+		view.position((int) recordsAddresses[handle]);
+		return view;
+	}
+
+	/**
+	 * Decodes the content of state of given handle (without restoring parent, depth, move name and costs).
+	 * 
+	 * @param handle handle of state
+	 * @return decoded state
+	 */
+	private GraphState decodeContent(int handle) {
+		ByteBuffer view = recordView(handle);
+		byte[] code = new byte[view.getInt()];
+		view.get(code);
+		return (GraphState) stateCodec.decode(code);
+	}
+
+	/**
+	 * Decodes the state of given handle, restoring its parent, depth, move name and costs (g and h values are kept in
+	 * the record, hence neither the g function nor the heuristics is calculated again).
+	 * 
+	 * @param handle handle of state
+	 * @return decoded state
+	 */
+	private GraphState decode(int handle) {
+		ByteBuffer view = recordView(handle);
+		byte[] code = new byte[view.getInt()];
+		view.get(code);
+		GraphState graphState = (GraphState) stateCodec.decode(code);
+		graphState.setDepth(view.getDouble());
+		double g = view.getDouble();
+		graphState.setH(view.getDouble());
+		graphState.setG(g);
+		int moveNameLength = view.getInt();
+		if (moveNameLength >= 0) {
+			byte[] moveName = new byte[moveNameLength];
+			view.get(moveName);
+			graphState.setMoveName(new String(moveName, CHARSET));
+		}
+		graphState.setParent(parents[handle]);
+		return graphState;
+	}
+
+	/**
+	 * Compacts the arena, when more than a half of it is occupied by records of states no longer present.
+	 */
+	private void compactIfNeeded() {
+		if (usedBytes - liveBytes <= liveBytes + ARENA_CHUNK_SIZE)
+			return;
+		List<ByteBuffer> oldArena = arena;
+		long[] oldAddresses = Arrays.copyOf(recordsAddresses, handlesCount);
+		arena = new ArrayList<ByteBuffer>();
+		usedBytes = 0;
+		ByteBuffer chunk = null;
+		for (int i = 0; i < size; i++) {
+			int handle = handleAt(i);
+			int recordSize = recordsSizes[handle];
+			if ((chunk == null) || (chunk.remaining() < recordSize)) {
+				chunk = ByteBuffer.allocateDirect(Math.max(ARENA_CHUNK_SIZE, recordSize));
+				arena.add(chunk);
+			}
+			ByteBuffer view = oldArena.get((int) (oldAddresses[handle] >>> 32)).duplicate();
+			view.position((int) oldAddresses[handle]);
+			view.limit(view.position() + recordSize);
+			recordsAddresses[handle] = (((long) (arena.size() - 1)) << 32) | chunk.position();
+			chunk.put(view);
+			usedBytes += recordSize;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.OpenSet#add(sac.graph.GraphState)
+	 */
+	@Override
+	public void add(GraphState graphState) {
+		int handle = allocateHandle();
+		writeRecord(handle, graphState);
+		hashes[handle] = graphState.getIdentifier().hashCode();
+		parents[handle] = graphState.getParent();
+		indexPut(handle);
+		if ((size + 1) * HEAP_SLOT_SIZE > binaryHeap.capacity()) {
+			ByteBuffer oldBinaryHeap = binaryHeap;
+			binaryHeap = ByteBuffer.allocateDirect(2 * oldBinaryHeap.capacity());
+			oldBinaryHeap.clear();
+			binaryHeap.put(oldBinaryHeap);
+			binaryHeap.clear();
+		}
+		setSlot(size, priorityComparator.getPriority(graphState), hashes[handle], handle);
+		size++;
+		reheapUp(size - 1);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.OpenSet#poll()
+	 */
+	@Override
+	public GraphState poll() {
+		if (size == 0)
+			return null;
+		int handle = handleAt(0);
+		GraphState first = decode(handle);
+		size--;
+		if (size > 0) {
+			swap(0, size);
+			reheapDown(0);
+		}
+		releaseHandle(handle);
+		compactIfNeeded();
+		return first;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.OpenSet#peek()
+	 */
+	@Override
+	public GraphState peek() {
+		return (size == 0) ? null : decode(handleAt(0));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.OpenSet#contains(sac.graph.GraphState)
+	 */
+	@Override
+	public boolean contains(GraphState graphState) {
+		return findHandle(graphState) >= 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.OpenSet#replace(sac.graph.GraphState, sac.graph.GraphState)
+	 */
+	@Override
+	public void replace(GraphState graphState, GraphState replacer) {
+		int handle = findHandle(graphState);
+		if (handle < 0)
+			return;
+		liveBytes -= recordsSizes[handle];
+		writeRecord(handle, replacer);
+		parents[handle] = replacer.getParent();
+		int binaryHeapIndex = binaryHeapIndexes[handle];
+		setSlot(binaryHeapIndex, priorityComparator.getPriority(replacer), hashes[handle], handle);
+		reheapUp(binaryHeapIndex);
+		reheapDown(binaryHeapIndexes[handle]);
+		compactIfNeeded();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.OpenSet#get(sac.graph.GraphState)
+	 */
+	@Override
+	public GraphState get(GraphState graphState) {
+		int handle = findHandle(graphState);
+		return (handle < 0) ? null : decode(handle);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.OpenSet#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.OpenSet#isEmpty()
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.OpenSet#clear()
+	 */
+	@Override
+	public void clear() {
+		binaryHeap = ByteBuffer.allocateDirect(INITIAL_CAPACITY * HEAP_SLOT_SIZE);
+		size = 0;
+		recordsAddresses = new long[INITIAL_CAPACITY];
+		recordsSizes = new int[INITIAL_CAPACITY];
+		binaryHeapIndexes = new int[INITIAL_CAPACITY];
+		hashes = new int[INITIAL_CAPACITY];
+		parents = new GraphState[INITIAL_CAPACITY];
+		freeHandles = new int[INITIAL_CAPACITY];
+		freeHandlesCount = 0;
+		handlesCount = 0;
+		index = new int[2 * INITIAL_CAPACITY];
+		arena = new ArrayList<ByteBuffer>();
+		usedBytes = 0;
+		liveBytes = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[" + size + " encoded states, " + liveBytes + " bytes]";
+	}
+}
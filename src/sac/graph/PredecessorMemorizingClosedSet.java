@@ -0,0 +1,20 @@
+package sac.graph;
+
+/**
+ * Closed set which memorizes predecessors of closed states (e.g. by their keys or codes), so that paths can be rebuilt
+ * on demand without keeping parent references in state objects (see GraphSearchConfigurator.setPathRebuildingOn(...)).
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public interface PredecessorMemorizingClosedSet extends ClosedSet {
+
+	/**
+	 * For given closed state returns its equivalent with the whole path rebuilt (chain of parents up to the initial
+	 * state, with depths, move names and costs set), or null if given state was not closed.
+	 * 
+	 * @param graphState closed state
+	 * @return equivalent of given state with path rebuilt
+	 */
+	public GraphState rebuildPath(GraphState graphState);
+}
@@ -0,0 +1,21 @@
+package sac.graph;
+
+import java.util.Comparator;
+
+/**
+ * Comparator for open sets, which orders graph states by a single numeric priority (smaller first), with ties broken
+ * by identifiers. Allows open sets to keep priorities of states as primitive values, apart from the states.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public interface PriorityComparator extends Comparator<GraphState> {
+
+	/**
+	 * Returns priority of given graph state (consistent with compare(...) method).
+	 * 
+	 * @param graphState reference to graph state
+	 * @return priority of graph state
+	 */
+	public double getPriority(GraphState graphState);
+}
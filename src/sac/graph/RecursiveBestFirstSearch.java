@@ -0,0 +1,192 @@
+package sac.graph;
+
+import java.lang.reflect.Constructor;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Recursive Best First Search (RBFS) algorithm. Linear-space relative of A*. At each state it expands the child with
+ * smallest backed-up f value, remembering only the best alternative f value available elsewhere along the current
+ * path. Once that alternative becomes better, the subtree is abandoned and its best f value is backed up to the parent,
+ * so that the subtree can be regenerated later if needed.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class RecursiveBestFirstSearch extends GraphSearchAlgorithm {
+
+	/**
+	 * Flag indicating that recursion should be unwound (time limit exceeded or wanted number of solutions found).
+	 */
+	private boolean stopped = false;
+
+	/**
+	 * Creates new instance of RBFS algorithm.
+	 * 
+	 * @param initial reference to initial state
+	 * @param configurator reference to configurator object
+	 */
+	public RecursiveBestFirstSearch(GraphState initial, GraphSearchConfigurator configurator) {
+		super(initial, configurator);
+		setupOpenAndClosedSets(new RecursiveBestFirstSearchComparator());
+	}
+
+	/**
+	 * Creates new instance of RBFS algorithm.
+	 * 
+	 * @param initial reference to initial state
+	 */
+	public RecursiveBestFirstSearch(GraphState initial) {
+		this(initial, null);
+	}
+
+	/**
+	 * Creates new instance of RBFS algorithm.
+	 */
+	public RecursiveBestFirstSearch() {
+		this(null, null);
+	}
+
+	/**
+	 * Comparator for RBFS algorithm (same as for A*, RBFS does not keep states in open set though).
+	 */
+	private class RecursiveBestFirstSearchComparator implements Comparator<GraphState> {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+		 */
+		@Override
+		public int compare(GraphState gs1, GraphState gs2) {
+			double difference = gs1.getF() - gs2.getF();
+			if (difference == 0.0)
+				return gs1.getIdentifier().compareTo(gs2.getIdentifier());
+			else
+				return (difference > 0.0) ? 1 : -1;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphSearchAlgorithm#setupOpenAndClosedSets(java.util.Comparator)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void setupOpenAndClosedSets(Comparator<GraphState> openSetComparator) {
+		// open set (kept empty, only for monitors and statistics)
+		try {
+			Constructor<OpenSet> constructor = (Constructor<OpenSet>) Class.forName(configurator.getOpenSetClassName()).getConstructor(Comparator.class);
+			this.openSet = constructor.newInstance(openSetComparator);
+		} catch (Exception e) {
+			this.openSet = new OpenSetAsPriorityQueueFastContainsFastReplace(openSetComparator);
+		}
+
+		// closed set not used by RBFS algorithm (!)
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see sac.graph.GraphSearchAlgorithm#doExecute()
+	 */
+	@Override
+	protected void doExecute() {
+		startTime = System.currentTimeMillis();
+		step = 0;
+		stopped = false;
+		if (initial != null)
+			recursiveBestFirstSearch(initial, initial.getF(), Double.POSITIVE_INFINITY);
+		endTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Recursive part of RBFS algorithm. Explores the subtree of given state as long as its best f value does not exceed
+	 * the given limit.
+	 * 
+	 * @param state reference to state to be expanded
+	 * @param backedUpF f value of state backed up from earlier explorations of its subtree (or its own f value)
+	 * @param fLimit f value of best alternative path
+	 * @return new backed-up f value of given state
+	 */
+	private double recursiveBestFirstSearch(GraphState state, double backedUpF, double fLimit) {
+		step++;
+
+		// time limit check
+		if (configurator.getTimeLimit() < Long.MAX_VALUE) {
+			long currentTime = System.currentTimeMillis();
+			if (currentTime - startTime > configurator.getTimeLimit()) {
+				stopped = true;
+				return Double.POSITIVE_INFINITY;
+			}
+		}
+
+		current = state;
+
+		// keeping best so far
+		if ((bestSoFar == null) || (state.getH() < bestSoFar.getH()))
+			bestSoFar = state;
+
+		// registering solution (once, since forgotten subtrees are regenerated), solutions are not expanded
+		if (state.isSolution()) {
+			if (solutions.contains(state))
+				return Double.POSITIVE_INFINITY;
+			if (solutions.isEmpty())
+				bestSoFar = state;
+			solutions.add(state);
+			if (configurator.getWantedNumberOfSolutions() == solutions.size())
+				stopped = true;
+			return state.getF();
+		}
+
+		// generating children (skipping a child equal to the parent of state, i.e. an immediate return)
+		List<GraphState> children = state.generateChildren();
+		if (configurator.isParentsMemorizingChildren())
+			state.getChildren().clear();
+		GraphState parent = state.getParent();
+		if (parent != null)
+			children.remove(parent);
+		if (children.isEmpty())
+			return Double.POSITIVE_INFINITY;
+
+		GraphState[] childrenArray = children.toArray(new GraphState[children.size()]);
+		double[] fs = new double[childrenArray.length];
+		int i = 0;
+		for (GraphState child : childrenArray) {
+			// set child -> parent link and depth
+			child.setParent(state);
+			child.setDepth(state.getDepth() + 1);
+
+			// update scores g, h, f
+			child.refreshCosts();
+
+			// add child reference to parent
+			if (configurator.isParentsMemorizingChildren())
+				state.getChildren().add(child);
+
+			// inheriting backed-up value if subtree was explored before
+			fs[i++] = (state.getF() < backedUpF) ? Math.max(child.getF(), backedUpF) : child.getF();
+		}
+
+		while (true) {
+			// finding best and second best (alternative) children
+			int best = 0;
+			double alternative = Double.POSITIVE_INFINITY;
+			for (i = 1; i < fs.length; i++) {
+				if (fs[i] < fs[best]) {
+					alternative = fs[best];
+					best = i;
+				} else if (fs[i] < alternative)
+					alternative = fs[i];
+			}
+
+			if ((fs[best] > fLimit) || (fs[best] == Double.POSITIVE_INFINITY))
+				return fs[best];
+
+			fs[best] = recursiveBestFirstSearch(childrenArray[best], fs[best], Math.min(fLimit, alternative));
+			if (stopped)
+				return fs[best];
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package sac.graph;
+
+/**
+ * Graph state which can be manipulated in place by operators (moves) that can be undone. Depth-first algorithms
+ * (DepthFirstSearch without closed set, IterativeDeepeningAStar) walk the search tree on a single mutable instance of
+ * such a state, applying and undoing operators, instead of generating copies of states. Operators are identified by
+ * non-negative integers. In-place walks are used only if switched on in configurator (see
+ * GraphSearchConfigurator.setInPlaceWalkingOn(...)) and if the default g function is set (see
+ * GraphStateImpl.GFunction), so that g grows by one with each operator, as in searches on state objects.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public interface ReversibleGraphState extends GraphState {
+
+	/**
+	 * Returns the maximum number of operators applicable to any state (size of buffers for operators).
+	 * 
+	 * @return maximum number of applicable operators
+	 */
+	public int getMaxNumberOfOperators();
+
+	/**
+	 * Writes operators applicable to this state into given array (in the same order as children are generated by
+	 * generateChildren()), and returns their number.
+	 * 
+	 * @param operators array to be filled with operators (of length at least getMaxNumberOfOperators())
+	 * @return number of applicable operators
+	 */
+	public int getOperators(int[] operators);
+
+	/**
+	 * Applies given operator to this state in place and returns the operator which undoes it. Implementations need not
+	 * refresh identifier or heuristics of this state (these are refreshed by algorithms when needed).
+	 * 
+	 * @param operator operator to be applied
+	 * @return operator undoing the applied one
+	 */
+	public int applyOperator(int operator);
+
+	/**
+	 * Returns the name of given operator, equal to the move name of the child generated for it by generateChildren().
+	 * 
+	 * @param operator operator
+	 * @return name of operator
+	 */
+	public String getOperatorName(int operator);
+}
@@ -0,0 +1,264 @@
+package sac.graph;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of solutions of already solved instances, meant for solvers answering repeated queries. Keys are made of the
+ * algorithm name, the heuristics name and the key of initial state (see key(...)), values are the sequence of moves
+ * leading to solution and its cost. Entries live in memory with LRU eviction and are backed by an append-only text
+ * file (one entry per line, later lines overriding earlier ones), so that they survive restarts of the process.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class SolutionsCache {
+
+	/**
+	 * Default capacity (number of entries kept in memory).
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	/**
+	 * Separator of fields in lines of file.
+	 */
+	private static final char SEPARATOR = '\t';
+
+	/**
+	 * Cached solution: sequence of moves and cost.
+	 */
+	public static class Entry {
+
+		/**
+		 * Moves leading from initial state to solution.
+		 */
+		private List<String> moves;
+
+		/**
+		 * Cost of solution (its g value).
+		 */
+		private double cost;
+
+		/**
+		 * Creates new entry.
+		 * 
+		 * @param moves moves leading from initial state to solution
+		 * @param cost cost of solution
+		 */
+		public Entry(List<String> moves, double cost) {
+			this.moves = Collections.unmodifiableList(moves);
+			this.cost = cost;
+		}
+
+		/**
+		 * Returns moves leading from initial state to solution.
+		 * 
+		 * @return list of moves
+		 */
+		public List<String> getMoves() {
+			return moves;
+		}
+
+		/**
+		 * Returns cost of solution.
+		 * 
+		 * @return cost of solution
+		 */
+		public double getCost() {
+			return cost;
+		}
+	}
+
+	/**
+	 * Backing file.
+	 */
+	private File file;
+
+	/**
+	 * Entries in memory (in access order).
+	 */
+	private LinkedHashMap<String, Entry> entries;
+
+	/**
+	 * Writer appending to backing file.
+	 */
+	private BufferedWriter writer;
+
+	/**
+	 * Creates new cache backed by given file (entries already in file are loaded).
+	 * 
+	 * @param filePath path to backing file (created if absent)
+	 * @param capacity capacity (number of entries kept in memory)
+	 * @throws IOException whenever reading or opening file fails
+	 */
+	@SuppressWarnings("serial")
+	public SolutionsCache(String filePath, final int capacity) throws IOException {
+		this.file = new File(filePath);
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
+			 */
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > capacity;
+			}
+		};
+		load();
+		this.writer = new BufferedWriter(new FileWriter(file, true));
+	}
+
+	/**
+	 * Creates new cache of default capacity backed by given file (entries already in file are loaded).
+	 * 
+	 * @param filePath path to backing file (created if absent)
+	 * @throws IOException whenever reading or opening file fails
+	 */
+	public SolutionsCache(String filePath) throws IOException {
+		this(filePath, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Returns key for given algorithm, heuristics and initial state.
+	 * 
+	 * @param algorithmName name of algorithm (e.g. its class name)
+	 * @param heuristicsName name of heuristics (e.g. its class name)
+	 * @param stateKey key of initial state (its full content, e.g. its string representation)
+	 * @return key in cache
+	 */
+	public static String key(String algorithmName, String heuristicsName, String stateKey) {
+		return algorithmName + "|" + heuristicsName + "|" + stateKey;
+	}
+
+	/**
+	 * Returns cached solution for given key, or null if absent.
+	 * 
+	 * @param key key in cache
+	 * @return cached solution or null
+	 */
+	public synchronized Entry get(String key) {
+		return entries.get(key);
+	}
+
+	/**
+	 * Memorizes given solution (its moves along path and g value) under given key, and appends it to backing file.
+	 * 
+	 * @param key key in cache
+	 * @param solution reference to solution state
+	 * @throws IOException whenever writing fails
+	 */
+	public synchronized void put(String key, GraphState solution) throws IOException {
+		Entry entry = new Entry(new ArrayList<String>(solution.getMovesAlongPath()), solution.getG());
+		entries.put(key, entry);
+		StringBuilder line = new StringBuilder(escape(key));
+		line.append(SEPARATOR).append(entry.cost);
+		for (String move : entry.moves)
+			line.append(SEPARATOR).append(escape(move));
+		writer.write(line.toString());
+		writer.newLine();
+		writer.flush();
+	}
+
+	/**
+	 * Returns number of entries kept in memory.
+	 * 
+	 * @return number of entries
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Closes backing file.
+	 * 
+	 * @throws IOException whenever closing fails
+	 */
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+
+	/**
+	 * Loads entries from backing file (lines that cannot be parsed, e.g. truncated by a crash, are skipped).
+	 * 
+	 * @throws IOException whenever reading fails
+	 */
+	private void load() throws IOException {
+		if (!file.exists())
+			return;
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+			if (fields.length < 2)
+				continue;
+			try {
+				double cost = Double.parseDouble(fields[1]);
+				List<String> moves = new ArrayList<String>(fields.length - 2);
+				for (int i = 2; i < fields.length; i++)
+					moves.add(unescape(fields[i]));
+				entries.put(unescape(fields[0]), new Entry(moves, cost));
+			} catch (NumberFormatException e) {
+			}
+		}
+		reader.close();
+	}
+
+	/**
+	 * Escapes backslashes, tabs and line breaks.
+	 * 
+	 * @param text text to be escaped
+	 * @return escaped text
+	 */
+	private static String escape(String text) {
+		StringBuilder builder = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			default:
+				builder.append(c);
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Reverts escaping made by escape(...).
+	 * 
+	 * @param text escaped text
+	 * @return original text
+	 */
+	private static String unescape(String text) {
+		StringBuilder builder = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if ((c == '\\') && (i + 1 < text.length())) {
+				char next = text.charAt(++i);
+				builder.append((next == 't') ? '\t' : ((next == 'n') ? '\n' : ((next == 'r') ? '\r' : next)));
+			} else
+				builder.append(c);
+		}
+		return builder.toString();
+	}
+}
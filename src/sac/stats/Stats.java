@@ -1,5 +1,6 @@
 package sac.stats;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -58,10 +59,19 @@ public class Stats {
 			addEntry(StatsCategory.GRAPH_SEARCH_SOLUTIONS.toString(), Double.valueOf(graphSA.getSolutions().size()), multiIndex);
 			addEntry(StatsCategory.GRAPH_SEARCH_CLOSED_STATES.toString(), Double.valueOf(graphSA.getClosedStatesCount()), multiIndex);
 			addEntry(StatsCategory.GRAPH_SEARCH_OPEN_STATES.toString(), Double.valueOf(graphSA.getOpenSet().size()), multiIndex);
+			addEntry(StatsCategory.GRAPH_SEARCH_GENERATED_STATES.toString(), Double.valueOf(graphSA.getGeneratedStatesCount()), multiIndex);
+			addEntry(StatsCategory.GRAPH_SEARCH_DUPLICATE_STATES.toString(), Double.valueOf(graphSA.getDuplicateStatesCount()), multiIndex);
 			if (!graphSA.getSolutions().isEmpty()) {
 				addEntry(StatsCategory.GRAPH_SEARCH_PATH_LENGTH.toString(), Double.valueOf(graphSA.getSolutions().get(0).getPath().size()), multiIndex);
 				addEntry(StatsCategory.GRAPH_SEARCH_PATH_G.toString(), Double.valueOf(graphSA.getSolutions().get(0).getG()), multiIndex);
 			}
+			// per-layer entries (layer number appended to multi index), for algorithms searching layer by layer
+			List<Long> layersSizes = graphSA.getLayersSizes();
+			Object[] layerMultiIndex = Arrays.copyOf(multiIndex, multiIndex.length + 1);
+			for (int i = 0; i < layersSizes.size(); i++) {
+				layerMultiIndex[multiIndex.length] = Integer.valueOf(i);
+				addEntry(StatsCategory.GRAPH_SEARCH_LAYER_SIZE.toString(), Double.valueOf(layersSizes.get(i)), layerMultiIndex.clone());
+			}
 		} else if (algorithm instanceof GameSearchAlgorithm) {
 			GameSearchAlgorithm gameSA = (GameSearchAlgorithm) algorithm;
 			addEntry(StatsCategory.GAME_SEARCH_DURATION_TIME.toString(), gameSA.getDurationTime(), multiIndex);
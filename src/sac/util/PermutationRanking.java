@@ -0,0 +1,151 @@
+package sac.util;
+
+/**
+ * Perfect hashing of permutations of {0, 1, ..., n-1} onto {0, 1, ..., n!-1} in linear time, by the ranking and
+ * unranking functions of Myrvold and Ruskey (the resulting order is not lexicographic). Also k-of-n partial
+ * permutations (e.g. positions of a pattern of k tiles of sliding puzzle) are ranked onto {0, 1, ..., n!/(n-k)!-1}, in
+ * lexicographic order.
+ * 
+ * @author Przemysław Klęsk (<a href="mailto:pklesk@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ * @author Marcin Korzeń (<a href="mailto:mkorzen@wi.zut.edu.pl">wi.zut.edu.pl</a>)
+ */
+public class PermutationRanking {
+
+	/**
+	 * Largest n for which n! fits in long type.
+	 */
+	public static final int MAX_N = 20;
+
+	/**
+	 * Returns n! (for n not larger than MAX_N).
+	 * 
+	 * @param n argument
+	 * @return n factorial
+	 */
+	public static long factorial(int n) {
+		if ((n < 0) || (n > MAX_N))
+			throw new IllegalArgumentException("Factorial out of long range for n = " + n + ".");
+		long result = 1;
+		for (int i = 2; i <= n; i++)
+			result *= i;
+		return result;
+	}
+
+	/**
+	 * Returns rank of given permutation of {0, 1, ..., n-1} (n not larger than MAX_N). The permutation itself is not
+	 * modified.
+	 * 
+	 * @param permutation permutation as array of bytes
+	 * @return rank of permutation from {0, 1, ..., n!-1}
+	 */
+	public static long rank(byte[] permutation) {
+		int n = permutation.length;
+		byte[] pi = permutation.clone();
+		byte[] inverse = new byte[n];
+		for (int i = 0; i < n; i++)
+			inverse[pi[i]] = (byte) i;
+
+		long rank = 0;
+		long multiplier = 1;
+		for (int m = n; m > 1; m--) {
+			int s = pi[m - 1];
+			int j = inverse[m - 1];
+			pi[j] = (byte) s;
+			pi[m - 1] = (byte) (m - 1);
+			inverse[s] = (byte) j;
+			inverse[m - 1] = (byte) (m - 1);
+			rank += s * multiplier;
+			multiplier *= m;
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns permutation of {0, 1, ..., n-1} with given rank (inverse of rank(...) method).
+	 * 
+	 * @param rank rank of permutation from {0, 1, ..., n!-1}
+	 * @param n length of permutation
+	 * @return permutation as array of bytes
+	 */
+	public static byte[] unrank(long rank, int n) {
+		byte[] pi = new byte[n];
+		for (int i = 0; i < n; i++)
+			pi[i] = (byte) i;
+		for (int m = n; m > 0; m--) {
+			int j = (int) (rank % m);
+			byte temp = pi[m - 1];
+			pi[m - 1] = pi[j];
+			pi[j] = temp;
+			rank /= m;
+		}
+		return pi;
+	}
+
+	/**
+	 * Returns number of k-of-n partial permutations (sequences of k distinct elements of {0, 1, ..., n-1}), i.e.
+	 * n! / (n-k)!, or -1 if it exceeds long range.
+	 * 
+	 * @param n number of elements
+	 * @param k length of partial permutations
+	 * @return number of partial permutations or -1
+	 */
+	public static long partialPermutationsCount(int n, int k) {
+		if ((k < 0) || (k > n))
+			throw new IllegalArgumentException("Wrong length " + k + " of partial permutations of " + n + " elements.");
+		long result = 1;
+		for (int m = n; m > n - k; m--) {
+			if (result > Long.MAX_VALUE / m)
+				return -1;
+			result *= m;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns rank of given k-of-n partial permutation, i.e. sequence of k distinct elements of {0, 1, ..., n-1} (n not
+	 * larger than 64, number of partial permutations within long range), in lexicographic order. Runs in linear time,
+	 * since numbers of smaller elements used so far are bit counts of a mask. The partial permutation itself is not
+	 * modified.
+	 * 
+	 * @param partialPermutation partial permutation as array of bytes
+	 * @param n number of elements
+	 * @return rank of partial permutation from {0, 1, ..., n!/(n-k)!-1}
+	 */
+	public static long rank(byte[] partialPermutation, int n) {
+		long used = 0L;
+		long rank = 0L;
+		for (int i = 0; i < partialPermutation.length; i++) {
+			int element = partialPermutation[i];
+			rank = rank * (n - i) + element - Long.bitCount(used & ((1L << element) - 1L));
+			used |= 1L << element;
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns k-of-n partial permutation with given rank (inverse of rank(byte[], int) method).
+	 * 
+	 * @param rank rank of partial permutation from {0, 1, ..., n!/(n-k)!-1}
+	 * @param n number of elements
+	 * @param k length of partial permutation
+	 * @return partial permutation as array of bytes
+	 */
+	public static byte[] unrank(long rank, int n, int k) {
+		int[] digits = new int[k];
+		for (int i = k - 1; i >= 0; i--) {
+			digits[i] = (int) (rank % (n - i));
+			rank /= (n - i);
+		}
+		byte[] partialPermutation = new byte[k];
+		long used = 0L;
+		for (int i = 0; i < k; i++) {
+			int element = 0;
+			for (int free = -1; ; element++)
+				if (((used & (1L << element)) == 0L) && (++free == digits[i]))
+					break;
+			partialPermutation[i] = (byte) element;
+			used |= 1L << element;
+		}
+		return partialPermutation;
+	}
+}
\ No newline at end of file